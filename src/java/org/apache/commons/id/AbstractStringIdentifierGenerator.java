@@ -67,6 +67,21 @@ public abstract class AbstractStringIdentifierGenerator implements StringIdentif
 
     public abstract String nextStringIdentifier();
 
+    /**
+     * Appends the next identifier in the sequence to the given buffer.
+     *
+     * <p>The default implementation appends the result of
+     * {@link #nextStringIdentifier()}. Implementations that assemble their
+     * identifiers from characters should override this method to write
+     * them directly.</p>
+     *
+     * @param buffer {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    public StringBuilder appendTo(StringBuilder buffer) {
+        return buffer.append(nextStringIdentifier());
+    }
+
     /**
      * Returns the maximum length (number or characters) for an identifier
      * from this sequence.
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id;
+
+/**
+ * Base 36 encoder and decoder for non-negative long values.
+ * <p>
+ * The encoding uses the same alphabet as <code>Long.toString(value, 36)</code>
+ * (digits followed by lower case letters), but writes the digits directly into
+ * a caller supplied <code>char[]</code> or <code>StringBuilder</code>,
+ * optionally left-padded with '0' to a fixed width. Decoding accepts upper
+ * and lower case letters and reads directly from the source, so neither
+ * direction creates intermediate strings.
+ * </p>
+ *
+ * @author Commons-Id team
+ * @version $Id$
+ */
+public final class Base36 {
+
+    /** The radix of the encoding. */
+    public static final int RADIX = 36;
+
+    /** Maximum number of characters needed to encode a long value. */
+    public static final int MAX_LONG_LENGTH = 13;
+
+    /** The digits used to encode a value. */
+    private static final char[] DIGITS = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
+        'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j',
+        'k', 'l', 'm', 'n', 'o', 'p', 'q', 'r', 's', 't',
+        'u', 'v', 'w', 'x', 'y', 'z'
+    };
+
+    /** Digit value for each ASCII character, -1 for illegal characters. */
+    private static final byte[] VALUES = new byte[128];
+
+    /** <code>36^i - 1</code>, the largest value that fits into i digits. */
+    private static final long[] MAX_VALUES = new long[MAX_LONG_LENGTH + 1];
+
+    static {
+        for (int i = 0; i < VALUES.length; i++) {
+            VALUES[i] = -1;
+        }
+        for (int i = 0; i < DIGITS.length; i++) {
+            VALUES[DIGITS[i]] = (byte) i;
+            VALUES[Character.toUpperCase(DIGITS[i])] = (byte) i;
+        }
+        long power = 1;
+        for (int i = 0; i < MAX_LONG_LENGTH; i++) {
+            MAX_VALUES[i] = power - 1;
+            power *= RADIX;
+        }
+        MAX_VALUES[MAX_LONG_LENGTH] = Long.MAX_VALUE;
+    }
+
+    /**
+     * <p>Hide constructor in utility class.</p>
+     */
+    private Base36() {
+    }
+
+    /**
+     * Returns the number of digits needed to encode the value.
+     *
+     * @param value the non-negative value
+     * @return the number of digits, at least 1
+     * @throws IllegalArgumentException if <code>value</code> is negative
+     */
+    public static int length(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        int length = 1;
+        while (value > MAX_VALUES[length]) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Returns the largest value that can be encoded with the given number of
+     * digits.
+     *
+     * @param width the number of digits
+     * @return the largest value that fits into <code>width</code> digits
+     * @throws IllegalArgumentException if <code>width</code> is negative
+     */
+    public static long maxValue(int width) {
+        if (width < 0) {
+            throw new IllegalArgumentException("Negative width: " + width);
+        }
+        return width < MAX_VALUES.length ? MAX_VALUES[width] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Encodes a value with the minimum number of digits.
+     *
+     * @param value the non-negative value to encode
+     * @param buffer the buffer to write to
+     * @param offset the index of the first character to write
+     * @return the index after the last character written
+     * @throws IllegalArgumentException if <code>value</code> is negative
+     */
+    public static int encode(long value, char[] buffer, int offset) {
+        return encode(value, buffer, offset, length(value));
+    }
+
+    /**
+     * Encodes a value into exactly <code>width</code> digits, padding with '0'
+     * on the left.
+     *
+     * @param value the non-negative value to encode
+     * @param buffer the buffer to write to
+     * @param offset the index of the first character to write
+     * @param width the number of characters to write
+     * @return the index after the last character written
+     * @throws IllegalArgumentException if <code>value</code> is negative or
+     *             does not fit into <code>width</code> digits
+     */
+    public static int encode(long value, char[] buffer, int offset, int width) {
+        if (value < 0 || value > maxValue(width)) {
+            throw new IllegalArgumentException("Value " + value + " does not fit into "
+                    + width + " base 36 digits");
+        }
+        final int end = offset + width;
+        for (int i = end - 1; i >= offset; i--) {
+            buffer[i] = DIGITS[(int) (value % RADIX)];
+            value /= RADIX;
+        }
+        return end;
+    }
+
+    /**
+     * Appends a value with the minimum number of digits.
+     *
+     * @param value the non-negative value to encode
+     * @param buffer the buffer to append to
+     * @return the buffer
+     * @throws IllegalArgumentException if <code>value</code> is negative
+     */
+    public static StringBuilder encode(long value, StringBuilder buffer) {
+        return encode(value, buffer, length(value));
+    }
+
+    /**
+     * Appends a value as exactly <code>width</code> digits, padding with '0'
+     * on the left.
+     *
+     * @param value the non-negative value to encode
+     * @param buffer the buffer to append to
+     * @param width the number of characters to append
+     * @return the buffer
+     * @throws IllegalArgumentException if <code>value</code> is negative or
+     *             does not fit into <code>width</code> digits
+     */
+    public static StringBuilder encode(long value, StringBuilder buffer, int width) {
+        if (value < 0 || value > maxValue(width)) {
+            throw new IllegalArgumentException("Value " + value + " does not fit into "
+                    + width + " base 36 digits");
+        }
+        final int offset = buffer.length();
+        buffer.setLength(offset + width);
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer.setCharAt(i, DIGITS[(int) (value % RADIX)]);
+            value /= RADIX;
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the value of a single base 36 digit.
+     *
+     * @param ch the digit
+     * @return the value of the digit or -1 if <code>ch</code> is not a base 36 digit
+     */
+    public static int digit(char ch) {
+        return ch < VALUES.length ? VALUES[ch] : -1;
+    }
+
+    /**
+     * Decodes a sequence of base 36 digits.
+     *
+     * @param buffer the buffer to read from
+     * @param offset the index of the first digit
+     * @param length the number of digits
+     * @return the decoded value
+     * @throws NumberFormatException if the sequence is empty, contains an
+     *             illegal character or exceeds {@link Long#MAX_VALUE}
+     */
+    public static long decode(char[] buffer, int offset, int length) {
+        if (length < 1) {
+            throw new NumberFormatException("No digits to decode");
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = accumulate(value, buffer[i]);
+        }
+        return value;
+    }
+
+    /**
+     * Decodes a sequence of base 36 digits.
+     *
+     * @param str the string to read from
+     * @param offset the index of the first digit
+     * @param length the number of digits
+     * @return the decoded value
+     * @throws NumberFormatException if the sequence is empty, contains an
+     *             illegal character or exceeds {@link Long#MAX_VALUE}
+     */
+    public static long decode(String str, int offset, int length) {
+        if (length < 1) {
+            throw new NumberFormatException("No digits to decode");
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = accumulate(value, str.charAt(i));
+        }
+        return value;
+    }
+
+    /**
+     * Appends a digit to an already decoded value.
+     *
+     * @param value the value decoded so far
+     * @param ch the next digit
+     * @return the new value
+     * @throws NumberFormatException if <code>ch</code> is illegal or the
+     *             result exceeds {@link Long#MAX_VALUE}
+     */
+    private static long accumulate(long value, char ch) {
+        final int digit = digit(ch);
+        if (digit < 0) {
+            throw new NumberFormatException("Illegal base 36 character " + ch);
+        }
+        if (value > (Long.MAX_VALUE - digit) / RADIX) {
+            throw new NumberFormatException("Base 36 value exceeds Long.MAX_VALUE");
+        }
+        return value * RADIX + digit;
+    }
+}
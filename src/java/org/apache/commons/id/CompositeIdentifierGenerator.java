@@ -35,9 +35,18 @@ public class CompositeIdentifierGenerator extends AbstractStringIdentifierGenera
      */
     private static final long serialVersionUID = 20060206L;
     
+    /**
+     * Capacity used for the buffer of {@link #nextStringIdentifier()} if a
+     * generator has no upper bound for the length of its identifiers.
+     */
+    private static final int UNBOUNDED_SLACK = 16;
+
     /** The identifier generators to concatenate */
     private final StringIdentifierGenerator[] identifierGenerators;
 
+    /** The initial buffer capacity, calculated on first use. */
+    private transient int capacity;
+
     /**
      * Factory method to create a new <code>CompositeIdentifierGenerator</code>
      * from an input array of <code>StringIdentifierGenerator</code> instances.
@@ -123,17 +132,36 @@ public class CompositeIdentifierGenerator extends AbstractStringIdentifierGenera
     }
 
     public String nextStringIdentifier() {
-        StringBuffer buffer = new StringBuffer();
+        int size = capacity;
+        if (size == 0) {
+            size = capacity();
+            capacity = size;
+        }
+        return appendTo(new StringBuilder(size)).toString();
+    }
+
+    public StringBuilder appendTo(StringBuilder buffer) {
         for (int i = 0; i < identifierGenerators.length; i++) {
-            buffer.append(identifierGenerators[i].nextStringIdentifier());
+            identifierGenerators[i].appendTo(buffer);
         }
-        return buffer.toString();
+        return buffer;
     }
 
+    /**
+     * Returns the maximum length (number or characters) for an identifier
+     * from this sequence.
+     *
+     * @return the sum of the maximum lengths of the concatenated generators,
+     *  or {@link #INFINITE_MAX_LENGTH} if any of them has no upper bound
+     */
     public long maxLength() {
         long length = 0;
         for (int i = 0; i < identifierGenerators.length; i++) {
-            length += identifierGenerators[i].maxLength();
+            final long max = identifierGenerators[i].maxLength();
+            if (max == INFINITE_MAX_LENGTH) {
+                return INFINITE_MAX_LENGTH;
+            }
+            length += max;
         }
         return length;
     }
@@ -146,6 +174,23 @@ public class CompositeIdentifierGenerator extends AbstractStringIdentifierGenera
         return length;
     }
 
+    /**
+     * Calculates the buffer capacity for a single identifier from the maximum
+     * lengths of the generators. Generators without upper bound contribute
+     * their minimum length and some slack.
+     *
+     * @return the capacity, at least one
+     */
+    private int capacity() {
+        long size = 0;
+        for (int i = 0; i < identifierGenerators.length; i++) {
+            final long max = identifierGenerators[i].maxLength();
+            size += max == INFINITE_MAX_LENGTH
+                ? identifierGenerators[i].minLength() + UNBOUNDED_SLACK : max;
+        }
+        return (int) Math.max(1, Math.min(size, Integer.MAX_VALUE - 8));
+    }
+
     /**
      * Returns a (shallow) copy of the array of identifier generators
      * concatenated by this generator.
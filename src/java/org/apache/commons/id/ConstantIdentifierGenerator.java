@@ -80,6 +80,10 @@ public class ConstantIdentifierGenerator extends
     public String nextStringIdentifier() {
         return identifier;
     }
+
+    public StringBuilder appendTo(StringBuilder buffer) {
+        return buffer.append(identifier);
+    }
     
     /**
      * Returns the length of the constant string returned by this generator.
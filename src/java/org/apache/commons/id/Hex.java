@@ -17,11 +17,21 @@
 
 package org.apache.commons.id;
 
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 import org.apache.commons.id.DecoderException;
 import org.apache.commons.id.EncoderException;
 
 /**
  * Hex encoder and decoder.
+ * <p>
+ * Encoding and decoding are table driven. The <code>encodeTo</code> and
+ * <code>decodeTo</code> methods write into caller supplied arrays or buffers,
+ * so that no intermediate objects are created. Encoding produces lower case
+ * digits, decoding accepts upper and lower case digits.
+ * </p>
  * 
  * @since 1.1
  * @author Apache Software Foundation
@@ -37,6 +47,35 @@ public class Hex {//implements BinaryEncoder, BinaryDecoder {
            '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
     };
 
+    /**
+     * The first hex digit for each byte value (indexed by <code>b &amp; 0xFF</code>).
+     */
+    private static final char[] HIGH_DIGITS = new char[256];
+
+    /**
+     * The second hex digit for each byte value (indexed by <code>b &amp; 0xFF</code>).
+     */
+    private static final char[] LOW_DIGITS = new char[256];
+
+    /**
+     * Digit value for each ASCII character, -1 for illegal characters.
+     */
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            HIGH_DIGITS[i] = DIGITS[i >>> 4];
+            LOW_DIGITS[i] = DIGITS[i & 0x0F];
+        }
+        for (int i = 0; i < VALUES.length; i++) {
+            VALUES[i] = -1;
+        }
+        for (int i = 0; i < DIGITS.length; i++) {
+            VALUES[DIGITS[i]] = (byte) i;
+            VALUES[Character.toUpperCase(DIGITS[i])] = (byte) i;
+        }
+    }
+
     /**
      * Converts an array of characters representing hexidecimal values into an
      * array of bytes of those same values. The returned array will be half the
@@ -51,24 +90,11 @@ public class Hex {//implements BinaryEncoder, BinaryDecoder {
      *         is supplied
      */
     public static byte[] decodeHex(char[] data) throws DecoderException {
-
-        int len = data.length;
-
-        if ((len & 0x01) != 0) {
+        if ((data.length & 0x01) != 0) {
             throw new DecoderException("Odd number of characters.");
         }
-
-        byte[] out = new byte[len >> 1];
-
-        // two characters form the hex value.
-        for (int i = 0, j = 0; j < len; i++) {
-            int f = toDigit(data[j], j) << 4;
-            j++;
-            f = f | toDigit(data[j], j);
-            j++;
-            out[i] = (byte) (f & 0xFF);
-        }
-
+        byte[] out = new byte[data.length >> 1];
+        decodeTo(data, 0, data.length, out, 0);
         return out;
     }
 
@@ -81,13 +107,36 @@ public class Hex {//implements BinaryEncoder, BinaryDecoder {
      * @throws DecoderException Thrown if ch is an illegal hex character
      */
     protected static int toDigit(char ch, int index) throws DecoderException {
-        int digit = Character.digit(ch, 16);
-        if (digit == -1) {
-            throw new DecoderException("Illegal hexadecimal charcter " + ch + " at index " + index);
+        int digit = digit(ch);
+        if (digit < 0) {
+            throw new DecoderException("Illegal hexadecimal character " + ch + " at index " + index);
         }
         return digit;
     }
 
+    /**
+     * Returns the value of a hex digit without branching on the input. Any
+     * character outside the ASCII range is mapped to a negative value.
+     *
+     * @param ch the character (or byte value in the range 0 to 255)
+     * @return the digit value or a negative value if <code>ch</code> is not a hex digit
+     * @since 1.1
+     */
+    public static int digit(int ch) {
+        return VALUES[ch & 0x7F] | -(ch >>> 7);
+    }
+
+    /**
+     * Returns the lower case hex digit of a value.
+     *
+     * @param value the value, only its lowest 4 bits are used
+     * @return the digit
+     * @since 1.1
+     */
+    public static char forDigit(int value) {
+        return DIGITS[value & 0x0F];
+    }
+
     /**
      * Converts an array of bytes into an array of characters representing the hexidecimal values of each byte in order.
      * The returned array will be double the length of the passed array, as it takes two characters to represent any
@@ -98,18 +147,239 @@ public class Hex {//implements BinaryEncoder, BinaryDecoder {
      * @return A char[] containing hexidecimal characters
      */
     public static char[] encodeHex(byte[] data) {
+        char[] out = new char[data.length << 1];
+        encodeTo(data, 0, data.length, out, 0);
+        return out;
+    }
+
+    /**
+     * Writes the hex characters of a range of bytes into a char array.
+     *
+     * @param src the bytes to encode
+     * @param off the index of the first byte to encode
+     * @param len the number of bytes to encode
+     * @param dst the array to write the <code>2 * len</code> characters to
+     * @param dstOff the index of the first character to write
+     * @return the index after the last character written
+     * @throws IndexOutOfBoundsException if a range exceeds its array
+     */
+    public static int encodeTo(byte[] src, int off, int len, char[] dst, int dstOff) {
+        int j = dstOff;
+        for (int i = off; i < off + len; i++) {
+            final int b = src[i] & 0xFF;
+            dst[j++] = HIGH_DIGITS[b];
+            dst[j++] = LOW_DIGITS[b];
+        }
+        return j;
+    }
+
+    /**
+     * Writes the hex characters of a range of bytes as ASCII bytes into a byte array.
+     *
+     * @param src the bytes to encode
+     * @param off the index of the first byte to encode
+     * @param len the number of bytes to encode
+     * @param dst the array to write the <code>2 * len</code> characters to
+     * @param dstOff the index of the first character to write
+     * @return the index after the last character written
+     * @throws IndexOutOfBoundsException if a range exceeds its array
+     */
+    public static int encodeTo(byte[] src, int off, int len, byte[] dst, int dstOff) {
+        int j = dstOff;
+        for (int i = off; i < off + len; i++) {
+            final int b = src[i] & 0xFF;
+            dst[j++] = (byte) HIGH_DIGITS[b];
+            dst[j++] = (byte) LOW_DIGITS[b];
+        }
+        return j;
+    }
 
-        int l = data.length;
+    /**
+     * Encodes the remaining bytes of <code>src</code> as ASCII hex characters
+     * into <code>dst</code>. The positions of both buffers are advanced.
+     *
+     * @param src the bytes to encode
+     * @param dst the buffer to write the characters to
+     * @throws BufferOverflowException if <code>dst</code> has less than
+     *  <code>2 * src.remaining()</code> bytes remaining, neither buffer is
+     *  modified in this case
+     */
+    public static void encodeTo(ByteBuffer src, ByteBuffer dst) {
+        if (dst.remaining() < src.remaining() << 1) {
+            throw new BufferOverflowException();
+        }
+        if (src.hasArray() && dst.hasArray()) {
+            final int len = src.remaining();
+            encodeTo(src.array(), src.arrayOffset() + src.position(), len,
+                dst.array(), dst.arrayOffset() + dst.position());
+            // cast for Java 8, where only Buffer.position(int) exists
+            ((Buffer) src).position(src.position() + len);
+            ((Buffer) dst).position(dst.position() + (len << 1));
+            return;
+        }
+        while (src.hasRemaining()) {
+            final int b = src.get() & 0xFF;
+            dst.put((byte) HIGH_DIGITS[b]);
+            dst.put((byte) LOW_DIGITS[b]);
+        }
+    }
 
-           char[] out = new char[l << 1];
+    /**
+     * Decodes a range of hex characters into a byte array.
+     * <p>
+     * The characters are validated as a whole after decoding, the content of
+     * the destination range is undefined if an exception is thrown.
+     * </p>
+     *
+     * @param src the characters to decode
+     * @param off the index of the first character
+     * @param len the number of characters, must be even
+     * @param dst the array to write the <code>len / 2</code> bytes to
+     * @param dstOff the index of the first byte to write
+     * @return the index after the last byte written
+     * @throws DecoderException if <code>len</code> is odd or the range contains
+     *  an illegal character
+     * @throws IndexOutOfBoundsException if a range exceeds its array
+     */
+    public static int decodeTo(char[] src, int off, int len, byte[] dst, int dstOff)
+            throws DecoderException {
+        if ((len & 0x01) != 0) {
+            throw new DecoderException("Odd number of characters.");
+        }
+        int invalid = 0;
+        int j = dstOff;
+        for (int i = off; i < off + len; i += 2) {
+            final int high = digit(src[i]);
+            final int low = digit(src[i + 1]);
+            invalid |= high | low;
+            dst[j++] = (byte) (high << 4 | low);
+        }
+        if (invalid < 0) {
+            for (int i = off; i < off + len; i++) {
+                toDigit(src[i], i);
+            }
+        }
+        return j;
+    }
 
-           // two characters form the hex value.
-           for (int i = 0, j = 0; i < l; i++) {
-               out[j++] = DIGITS[(0xF0 & data[i]) >>> 4 ];
-               out[j++] = DIGITS[ 0x0F & data[i] ];
-           }
+    /**
+     * Decodes a range of hex characters into a byte array.
+     * <p>
+     * The characters are validated as a whole after decoding, the content of
+     * the destination range is undefined if an exception is thrown.
+     * </p>
+     *
+     * @param src the characters to decode
+     * @param off the index of the first character
+     * @param len the number of characters, must be even
+     * @param dst the array to write the <code>len / 2</code> bytes to
+     * @param dstOff the index of the first byte to write
+     * @return the index after the last byte written
+     * @throws DecoderException if <code>len</code> is odd or the range contains
+     *  an illegal character
+     * @throws IndexOutOfBoundsException if a range exceeds its sequence or array
+     */
+    public static int decodeTo(CharSequence src, int off, int len, byte[] dst, int dstOff)
+            throws DecoderException {
+        if ((len & 0x01) != 0) {
+            throw new DecoderException("Odd number of characters.");
+        }
+        int invalid = 0;
+        int j = dstOff;
+        for (int i = off; i < off + len; i += 2) {
+            final int high = digit(src.charAt(i));
+            final int low = digit(src.charAt(i + 1));
+            invalid |= high | low;
+            dst[j++] = (byte) (high << 4 | low);
+        }
+        if (invalid < 0) {
+            for (int i = off; i < off + len; i++) {
+                toDigit(src.charAt(i), i);
+            }
+        }
+        return j;
+    }
+
+    /**
+     * Decodes a range of ASCII hex characters into a byte array.
+     * <p>
+     * The characters are validated as a whole after decoding, the content of
+     * the destination range is undefined if an exception is thrown.
+     * </p>
+     *
+     * @param src the ASCII characters to decode
+     * @param off the index of the first character
+     * @param len the number of characters, must be even
+     * @param dst the array to write the <code>len / 2</code> bytes to
+     * @param dstOff the index of the first byte to write
+     * @return the index after the last byte written
+     * @throws DecoderException if <code>len</code> is odd or the range contains
+     *  an illegal character
+     * @throws IndexOutOfBoundsException if a range exceeds its array
+     */
+    public static int decodeTo(byte[] src, int off, int len, byte[] dst, int dstOff)
+            throws DecoderException {
+        if ((len & 0x01) != 0) {
+            throw new DecoderException("Odd number of characters.");
+        }
+        int invalid = 0;
+        int j = dstOff;
+        for (int i = off; i < off + len; i += 2) {
+            final int high = digit(src[i] & 0xFF);
+            final int low = digit(src[i + 1] & 0xFF);
+            invalid |= high | low;
+            dst[j++] = (byte) (high << 4 | low);
+        }
+        if (invalid < 0) {
+            for (int i = off; i < off + len; i++) {
+                toDigit((char) (src[i] & 0xFF), i);
+            }
+        }
+        return j;
+    }
 
-           return out;
+    /**
+     * Decodes the remaining ASCII hex characters of <code>src</code> into
+     * <code>dst</code>. The positions of both buffers are advanced if the
+     * input is valid.
+     *
+     * @param src the ASCII characters to decode
+     * @param dst the buffer to write the bytes to
+     * @throws DecoderException if <code>src</code> has an odd number of bytes
+     *  remaining or contains an illegal character
+     * @throws BufferOverflowException if <code>dst</code> has less than
+     *  <code>src.remaining() / 2</code> bytes remaining, neither buffer is
+     *  modified in this case
+     */
+    public static void decodeTo(ByteBuffer src, ByteBuffer dst) throws DecoderException {
+        final int len = src.remaining();
+        if ((len & 0x01) != 0) {
+            throw new DecoderException("Odd number of characters.");
+        }
+        if (dst.remaining() < len >> 1) {
+            throw new BufferOverflowException();
+        }
+        if (src.hasArray() && dst.hasArray()) {
+            decodeTo(src.array(), src.arrayOffset() + src.position(), len,
+                dst.array(), dst.arrayOffset() + dst.position());
+        } else {
+            final int start = src.position();
+            final int dstStart = dst.position();
+            int invalid = 0;
+            for (int i = start, j = dstStart; i < start + len; i += 2) {
+                final int high = digit(src.get(i) & 0xFF);
+                final int low = digit(src.get(i + 1) & 0xFF);
+                invalid |= high | low;
+                dst.put(j++, (byte) (high << 4 | low));
+            }
+            if (invalid < 0) {
+                for (int i = start; i < start + len; i++) {
+                    toDigit((char) (src.get(i) & 0xFF), i - start);
+                }
+            }
+        }
+        ((Buffer) src).position(src.position() + len);
+        ((Buffer) dst).position(dst.position() + (len >> 1));
     }
 	
     /**
@@ -127,7 +397,12 @@ public class Hex {//implements BinaryEncoder, BinaryDecoder {
      * @see #decodeHex(char[])
      */
 	public byte[] decode(byte[] array) throws DecoderException {
-		return decodeHex(new String(array).toCharArray());
+		if ((array.length & 0x01) != 0) {
+			throw new DecoderException("Odd number of characters.");
+		}
+		byte[] out = new byte[array.length >> 1];
+		decodeTo(array, 0, array.length, out, 0);
+		return out;
 	}
 	
     /**
@@ -164,7 +439,9 @@ public class Hex {//implements BinaryEncoder, BinaryDecoder {
      * @see #encodeHex(byte[])
      */
 	public byte[] encode(byte[] array) {
-		return new String(encodeHex(array)).getBytes();
+		byte[] out = new byte[array.length << 1];
+		encodeTo(array, 0, array.length, out, 0);
+		return out;
 	}
 
     /**
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>Exposes identifier generators as streams and generates identifiers in batches.</p>
+ *
+ * <p>The streams are backed by a spliterator that generates an identifier
+ * per element. Parallel streams split off batches of identifiers that are
+ * generated on the splitting thread, so workers process the batches without
+ * calling the generator. For consecutive numbers,
+ * {@link org.apache.commons.id.serial.LongGenerator#longs(long)} reserves the
+ * whole range at once instead.</p>
+ *
+ * <p>{@link #next(IdentifierGenerator, Object[], int, int)} serves a demand of
+ * <i>n</i> identifiers in one call. It is the building block for publishers
+ * with backpressure, such as a <code>java.util.concurrent.Flow.Publisher</code>
+ * whose subscription generates the requested identifiers in
+ * <code>request(n)</code>.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class IdentifierStreams {
+
+    /** The characteristics of identifier spliterators. */
+    private static final int CHARACTERISTICS = Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
+    /**
+     * <p>Hide constructor in utility class.</p>
+     */
+    private IdentifierStreams() {
+    }
+
+    /**
+     * Returns an infinite stream of identifiers.
+     *
+     * @param generator the generator
+     * @return the identifiers
+     * @throws IllegalArgumentException if <code>generator</code> is <code>null</code>
+     */
+    public static Stream stream(IdentifierGenerator generator) {
+        return StreamSupport.stream(new GeneratorSpliterator(generator, Long.MAX_VALUE, CHARACTERISTICS), false);
+    }
+
+    /**
+     * Returns a stream of a fixed number of identifiers.
+     *
+     * @param generator the generator
+     * @param count the number of identifiers
+     * @return the identifiers
+     * @throws IllegalArgumentException if <code>generator</code> is <code>null</code>
+     *  or <code>count</code> is negative
+     */
+    public static Stream stream(IdentifierGenerator generator, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        return StreamSupport.stream(new GeneratorSpliterator(generator, count, CHARACTERISTICS | Spliterator.SIZED), false);
+    }
+
+    /**
+     * Generates identifiers into an array.
+     *
+     * @param generator the generator
+     * @param dst the array to store the identifiers in
+     * @param off the index of the first identifier
+     * @param len the number of identifiers
+     * @return the index after the last identifier
+     * @throws IndexOutOfBoundsException if the range exceeds the array
+     */
+    public static int next(IdentifierGenerator generator, Object[] dst, int off, int len) {
+        if (off < 0 || len < 0 || off > dst.length - len) {
+            throw new IndexOutOfBoundsException("Range [" + off + ", " + (off + len) + ") of " + dst.length);
+        }
+        final int end = off + len;
+        for (int i = off; i < end; i++) {
+            dst[i] = generator.nextIdentifier();
+        }
+        return end;
+    }
+
+    /**
+     * A spliterator that generates its elements.
+     */
+    private static final class GeneratorSpliterator extends Spliterators.AbstractSpliterator {
+
+        /** The generator. */
+        private final IdentifierGenerator generator;
+
+        /** The number of identifiers left. */
+        private long remaining;
+
+        /**
+         * Constructor.
+         *
+         * @param generator the generator
+         * @param count the number of identifiers, <code>Long.MAX_VALUE</code> for infinite
+         * @param characteristics the characteristics
+         */
+        GeneratorSpliterator(IdentifierGenerator generator, long count, int characteristics) {
+            super(count, characteristics);
+            if (generator == null) {
+                throw new IllegalArgumentException("Generator must not be null");
+            }
+            this.generator = generator;
+            this.remaining = count;
+        }
+
+        public boolean tryAdvance(Consumer action) {
+            if (remaining <= 0) {
+                return false;
+            }
+            if (remaining != Long.MAX_VALUE) {
+                remaining--;
+            }
+            action.accept(generator.nextIdentifier());
+            return true;
+        }
+
+        public long estimateSize() {
+            return remaining;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Decorates an identifier generator with identifiers generated ahead of
+ * demand by a background thread.</p>
+ *
+ * <p>The background thread fills a bounded lock-free ring buffer up to the
+ * high watermark, then sleeps until consumers drained it to the low
+ * watermark. {@link #nextIdentifier()} takes an identifier from the ring
+ * without locking, reading a clock or calling a random number generator. If
+ * the ring is empty it falls through to the decorated generator.</p>
+ *
+ * <p>The decorated generator is called from the background thread and from
+ * the threads that fall through, so it must be thread safe. Identifiers are
+ * handed out in generation order while they come from the ring, but an
+ * identifier generated by a fall-through may overtake prefetched ones. If the
+ * decorated generator throws an exception on the background thread,
+ * prefetching stops and later calls fall through, so the exception reaches
+ * the caller.</p>
+ *
+ * <p>A prefetching generator holds a thread until it is {@link #close()
+ * closed}; identifiers still in the ring are discarded then.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class PrefetchingGenerator implements IdentifierGenerator, Closeable {
+
+    /** The longest time the background thread sleeps before it checks the ring again. */
+    private static final long PARK_NANOS = 10000000L;
+
+    /** The decorated generator. */
+    private final IdentifierGenerator generator;
+
+    /** The prefetched identifiers. */
+    private final Ring ring;
+
+    /** The ring is refilled once it holds this many identifiers or fewer. */
+    private final int lowWatermark;
+
+    /** The ring is filled up to this many identifiers. */
+    private final int highWatermark;
+
+    /** Number of identifiers taken from the ring. */
+    private final LongAdder hits = new LongAdder();
+
+    /** Number of identifiers generated on the calling thread. */
+    private final LongAdder misses = new LongAdder();
+
+    /** The background thread. */
+    private final Thread filler;
+
+    /** Is the background thread waiting for the low watermark. */
+    private volatile boolean waiting;
+
+    /** Was the generator closed. */
+    private volatile boolean closed;
+
+    /**
+     * Creates a prefetching generator that refills at a quarter of the capacity.
+     *
+     * @param generator the generator to decorate
+     * @param capacity the maximum number of prefetched identifiers, rounded up to a power of two
+     * @throws IllegalArgumentException if <code>generator</code> is <code>null</code>
+     *  or <code>capacity</code> is not positive or larger than 2^30
+     */
+    public PrefetchingGenerator(IdentifierGenerator generator, int capacity) {
+        this(generator, capacity, capacity / 4, capacity);
+    }
+
+    /**
+     * Creates a prefetching generator.
+     *
+     * @param generator the generator to decorate
+     * @param capacity the maximum number of prefetched identifiers, rounded up to a power of two
+     * @param lowWatermark the ring is refilled once it holds this many identifiers or fewer
+     * @param highWatermark the ring is filled up to this many identifiers
+     * @throws IllegalArgumentException if <code>generator</code> is <code>null</code>,
+     *  <code>capacity</code> is not positive or larger than 2^30 or the
+     *  watermarks are not <code>0 &lt;= lowWatermark &lt; highWatermark &lt;= capacity</code>
+     */
+    public PrefetchingGenerator(IdentifierGenerator generator, int capacity,
+            int lowWatermark, int highWatermark) {
+        if (generator == null) {
+            throw new IllegalArgumentException("Generator must not be null");
+        }
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        if (lowWatermark < 0 || lowWatermark >= highWatermark || highWatermark > capacity) {
+            throw new IllegalArgumentException("Invalid watermarks: " + lowWatermark + ", " + highWatermark);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.generator = generator;
+        this.ring = new Ring(size);
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.filler = new Thread(new Runnable() {
+            public void run() {
+                fill();
+            }
+        }, "commons-id-prefetch-" + generator.getClass().getName());
+        filler.setDaemon(true);
+        filler.start();
+    }
+
+    /**
+     * Returns a prefetched identifier, or generates one if none is prefetched.
+     *
+     * @return the next identifier
+     */
+    public Object nextIdentifier() {
+        final Object identifier = ring.poll();
+        if (identifier == null) {
+            misses.increment();
+            wake();
+            return generator.nextIdentifier();
+        }
+        hits.increment();
+        if (waiting && ring.size() <= lowWatermark) {
+            wake();
+        }
+        return identifier;
+    }
+
+    /**
+     * Wakes the background thread if it waits for the low watermark.
+     */
+    private void wake() {
+        if (waiting) {
+            waiting = false;
+            LockSupport.unpark(filler);
+        }
+    }
+
+    /**
+     * The loop of the background thread.
+     */
+    private void fill() {
+        while (!closed) {
+            try {
+                while (!closed && ring.size() < highWatermark && ring.offer(generator.nextIdentifier())) {
+                    // filling
+                }
+            } catch (RuntimeException e) {
+                // stop prefetching, callers fall through to the generator and see its exception
+                return;
+            }
+            waiting = true;
+            while (waiting && !closed && ring.size() > lowWatermark) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            waiting = false;
+        }
+    }
+
+    /**
+     * Stops the background thread and discards the prefetched identifiers.
+     * Later calls generate identifiers on the calling thread.
+     */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(filler);
+        try {
+            filler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        while (ring.poll() != null) {
+            // discard
+        }
+    }
+
+    /**
+     * Returns the decorated generator.
+     *
+     * @return the generator
+     */
+    public IdentifierGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Returns the maximum number of prefetched identifiers.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return ring.capacity();
+    }
+
+    /**
+     * Returns the number of identifiers currently prefetched.
+     *
+     * @return the number of identifiers in the ring
+     */
+    public int size() {
+        return ring.size();
+    }
+
+    /**
+     * Returns the number of identifiers taken from the ring.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of identifiers generated on the calling thread
+     * because the ring was empty.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the ratio of hits to all identifiers handed out.
+     *
+     * @return the hit rate, 0 if no identifiers were handed out
+     */
+    public double getHitRate() {
+        final long hitCount = hits.sum();
+        final long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * A bounded multi-producer multi-consumer queue. Every slot has a
+     * sequence number that tells producers and consumers whose turn it is,
+     * so both sides only compete for their own counter.
+     */
+    private static final class Ring {
+
+        /** The elements. */
+        private final AtomicReferenceArray slots;
+
+        /** The sequence numbers of the slots. */
+        private final AtomicLongArray sequences;
+
+        /** Mask to select a slot from a position. */
+        private final int mask;
+
+        /** The position of the next element to offer. */
+        private final AtomicLong tail = new AtomicLong();
+
+        /** The position of the next element to poll. */
+        private final AtomicLong head = new AtomicLong();
+
+        /**
+         * Constructor.
+         *
+         * @param capacity the capacity, a power of two
+         */
+        Ring(int capacity) {
+            this.slots = new AtomicReferenceArray(capacity);
+            this.sequences = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        /**
+         * Adds an element unless the ring is full.
+         *
+         * @param element the element, not <code>null</code>
+         * @return <code>false</code> if the ring is full
+         */
+        boolean offer(Object element) {
+            long pos = tail.get();
+            while (true) {
+                final int index = (int) pos & mask;
+                final long dif = sequences.get(index) - pos;
+                if (dif == 0) {
+                    if (tail.compareAndSet(pos, pos + 1)) {
+                        slots.lazySet(index, element);
+                        sequences.lazySet(index, pos + 1);
+                        return true;
+                    }
+                    pos = tail.get();
+                } else if (dif < 0) {
+                    return false;
+                } else {
+                    pos = tail.get();
+                }
+            }
+        }
+
+        /**
+         * Removes an element unless the ring is empty.
+         *
+         * @return the element or <code>null</code> if the ring is empty
+         */
+        Object poll() {
+            long pos = head.get();
+            while (true) {
+                final int index = (int) pos & mask;
+                final long dif = sequences.get(index) - (pos + 1);
+                if (dif == 0) {
+                    if (head.compareAndSet(pos, pos + 1)) {
+                        final Object element = slots.get(index);
+                        slots.lazySet(index, null);
+                        sequences.lazySet(index, pos + mask + 1);
+                        return element;
+                    }
+                    pos = head.get();
+                } else if (dif < 0) {
+                    return null;
+                } else {
+                    pos = head.get();
+                }
+            }
+        }
+
+        /**
+         * Returns the approximate number of elements.
+         *
+         * @return the number of elements
+         */
+        int size() {
+            final long size = tail.get() - head.get();
+            return size < 0 ? 0 : (int) Math.min(size, mask + 1);
+        }
+
+        /**
+         * Returns the capacity.
+         *
+         * @return the capacity
+         */
+        int capacity() {
+            return mask + 1;
+        }
+    }
+}
@@ -38,6 +38,25 @@ public interface StringIdentifierGenerator extends IdentifierGenerator {
      */
     String nextStringIdentifier();
 
+    /**
+     * Appends the next identifier in the sequence to the given buffer.
+     *
+     * <p>The result is the same as <code>buffer.append(nextStringIdentifier())</code>,
+     * but implementations write the characters directly into the buffer where
+     * possible, so that composed identifiers are built without intermediate
+     * strings.</p>
+     *
+     * <p>The default implementation appends the result of
+     * {@link #nextStringIdentifier()}, so that implementations written
+     * before this method was added keep working.</p>
+     *
+     * @param buffer the buffer to append the identifier to
+     * @return the buffer
+     */
+    default StringBuilder appendTo(StringBuilder buffer) {
+        return buffer.append(nextStringIdentifier());
+    }
+
     /**
      * Returns the maximum length (number or characters) for an identifier
      * from this sequence.
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>The counters and latency histogram of one generator.</p>
+ *
+ * <p>Instances are obtained from {@link Metrics}, which registers them as
+ * MBeans. Generators keep the instance in a <code>static final</code> field
+ * that is <code>null</code> if metrics are disabled, and guard every call
+ * with a <code>null</code> check:</p>
+ * <pre>
+ * private static final GeneratorMetrics METRICS = Metrics.forGenerator(MyGenerator.class);
+ * ...
+ * if (METRICS != null) {
+ *     METRICS.record(MetricEvent.GENERATED);
+ * }
+ * </pre>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class GeneratorMetrics implements GeneratorMetricsMBean {
+
+    /** The name of the generator. */
+    private final String name;
+
+    /** The counters, indexed by {@link MetricEvent#index()}. */
+    private final LongAdder[] counters = new LongAdder[MetricEvent.VALUES.length];
+
+    /** The latencies, indexed by {@link MetricEvent#index()}, <code>null</code> for other events. */
+    private final LatencyHistogram[] latencies = new LatencyHistogram[MetricEvent.VALUES.length];
+
+    /**
+     * Constructor.
+     *
+     * @param name the name of the generator
+     */
+    GeneratorMetrics(String name) {
+        this.name = name;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+            if (MetricEvent.VALUES[i].isLatency()) {
+                latencies[i] = new LatencyHistogram();
+            }
+        }
+    }
+
+    /**
+     * Counts one event.
+     *
+     * @param event the kind of event
+     */
+    public void record(MetricEvent event) {
+        record(event, 1);
+    }
+
+    /**
+     * Counts events, or records a latency for {@link MetricEvent#isLatency() latency events}.
+     *
+     * @param event the kind of event
+     * @param value the number of events or the latency in nanoseconds
+     */
+    public void record(MetricEvent event, long value) {
+        record(event, value, 0);
+    }
+
+    /**
+     * Counts events, or records a latency for {@link MetricEvent#isLatency() latency events},
+     * with a detail for the listeners.
+     *
+     * @param event the kind of event
+     * @param value the number of events or the latency in nanoseconds
+     * @param detail the detail of the event, see {@link MetricEvent}
+     */
+    public void record(MetricEvent event, long value, long detail) {
+        final LatencyHistogram latency = latencies[event.index()];
+        if (latency != null) {
+            counters[event.index()].increment();
+            latency.record(value);
+        } else {
+            counters[event.index()].add(value);
+        }
+        Metrics.fire(name, event, value, detail);
+    }
+
+    /**
+     * Returns the count of an event.
+     *
+     * @param event the kind of event
+     * @return the count
+     */
+    public long getCount(MetricEvent event) {
+        return counters[event.index()].sum();
+    }
+
+    /**
+     * Returns the latencies of an event.
+     *
+     * @param event the kind of event
+     * @return the histogram, <code>null</code> unless the event is a latency event
+     */
+    public LatencyHistogram getLatency(MetricEvent event) {
+        return latencies[event.index()];
+    }
+
+    /**
+     * Returns the latencies of state stores.
+     *
+     * @return the histogram
+     */
+    public LatencyHistogram getStateStoreLatency() {
+        return getLatency(MetricEvent.STATE_STORE);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getGeneratedCount() {
+        return getCount(MetricEvent.GENERATED);
+    }
+
+    public long getRetryCount() {
+        return getCount(MetricEvent.RETRY);
+    }
+
+    public long getClockSequenceIncrementCount() {
+        return getCount(MetricEvent.CLOCK_SEQUENCE_INCREMENT);
+    }
+
+    public long getSecureRandomFallbackCount() {
+        return getCount(MetricEvent.SECURE_RANDOM_FALLBACK);
+    }
+
+    public long getStateStoreCount() {
+        return getCount(MetricEvent.STATE_STORE);
+    }
+
+    public long getStateStoreMeanNanos() {
+        return getStateStoreLatency().getMean();
+    }
+
+    public long getStateStore99thPercentileNanos() {
+        return getStateStoreLatency().getPercentile(99);
+    }
+
+    public long getStateStoreMaxNanos() {
+        return getStateStoreLatency().getMax();
+    }
+
+    public long getStateLoadCount() {
+        return getCount(MetricEvent.STATE_LOAD);
+    }
+
+    public long getStateLoadMaxNanos() {
+        return getLatency(MetricEvent.STATE_LOAD).getMax();
+    }
+
+    public long getLockWaitCount() {
+        return getCount(MetricEvent.LOCK_WAIT);
+    }
+
+    public long getLockWait99thPercentileNanos() {
+        return getLatency(MetricEvent.LOCK_WAIT).getPercentile(99);
+    }
+
+    public long getLockWaitMaxNanos() {
+        return getLatency(MetricEvent.LOCK_WAIT).getMax();
+    }
+
+    public long getOverclockSpinCount() {
+        return getCount(MetricEvent.OVERCLOCK_SPIN);
+    }
+
+    public long getOverclockSpinMaxNanos() {
+        return getLatency(MetricEvent.OVERCLOCK_SPIN).getMax();
+    }
+
+    public long getNodeFailoverCount() {
+        return getCount(MetricEvent.NODE_FAILOVER);
+    }
+
+    public void reset() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i].reset();
+            if (latencies[i] != null) {
+                latencies[i].reset();
+            }
+        }
+    }
+
+    public String toString() {
+        return "GeneratorMetrics[" + name + "]";
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.metrics;
+
+/**
+ * <p>The JMX management interface of {@link GeneratorMetrics}.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public interface GeneratorMetricsMBean {
+
+    /**
+     * Returns the name of the generator.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Returns the number of generated identifiers.
+     *
+     * @return the count
+     */
+    long getGeneratedCount();
+
+    /**
+     * Returns the number of retried generations.
+     *
+     * @return the count
+     */
+    long getRetryCount();
+
+    /**
+     * Returns the number of clock sequence increments.
+     *
+     * @return the count
+     */
+    long getClockSequenceIncrementCount();
+
+    /**
+     * Returns the number of fallbacks from a secure to a regular random number generator.
+     *
+     * @return the count
+     */
+    long getSecureRandomFallbackCount();
+
+    /**
+     * Returns the number of state stores.
+     *
+     * @return the count
+     */
+    long getStateStoreCount();
+
+    /**
+     * Returns the mean latency of state stores.
+     *
+     * @return the mean in nanoseconds
+     */
+    long getStateStoreMeanNanos();
+
+    /**
+     * Returns the upper bound of the 99th percentile latency of state stores.
+     *
+     * @return the latency in nanoseconds
+     */
+    long getStateStore99thPercentileNanos();
+
+    /**
+     * Returns the largest latency of a state store.
+     *
+     * @return the maximum in nanoseconds
+     */
+    long getStateStoreMaxNanos();
+
+    /**
+     * Returns the number of state loads.
+     *
+     * @return the count
+     */
+    long getStateLoadCount();
+
+    /**
+     * Returns the largest latency of a state load.
+     *
+     * @return the maximum in nanoseconds
+     */
+    long getStateLoadMaxNanos();
+
+    /**
+     * Returns the number of times a thread waited for the generator lock.
+     *
+     * @return the count
+     */
+    long getLockWaitCount();
+
+    /**
+     * Returns the upper bound of the 99th percentile wait for the generator lock.
+     *
+     * @return the wait in nanoseconds
+     */
+    long getLockWait99thPercentileNanos();
+
+    /**
+     * Returns the longest wait for the generator lock.
+     *
+     * @return the maximum in nanoseconds
+     */
+    long getLockWaitMaxNanos();
+
+    /**
+     * Returns the number of generations that spun until the clock advanced.
+     *
+     * @return the count
+     */
+    long getOverclockSpinCount();
+
+    /**
+     * Returns the longest spin until the clock advanced.
+     *
+     * @return the maximum in nanoseconds
+     */
+    long getOverclockSpinMaxNanos();
+
+    /**
+     * Returns the number of times generation moved to another node.
+     *
+     * @return the count
+     */
+    long getNodeFailoverCount();
+
+    /**
+     * Resets all counters and histograms.
+     */
+    void reset();
+}
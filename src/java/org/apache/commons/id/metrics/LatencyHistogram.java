@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * <p>A concurrent histogram of latencies in nanoseconds.</p>
+ *
+ * <p>Values are counted in buckets of powers of two, so recording is a
+ * <code>LongAdder</code> increment and percentiles are accurate to a factor
+ * of two, which is enough to tell microseconds from milliseconds.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class LatencyHistogram {
+
+    /** Number of buckets, bucket <code>i</code> holds values from <code>2^(i-1)</code> to below <code>2^i</code>. */
+    private static final int BUCKETS = 64;
+
+    /** The counts per bucket. */
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    /** The sum of all values. */
+    private final LongAdder sum = new LongAdder();
+
+    /** The largest value. */
+    private final LongAccumulator max = new LongAccumulator(new LongBinaryOperator() {
+        public long applyAsLong(long left, long right) {
+            return Math.max(left, right);
+        }
+    }, 0);
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds, negative values count as 0
+     */
+    public void record(long nanos) {
+        final long value = Math.max(nanos, 0);
+        buckets[BUCKETS - Long.numberOfLeadingZeros(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets[i].sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return the mean in nanoseconds, 0 if nothing was recorded
+     */
+    public long getMean() {
+        final long count = getCount();
+        return count == 0 ? 0 : sum.sum() / count;
+    }
+
+    /**
+     * Returns the largest latency.
+     *
+     * @return the maximum in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns an upper bound of a percentile.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the smallest power of two that is above the given percentage of
+     *  the latencies, capped at the maximum
+     * @throws IllegalArgumentException if <code>percentile</code> is out of range
+     */
+    public long getPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+        final long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        final long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return i == 0 ? 0 : Math.min(i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i, max.get());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Clears the histogram. Latencies recorded concurrently may be lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i].reset();
+        }
+        sum.reset();
+        max.reset();
+    }
+}
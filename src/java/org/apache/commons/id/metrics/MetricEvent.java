@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.metrics;
+
+/**
+ * <p>The kinds of events counted by {@link GeneratorMetrics}.</p>
+ *
+ * <p>Every event carries a value and a detail. For latency events the value
+ * is the duration in nanoseconds, otherwise it is the number of events. The
+ * meaning of the detail is described for each event, it is 0 where none is
+ * described.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class MetricEvent {
+
+    /** An identifier was generated. */
+    public static final MetricEvent GENERATED = new MetricEvent("GENERATED", 0, false);
+
+    /** Generation was retried, for example after an <code>OverClockedException</code>. */
+    public static final MetricEvent RETRY = new MetricEvent("RETRY", 1, false);
+
+    /**
+     * The clock sequence of a node was incremented. The detail is the number
+     * of 100-nano second intervals the clock went backwards, 0 if it did not
+     * advance.
+     */
+    public static final MetricEvent CLOCK_SEQUENCE_INCREMENT = new MetricEvent("CLOCK_SEQUENCE_INCREMENT", 2, false);
+
+    /** A secure random number generator was unavailable and a regular one was used. */
+    public static final MetricEvent SECURE_RANDOM_FALLBACK = new MetricEvent("SECURE_RANDOM_FALLBACK", 3, false);
+
+    /** Generator state was stored, a latency event. The detail is the number of bytes written. */
+    public static final MetricEvent STATE_STORE = new MetricEvent("STATE_STORE", 4, true);
+
+    /** Generator state was loaded, a latency event. The detail is the number of bytes read. */
+    public static final MetricEvent STATE_LOAD = new MetricEvent("STATE_LOAD", 5, true);
+
+    /** A thread waited for the lock of a generator, a latency event. */
+    public static final MetricEvent LOCK_WAIT = new MetricEvent("LOCK_WAIT", 6, true);
+
+    /**
+     * A generator retried until its clock advanced, a latency event. The detail
+     * is the number of retries.
+     */
+    public static final MetricEvent OVERCLOCK_SPIN = new MetricEvent("OVERCLOCK_SPIN", 7, true);
+
+    /** Generation moved to another node. The detail is the index of the new node. */
+    public static final MetricEvent NODE_FAILOVER = new MetricEvent("NODE_FAILOVER", 8, false);
+
+    /** All events, indexed by {@link #index()}. */
+    static final MetricEvent[] VALUES = {
+        GENERATED, RETRY, CLOCK_SEQUENCE_INCREMENT, SECURE_RANDOM_FALLBACK, STATE_STORE,
+        STATE_LOAD, LOCK_WAIT, OVERCLOCK_SPIN, NODE_FAILOVER
+    };
+
+    /** The name of the event. */
+    private final String name;
+
+    /** The index of the event. */
+    private final int index;
+
+    /** Is the value a latency. */
+    private final boolean latency;
+
+    /**
+     * Constructor.
+     *
+     * @param name the name of the event
+     * @param index the index of the event
+     * @param latency is the value a latency
+     */
+    private MetricEvent(String name, int index, boolean latency) {
+        this.name = name;
+        this.index = index;
+        this.latency = latency;
+    }
+
+    /**
+     * Returns the index of the event, between 0 and the number of events.
+     *
+     * @return the index
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * Returns <code>true</code> if the value of the event is a latency in
+     * nanoseconds rather than a number of events.
+     *
+     * @return <code>true</code> for latency events
+     */
+    public boolean isLatency() {
+        return latency;
+    }
+
+    public String toString() {
+        return name;
+    }
+}
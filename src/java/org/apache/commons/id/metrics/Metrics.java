@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * <p>The registry of {@link GeneratorMetrics} and {@link MetricsListener}s.</p>
+ *
+ * <p>The built-in generators obtain their metrics with
+ * {@link #forGenerator(Class)} when they are loaded, which returns
+ * <code>null</code> unless the system property {@link #ENABLED_PROPERTY} is
+ * <code>true</code>. A disabled generator therefore only tests a
+ * <code>static final</code> field, which the JIT compiler removes.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class Metrics {
+
+    /** The system property that enables the metrics of the built-in generators. */
+    public static final String ENABLED_PROPERTY = "org.apache.commons.id.metrics";
+
+    /** The JMX domain of the MBeans. */
+    public static final String JMX_DOMAIN = "org.apache.commons.id";
+
+    /** Are the metrics of the built-in generators enabled. */
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /** The metrics by generator name. */
+    private static final Map REGISTRY = new ConcurrentHashMap();
+
+    /** The listeners. */
+    private static final List LISTENERS = new ArrayList();
+
+    /** The listeners as an array, empty if there are none. */
+    private static volatile MetricsListener[] listeners = new MetricsListener[0];
+
+    /**
+     * <p>Hide constructor in utility class.</p>
+     */
+    private Metrics() {
+    }
+
+    /**
+     * Returns <code>true</code> if the metrics of the built-in generators are enabled.
+     *
+     * @return <code>true</code> if {@link #ENABLED_PROPERTY} was <code>true</code>
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Returns the metrics of a generator class if metrics are enabled.
+     *
+     * @param generator the generator class, its simple name is the name of the metrics
+     * @return the metrics or <code>null</code> if metrics are disabled
+     */
+    public static GeneratorMetrics forGenerator(Class generator) {
+        return ENABLED ? register(generator.getSimpleName()) : null;
+    }
+
+    /**
+     * Returns the metrics of the given name, creating and registering them as
+     * an MBean if necessary. This works whether or not the metrics of the
+     * built-in generators are enabled.
+     *
+     * @param name the name of the generator
+     * @return the metrics
+     */
+    public static GeneratorMetrics register(String name) {
+        GeneratorMetrics metrics = (GeneratorMetrics) REGISTRY.get(name);
+        if (metrics == null) {
+            final GeneratorMetrics created = new GeneratorMetrics(name);
+            metrics = (GeneratorMetrics) REGISTRY.putIfAbsent(name, created);
+            if (metrics == null) {
+                metrics = created;
+                registerMBean(created);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the registered metrics of a generator.
+     *
+     * @param name the name of the generator
+     * @return the metrics or <code>null</code> if none are registered
+     */
+    public static GeneratorMetrics get(String name) {
+        return (GeneratorMetrics) REGISTRY.get(name);
+    }
+
+    /**
+     * Adds a listener for the events of all generators.
+     *
+     * @param listener the listener
+     */
+    public static void addListener(MetricsListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener must not be null");
+        }
+        synchronized (LISTENERS) {
+            LISTENERS.add(listener);
+            listeners = (MetricsListener[]) LISTENERS.toArray(new MetricsListener[0]);
+        }
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener
+     */
+    public static void removeListener(MetricsListener listener) {
+        synchronized (LISTENERS) {
+            LISTENERS.remove(listener);
+            listeners = (MetricsListener[]) LISTENERS.toArray(new MetricsListener[0]);
+        }
+    }
+
+    /**
+     * Passes an event to the listeners.
+     *
+     * @param generator the name of the generator
+     * @param event the kind of event
+     * @param value the value of the event
+     * @param detail the detail of the event
+     */
+    static void fire(String generator, MetricEvent event, long value, long detail) {
+        final MetricsListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            current[i].onEvent(generator, event, value, detail);
+        }
+    }
+
+    /**
+     * Registers metrics with the platform MBean server. Failures are ignored,
+     * the metrics still work without JMX.
+     *
+     * @param metrics the metrics
+     */
+    private static void registerMBean(GeneratorMetrics metrics) {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = objectName(metrics.getName());
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metrics, objectName);
+            }
+        } catch (JMException e) {
+            // JMX is optional
+        } catch (SecurityException e) {
+            // JMX is optional
+        }
+    }
+
+    /**
+     * Returns the JMX name of the metrics of a generator.
+     *
+     * @param name the name of the generator
+     * @return the object name
+     * @throws JMException if the name is not valid in an object name
+     */
+    public static ObjectName objectName(String name) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=Generator,name=" + ObjectName.quote(name));
+    }
+}
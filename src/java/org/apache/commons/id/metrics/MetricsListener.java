@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.metrics;
+
+/**
+ * <p>Receives the events of all instrumented generators, to bridge them
+ * into an external metrics system.</p>
+ *
+ * <p>Listeners are called synchronously on the generating thread, possibly
+ * while the generator holds a lock, and must therefore return quickly and
+ * not generate identifiers themselves.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ * @see Metrics#addListener(MetricsListener)
+ */
+public interface MetricsListener {
+
+    /**
+     * Receives an event.
+     *
+     * @param generator the name of the generator
+     * @param event the kind of event
+     * @param value the number of events, or the latency in nanoseconds for
+     *  {@link MetricEvent#isLatency() latency events}
+     * @param detail the detail of the event, see {@link MetricEvent}
+     */
+    void onEvent(String generator, MetricEvent event, long value, long detail);
+}
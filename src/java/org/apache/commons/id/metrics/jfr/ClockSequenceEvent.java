@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * <p>The clock sequence of a node was incremented.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+@Name("org.apache.commons.id.ClockSequenceIncrement")
+@Label("Clock Sequence Increment")
+@Category({"Apache Commons Id", "Clock"})
+@Description("The clock sequence of a node was incremented because the clock did not advance or went backwards")
+final class ClockSequenceEvent extends Event {
+
+    /** The reason for a clock that did not advance. */
+    static final String CLOCK_NOT_ADVANCED = "Clock not advanced";
+
+    /** The reason for a clock that went backwards. */
+    static final String CLOCK_REGRESSION = "Clock regression";
+
+    /** The name of the generator. */
+    @Label("Generator")
+    String generator;
+
+    /** Why the clock sequence was incremented. */
+    @Label("Reason")
+    String reason;
+
+    /** How far the clock went backwards. */
+    @Label("Regression")
+    @Timespan(Timespan.NANOSECONDS)
+    long regression;
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.metrics.jfr;
+
+/**
+ * <p>Emits the JDK Flight Recorder events of the generators, from the code
+ * where they happen. The events are emitted whenever a recording enables
+ * them, regardless of whether metrics are enabled.</p>
+ *
+ * <p>A <code>begin</code> method is called at the start of a lock wait,
+ * overclock spin or state operation and the matching <code>commit</code>
+ * method at its end. The events therefore carry their real start time and
+ * duration, line up with other events of a recording and are subject to the
+ * <code>threshold</code> setting of the recording. A <code>begin</code>
+ * method returns <code>null</code> if the event is not enabled, and the
+ * <code>commit</code> methods ignore <code>null</code>. Clock sequence
+ * increments and node failovers are instants and emitted by a single
+ * call.</p>
+ *
+ * <p>The events are in the category "Apache Commons Id":</p>
+ * <ul>
+ *   <li><code>org.apache.commons.id.GeneratorLockWait</code></li>
+ *   <li><code>org.apache.commons.id.OverclockSpin</code></li>
+ *   <li><code>org.apache.commons.id.ClockSequenceIncrement</code></li>
+ *   <li><code>org.apache.commons.id.NodeFailover</code></li>
+ *   <li><code>org.apache.commons.id.StateIO</code></li>
+ * </ul>
+ *
+ * <p>The methods pass the events as <code>Object</code>, so that callers do
+ * not refer to the <code>jdk.jfr</code> types. Without the
+ * <code>jdk.jfr</code> module they do nothing.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class FlightRecorderEvents {
+
+    /** Nanoseconds per UUID clock interval. */
+    private static final long NANOS_PER_INTERVAL = 100;
+
+    /** Whether the JDK Flight Recorder API is present. */
+    private static final boolean AVAILABLE = isAvailable();
+
+    /**
+     * <p>Hide constructor in utility class.</p>
+     */
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * Tests whether the JDK Flight Recorder API can be loaded.
+     *
+     * @return <code>true</code> if <code>jdk.jfr.Event</code> is present
+     */
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Begins a wait for the lock of a generator.
+     *
+     * @return the event or <code>null</code> if it is not enabled
+     */
+    public static Object beginLockWait() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        final GeneratorLockWaitEvent event = new GeneratorLockWaitEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends and commits a wait for the lock of a generator.
+     *
+     * @param event the event returned by {@link #beginLockWait()}, may be <code>null</code>
+     * @param generator the name of the generator
+     */
+    public static void commitLockWait(Object event, String generator) {
+        if (event != null) {
+            final GeneratorLockWaitEvent jfr = (GeneratorLockWaitEvent) event;
+            jfr.generator = generator;
+            jfr.commit();
+        }
+    }
+
+    /**
+     * Begins the retries of a generator whose clock did not advance.
+     *
+     * @return the event or <code>null</code> if it is not enabled
+     */
+    public static Object beginOverclockSpin() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        final OverclockSpinEvent event = new OverclockSpinEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends and commits the retries of a generator.
+     *
+     * @param event the event returned by {@link #beginOverclockSpin()}, may be <code>null</code>
+     * @param generator the name of the generator
+     * @param retries the number of retries
+     */
+    public static void commitOverclockSpin(Object event, String generator, long retries) {
+        if (event != null) {
+            final OverclockSpinEvent jfr = (OverclockSpinEvent) event;
+            jfr.generator = generator;
+            jfr.retries = retries;
+            jfr.commit();
+        }
+    }
+
+    /**
+     * Begins loading or storing the state of a generator.
+     *
+     * @return the event or <code>null</code> if it is not enabled
+     */
+    public static Object beginStateIO() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        final StateIOEvent event = new StateIOEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends and commits loading or storing the state of a generator.
+     *
+     * @param event the event returned by {@link #beginStateIO()}, may be <code>null</code>
+     * @param generator the name of the generator
+     * @param load <code>true</code> for a load, <code>false</code> for a store
+     * @param bytes the number of bytes read or written
+     */
+    public static void commitStateIO(Object event, String generator, boolean load, long bytes) {
+        if (event != null) {
+            final StateIOEvent jfr = (StateIOEvent) event;
+            jfr.generator = generator;
+            jfr.operation = load ? StateIOEvent.LOAD : StateIOEvent.STORE;
+            jfr.bytes = bytes;
+            jfr.commit();
+        }
+    }
+
+    /**
+     * Emits an increment of the clock sequence of a node.
+     *
+     * @param generator the name of the generator
+     * @param regression how far the clock went back, in UUID time, or 0 if it did not advance
+     */
+    public static void clockSequenceIncrement(String generator, long regression) {
+        if (AVAILABLE) {
+            final ClockSequenceEvent event = new ClockSequenceEvent();
+            if (event.isEnabled()) {
+                event.generator = generator;
+                event.reason = regression > 0 ? ClockSequenceEvent.CLOCK_REGRESSION
+                    : ClockSequenceEvent.CLOCK_NOT_ADVANCED;
+                event.regression = regression * NANOS_PER_INTERVAL;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Emits a failover to the next node.
+     *
+     * @param generator the name of the generator
+     * @param nodeIndex the index of the node failed over to
+     */
+    public static void nodeFailover(String generator, int nodeIndex) {
+        if (AVAILABLE) {
+            final NodeFailoverEvent event = new NodeFailoverEvent();
+            if (event.isEnabled()) {
+                event.generator = generator;
+                event.nodeIndex = nodeIndex;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>Generation moved to another node.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+@Name("org.apache.commons.id.NodeFailover")
+@Label("Node Failover")
+@Category({"Apache Commons Id", "Generator"})
+@Description("A generator moved to another node after the current node was exhausted")
+final class NodeFailoverEvent extends Event {
+
+    /** The name of the generator. */
+    @Label("Generator")
+    String generator;
+
+    /** The index of the new node. */
+    @Label("Node Index")
+    int nodeIndex;
+}
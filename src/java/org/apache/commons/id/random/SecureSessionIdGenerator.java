@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.id.random;
+
+import java.security.SecureRandom;
+
+/**
+ * <code>SecureSessionIdGenerator</code> is a {@link SessionIdGenerator}
+ * that takes the random part of the identifier from a
+ * <code>java.security.SecureRandom</code>, so that session identifiers
+ * cannot be predicted from previously issued ones.
+ *
+ * <p>Access to a single <code>SecureRandom</code> is serialized, therefore
+ * the generator uses a pool of instances shared by all generators in the JVM
+ * and selects one by the calling thread. The pool is created and seeded with
+ * the first identifier requested.</p>
+ *
+ * @author Commons-Id team
+ * @version $Id$
+ */
+public class SecureSessionIdGenerator extends SessionIdGenerator {
+
+    /**
+     * <code>serialVersionUID</code> is the serializable UID for the binary version of the class.
+     */
+    private static final long serialVersionUID = 20261019L;
+
+    /**
+     * Constructor.
+     */
+    public SecureSessionIdGenerator() {
+        super();
+    }
+
+    long nextRandom() {
+        final SecureRandom[] pool = Pool.RANDOMS;
+        final SecureRandom random = pool[(int) Thread.currentThread().getId() & (pool.length - 1)];
+        // the modulo bias is below 2^-32 for a 63 bit value
+        return (random.nextLong() >>> 1) % MAX_RANDOM_LEN;
+    }
+
+    /**
+     * Lazily initialized pool of <code>SecureRandom</code> instances.
+     */
+    private static final class Pool {
+
+        /** The pool, the size is a power of two. */
+        static final SecureRandom[] RANDOMS;
+
+        static {
+            int size = 1;
+            while (size < Runtime.getRuntime().availableProcessors()) {
+                size <<= 1;
+            }
+            RANDOMS = new SecureRandom[size];
+            for (int i = 0; i < size; i++) {
+                RANDOMS[i] = new SecureRandom();
+            }
+        }
+
+        /**
+         * Hide constructor of holder class.
+         */
+        private Pool() {
+        }
+    }
+}
@@ -18,9 +18,17 @@
 package org.apache.commons.id.random;
 
 import org.apache.commons.id.AbstractStringIdentifierGenerator;
-
+import org.apache.commons.id.Base36;
+import org.apache.commons.id.metrics.GeneratorMetrics;
+import org.apache.commons.id.metrics.MetricEvent;
+import org.apache.commons.id.metrics.Metrics;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * <code>SessionIdGenerator</code> is an identifier generator
@@ -29,10 +37,14 @@ import java.util.Random;
  * <p>The exact length depends on the number of ids requested per time 
  * period. Multiple instances of the class generate still unique ids.</p>
  *
- * <p>Originally designed for JServ sessions. Uses synchronized count and
- * time to ensure uniqueness. Not guaranteed unique across JVMs, but
+ * <p>Originally designed for JServ sessions. Uses an atomically updated
+ * count and time to ensure uniqueness. Not guaranteed unique across JVMs, but
  * fairly safe nonetheless.</p>
-
+ *
+ * <p>The random part is taken from the calling thread's
+ * {@link ThreadLocalRandom}, which is fast but predictable. Use
+ * {@link SecureSessionIdGenerator} if the identifiers must not be guessable.</p>
+ *
  * @author Commons-Id team
  * @version $Id: SessionIdGenerator.java 480488 2006-11-29 08:57:26Z bayard $
  */
@@ -42,12 +54,15 @@ public class SessionIdGenerator extends AbstractStringIdentifierGenerator implem
      * <code>serialVersionUID</code> is the serializable UID for the binary version of the class.
      */
     private static final long serialVersionUID = 20060118L;
+
+    /** The metrics of this generator, <code>null</code> if metrics are disabled. */
+    private static final GeneratorMetrics METRICS = Metrics.forGenerator(SessionIdGenerator.class);
     /**
      * We want to have a random string with a length of 6 characters.
      * Since we encode it base-36, we modulo the random number with
      * this value.
      */
-    private static final long MAX_RANDOM_LEN = 2176782336L; // 36 ** 6
+    static final long MAX_RANDOM_LEN = 2176782336L; // 36 ** 6
     /**
      * <p>The identifier must be unique within the typical lifespan of a
      * session; the value can roll over after that.</p>3 characters:
@@ -68,13 +83,17 @@ public class SessionIdGenerator extends AbstractStringIdentifierGenerator implem
      * Length of time segment
      */
     private static final int TIME_LENGTH = 3;
+    /**
+     * Mask for the count in the low order bits of the state.
+     */
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
 
-    /** The incrementing counter. */
+    /** The incrementing counter, only up to date when serialized. */
     private int counter = 0;
-    /** The last time. */
+    /** The last tic, only up to date when serialized. */
     private long lastTimeValue = 0;
-    /** The randmonizer. */
-    private static Random randomizer = new Random();
+    /** The last tic in the high order and the next count in the low order 32 bits. */
+    private transient AtomicLong state = new AtomicLong();
 
     /**
      * Constructor.
@@ -104,57 +123,87 @@ public class SessionIdGenerator extends AbstractStringIdentifierGenerator implem
      * @return the next 10 char String identifier
      */
     public String nextStringIdentifier() {
+        return appendTo(new StringBuilder((int) maxLength())).toString();
+    }
+
+    public StringBuilder appendTo(final StringBuilder buffer) {
 
         // Random value
         //--------------
-        long currentRandom = randomizer.nextLong();
-        if (currentRandom < 0) {
-            currentRandom = -currentRandom;
-        }
-        // force value into 6 char range, and add to pad with zeros
-        // this gives a length of 7, when converted to base 36, and
-        // the first character (always 1 from the add) is dropped
-        currentRandom %= MAX_RANDOM_LEN;
-        currentRandom += MAX_RANDOM_LEN;
-
-        long currentTimeValue = 0;
-        int currentCount = 0;
-
-        synchronized (this) {
-            // Time
-            //--------------
-            currentTimeValue = (System.currentTimeMillis() / TIC_DIFFERENCE);
-
-            // force value into 3 char range, and add to pad with zeros
-            // this gives a length of 4, when converted to base 36, and
-            // the first character (always 1 from the add) is dropped
-            currentTimeValue %= MAX_TIME_SECTION_LEN;
-            currentTimeValue += MAX_TIME_SECTION_LEN;
-
-            // Count
-            //--------------
-            // Make the string unique by appending the count since last
-            // time flip.
-
-            // Count sessions only within tics (so the 'real' counter
-            // isn't exposed to the public).
-            if (lastTimeValue != currentTimeValue) {
-                lastTimeValue = currentTimeValue;
-                counter = 0;
+        final long currentRandom = nextRandom();
+
+        // Count
+        //--------------
+        // Make the string unique by appending the count since last
+        // time flip.
+
+        // Count sessions only within tics (so the 'real' counter
+        // isn't exposed to the public).
+        long currentTic;
+        long currentCount;
+        for (;;) {
+            final long current = state.get();
+            // read the clock after the state, so a successful update never
+            // follows an update with a later tic
+            final long tic = System.currentTimeMillis() / TIC_DIFFERENCE;
+            final long next;
+            if (tic > current >>> 32) {
+                currentTic = tic;
+                currentCount = 0;
+                next = (tic << 32) | 1;
+            } else {
+                // same tic, or the clock went back: keep counting in the stored tic
+                currentTic = current >>> 32;
+                currentCount = current & COUNT_MASK;
+                next = current + 1;
             }
-            currentCount = counter++;
+            if (state.compareAndSet(current, next)) {
+                break;
+            }
+        }
+        if (METRICS != null) {
+            METRICS.record(MetricEvent.GENERATED);
         }
 
         // build string
         //--------------
-        StringBuffer id = new StringBuffer
-            (AbstractStringIdentifierGenerator.DEFAULT_ALPHANUMERIC_IDENTIFIER_SIZE);
-        id.append(Long.toString(currentRandom,
-            AbstractStringIdentifierGenerator.ALPHA_NUMERIC_CHARSET_SIZE).substring(1));  // 6 chars
-        id.append(Long.toString(currentTimeValue,
-            AbstractStringIdentifierGenerator.ALPHA_NUMERIC_CHARSET_SIZE).substring(1));  // 3 chars
-        id.append(Long.toString(currentCount,
-            AbstractStringIdentifierGenerator.ALPHA_NUMERIC_CHARSET_SIZE));  // 1+ chars
-        return id.toString();
+        Base36.encode(currentRandom, buffer, RANDOM_LENGTH);  // 6 chars
+        // force time into 3 char range
+        Base36.encode(currentTic % MAX_TIME_SECTION_LEN, buffer, TIME_LENGTH);  // 3 chars
+        return Base36.encode(currentCount, buffer);  // 1+ chars
+    }
+
+    /**
+     * Returns the random part of the next identifier.
+     *
+     * @return a random value in the range [0, 36^6)
+     */
+    long nextRandom() {
+        return ThreadLocalRandom.current().nextLong(MAX_RANDOM_LEN);
+    }
+
+    /**
+     * Copies the current count and tic into the serialized fields.
+     *
+     * @return this instance
+     * @throws ObjectStreamException never
+     */
+    protected Object writeReplace() throws ObjectStreamException {
+        final long current = state.get();
+        lastTimeValue = current >>> 32;
+        counter = (int) (current & COUNT_MASK);
+        return this;
+    }
+
+    /**
+     * Restores the count and tic from the serialized fields.
+     *
+     * @param in the stream to read from
+     * @throws IOException if reading fails
+     * @throws ClassNotFoundException if a class of the stream cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        state = new AtomicLong((lastTimeValue << 32) | (counter & COUNT_MASK));
     }
 }
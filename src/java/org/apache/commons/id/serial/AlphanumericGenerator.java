@@ -18,8 +18,14 @@
 package org.apache.commons.id.serial;
 
 import org.apache.commons.id.AbstractStringIdentifierGenerator;
+import org.apache.commons.id.metrics.GeneratorMetrics;
+import org.apache.commons.id.metrics.MetricEvent;
+import org.apache.commons.id.metrics.Metrics;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * <code>AlphanumericGenerator</code> is an identifier generator
@@ -44,6 +50,9 @@ public class AlphanumericGenerator extends AbstractStringIdentifierGenerator imp
      */
     private static final long serialVersionUID = 20060120L;
 
+    /** The metrics of this generator, <code>null</code> if metrics are disabled. */
+    private static final GeneratorMetrics METRICS = Metrics.forGenerator(AlphanumericGenerator.class);
+
     /**
      * Should the counter wrap.
      */
@@ -54,6 +63,12 @@ public class AlphanumericGenerator extends AbstractStringIdentifierGenerator imp
      */
     private char[] count = null;
 
+    /**
+     * Guards the counter. A lock rather than a monitor, so that virtual
+     * threads waiting for it do not pin their carrier thread.
+     */
+    private transient ReentrantLock lock = new ReentrantLock();
+
     /**
      * 'z' char
      */
@@ -153,7 +168,33 @@ public class AlphanumericGenerator extends AbstractStringIdentifierGenerator imp
         return this.count.length;
     }
 
-    public synchronized String nextStringIdentifier() {
+    public String nextStringIdentifier() {
+        lock.lock();
+        try {
+            increment();
+            return new String(count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public StringBuilder appendTo(StringBuilder buffer) {
+        lock.lock();
+        try {
+            increment();
+            return buffer.append(count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Increments the counter, must be called while holding the lock.
+     *
+     * @throws IllegalStateException if the counter does not wrap and the
+     *  maximum value has been reached
+     */
+    private void increment() {
         for (int i = count.length - 1; i >= 0; i--) {
             switch (count[i]) {
                 case Z_CHAR:  // z
@@ -175,6 +216,20 @@ public class AlphanumericGenerator extends AbstractStringIdentifierGenerator imp
                     break;
             }
         }
-        return new String(count);
+        if (METRICS != null) {
+            METRICS.record(MetricEvent.GENERATED);
+        }
+    }
+
+    /**
+     * Restores the transient lock after deserialization.
+     *
+     * @param in the stream
+     * @throws IOException if the stream cannot be read
+     * @throws ClassNotFoundException if a class of the stream cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        lock = new ReentrantLock();
     }
 }
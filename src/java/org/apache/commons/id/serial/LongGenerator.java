@@ -18,8 +18,14 @@
 package org.apache.commons.id.serial;
 
 import org.apache.commons.id.AbstractLongIdentifierGenerator;
+import org.apache.commons.id.metrics.GeneratorMetrics;
+import org.apache.commons.id.metrics.MetricEvent;
+import org.apache.commons.id.metrics.Metrics;
 
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.LongStream;
 
 /**
  * <code>LongGenerator</code> is an Identifier Generator
@@ -40,10 +46,16 @@ public class LongGenerator extends AbstractLongIdentifierGenerator implements Se
      */
     private static final long serialVersionUID = 20060122L;
 
+    /** The metrics of this generator, <code>null</code> if metrics are disabled. */
+    private static final GeneratorMetrics METRICS = Metrics.forGenerator(LongGenerator.class);
+
     /** Should the counter wrap. */
     private boolean wrapping;
     /** The counter. */
-    private long count = 0;
+    private volatile long count = 0;
+
+    /** Atomic access to {@link #count}, so that no thread blocks on a monitor. */
+    private static final AtomicLongFieldUpdater COUNT = AtomicLongFieldUpdater.newUpdater(LongGenerator.class, "count");
     
     /**
      * Constructor.
@@ -79,20 +91,75 @@ public class LongGenerator extends AbstractLongIdentifierGenerator implements Se
     }
     
     public Long nextLongIdentifier() {
-        long value = 0;
+        long value;
         if (wrapping) {
-            synchronized (this) {
-                value = count++;
-            }
+            value = COUNT.getAndIncrement(this);
         } else {
-            synchronized (this) {
-                if (count == Long.MAX_VALUE) {
+            do {
+                value = count;
+                if (value == Long.MAX_VALUE) {
                     throw new IllegalStateException
                     ("The maximum number of identifiers has been reached");
                 }
-                value = count++;
-            }
+            } while (!COUNT.compareAndSet(this, value, value + 1));
+        }
+        if (METRICS != null) {
+            METRICS.record(MetricEvent.GENERATED);
         }
         return new Long(value);
     }
+
+    /**
+     * Reserves a range of consecutive identifiers with a single atomic update.
+     * The identifiers are <code>first</code> to <code>first + count - 1</code>,
+     * wrapping to negative values after {@link Long#MAX_VALUE} if this
+     * generator wraps.
+     *
+     * @param count the number of identifiers to reserve
+     * @return the first reserved identifier
+     * @throws IllegalArgumentException if <code>count</code> is negative
+     * @throws IllegalStateException if the generator does not wrap and fewer
+     *  than <code>count</code> identifiers are left
+     */
+    public long reserve(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        long first;
+        if (wrapping) {
+            first = COUNT.getAndAdd(this, count);
+        } else {
+            do {
+                first = this.count;
+                if (first > Long.MAX_VALUE - count) {
+                    throw new IllegalStateException
+                    ("The maximum number of identifiers has been reached");
+                }
+            } while (!COUNT.compareAndSet(this, first, first + count));
+        }
+        if (METRICS != null && count > 0) {
+            METRICS.record(MetricEvent.GENERATED, count);
+        }
+        return first;
+    }
+
+    /**
+     * Returns a stream of consecutive identifiers, reserved up front with
+     * {@link #reserve(long)}. The stream is sized and splits without touching
+     * the counter, so parallel streams do not compete for it.
+     *
+     * @param count the number of identifiers
+     * @return the identifiers
+     * @throws IllegalArgumentException if <code>count</code> is negative
+     * @throws IllegalStateException if the generator does not wrap and fewer
+     *  than <code>count</code> identifiers are left
+     */
+    public LongStream longs(long count) {
+        final long first = reserve(count);
+        return LongStream.range(0, count).map(new LongUnaryOperator() {
+            public long applyAsLong(long offset) {
+                return first + offset;
+            }
+        });
+    }
 }
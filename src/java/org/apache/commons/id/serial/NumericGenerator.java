@@ -18,8 +18,12 @@
 package org.apache.commons.id.serial;
 
 import org.apache.commons.id.AbstractStringIdentifierGenerator;
+import org.apache.commons.id.metrics.GeneratorMetrics;
+import org.apache.commons.id.metrics.MetricEvent;
+import org.apache.commons.id.metrics.Metrics;
 
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
  * <p><code>NumericIdentifierGenerator</code> is an Identifier Generator
@@ -39,11 +43,17 @@ public class NumericGenerator extends AbstractStringIdentifierGenerator implemen
      * <code>serialVersionUID</code> is the serializable UID for the binary version of the class.
      */
     private static final long serialVersionUID = 20060121L;
+
+    /** The metrics of this generator, <code>null</code> if metrics are disabled. */
+    private static final GeneratorMetrics METRICS = Metrics.forGenerator(NumericGenerator.class);
     
     /** Should the counter wrap. */
     private boolean wrapping;
     /** The counter. */
-    private long count = 0;
+    private volatile long count = 0;
+
+    /** Atomic access to {@link #count}, so that no thread blocks on a monitor. */
+    private static final AtomicLongFieldUpdater COUNT = AtomicLongFieldUpdater.newUpdater(NumericGenerator.class, "count");
 
     /**
      * <p>Constructor.</p>
@@ -102,20 +112,36 @@ public class NumericGenerator extends AbstractStringIdentifierGenerator implemen
     }
 
     public String nextStringIdentifier() {
-        long value = 0;
+        return Long.toString(nextValue());
+    }
+
+    public StringBuilder appendTo(StringBuilder buffer) {
+        return buffer.append(nextValue());
+    }
+
+    /**
+     * Returns the next value of the counter.
+     *
+     * @return the next value
+     * @throws IllegalStateException if the counter does not wrap and the
+     *  maximum value has been reached
+     */
+    private long nextValue() {
+        long value;
         if (wrapping) {
-            synchronized (this) {
-                value = count++;
-            }
+            value = COUNT.getAndIncrement(this);
         } else {
-            synchronized (this) {
-                if (count == Long.MAX_VALUE) {
+            do {
+                value = count;
+                if (value == Long.MAX_VALUE) {
                     throw new IllegalStateException
                     ("The maximum number of identifiers has been reached");
                 }
-                value = count++;
-            }
+            } while (!COUNT.compareAndSet(this, value, value + 1));
+        }
+        if (METRICS != null) {
+            METRICS.record(MetricEvent.GENERATED);
         }
-        return Long.toString(value);
+        return value;
     }
 }
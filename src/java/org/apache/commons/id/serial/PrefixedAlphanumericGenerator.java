@@ -85,8 +85,10 @@ public class PrefixedAlphanumericGenerator extends AlphanumericGenerator {
     }
 
     public String nextStringIdentifier() {
-        StringBuffer sb = new StringBuffer(prefix);
-        sb.append(super.nextStringIdentifier());
-        return sb.toString();
+        return appendTo(new StringBuilder(getSize())).toString();
+    }
+
+    public StringBuilder appendTo(StringBuilder buffer) {
+        return super.appendTo(buffer.append(prefix));
     }
 }
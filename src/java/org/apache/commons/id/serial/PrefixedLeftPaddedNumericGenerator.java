@@ -130,6 +130,10 @@ public class PrefixedLeftPaddedNumericGenerator extends AbstractStringIdentifier
     }
 
     public String nextStringIdentifier() {
+        return appendTo(new StringBuilder(getSize())).toString();
+    }
+
+    public StringBuilder appendTo(StringBuilder buffer) {
         for (int i = count.length - 1; i >= 0; i--) {
             switch (count[i]) {
                 case NINE_CHAR:  // 9
@@ -147,8 +151,6 @@ public class PrefixedLeftPaddedNumericGenerator extends AbstractStringIdentifier
             }
         }
 
-        StringBuffer sb = new StringBuffer(prefix);
-        sb.append(count);
-        return sb.toString();
+        return buffer.append(prefix).append(count);
     }
 }
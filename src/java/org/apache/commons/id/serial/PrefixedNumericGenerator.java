@@ -71,8 +71,10 @@ public class PrefixedNumericGenerator extends NumericGenerator {
     }
 
     public String nextStringIdentifier() {
-        StringBuffer sb = new StringBuffer(prefix);
-        sb.append(super.nextStringIdentifier());
-        return sb.toString();
+        return appendTo(new StringBuilder((int) maxLength())).toString();
+    }
+
+    public StringBuilder appendTo(StringBuilder buffer) {
+        return super.appendTo(buffer.append(prefix));
     }
 }
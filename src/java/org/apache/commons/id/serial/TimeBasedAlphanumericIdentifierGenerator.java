@@ -16,12 +16,16 @@
  */
 package org.apache.commons.id.serial;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Arrays;
-import java.util.Calendar;
-import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.id.AbstractStringIdentifierGenerator;
+import org.apache.commons.id.Base36;
+import org.apache.commons.id.metrics.GeneratorMetrics;
+import org.apache.commons.id.metrics.MetricEvent;
+import org.apache.commons.id.metrics.Metrics;
 
 
 /**
@@ -31,15 +35,23 @@ import org.apache.commons.id.AbstractStringIdentifierGenerator;
  * <p>
  * The generator guarantees that all generated ids have an increasing natural sort order (even if
  * the time internally has an overflow). The implementation additionally guarantees, that all
- * instances within the same process do generate unique ids. All generated ids have the same length
+ * instances sharing the same {@link SequenceDomain} do generate unique ids. By default all
+ * instances within the same process share a single domain. All generated ids have the same length
  * (padding with 0's on the left), which is determined by the maximum size of a long value and the
  * <code>postfixSize</code> parameter passed to the constructor.
  * </p>
  * <p>
+ * The millisecond and the counter of a domain are kept in a single atomic value that is updated
+ * without locking, so concurrent callers never block each other. Instances that do not need to be
+ * unique among each other (e.g. because their ids get different prefixes) may use separate domains
+ * to avoid contending on the same value.
+ * </p>
+ * <p>
  * Note: To ensure unique ids that are created within the same millisecond (or maximum time
  * resolution of the system), the implementation uses an internal counter. The maximum value of this
  * counter is determined by the <code>postfixSize</code> parameter i.e. the largest value that can
- * be represented in base 36. If the counter exceeds this value, an IllegalStateException is thrown.
+ * be represented in base 36, but cannot exceed {@link SequenceDomain#MAX_COUNTER}. If the counter
+ * exceeds this value, an IllegalStateException is thrown.
  * </p>
  * <p>
  * Note: The uniqueness of the generated ids cannot be guaranteed if the system performs time shifts
@@ -56,32 +68,23 @@ public class TimeBasedAlphanumericIdentifierGenerator extends AbstractStringIden
      * <code>serialVersionUID</code> is the serializable UID for the binary version of the class.
      */
     private static final long serialVersionUID = 20060116L;
+
+    /** The metrics of this generator, <code>null</code> if metrics are disabled. */
+    private static final GeneratorMetrics METRICS = Metrics.forGenerator(TimeBasedAlphanumericIdentifierGenerator.class);
     /**
-     * <code>padding</code> an array of '0' for improved padding performance.
-     */
-    private static final char[] padding;
-    static {
-        padding = new char[MAX_LONG_ALPHANUMERIC_VALUE_LENGTH];
-        Arrays.fill(padding, '0');
-    }
-    /**
-     * <code>UTC</code> is the UTC {@link TimeZone} instance.
-     */
-    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
-    /**
-     * <code>last</code> is the marker, when the counter was resetted the last time.
+     * <code>postfixSize</code> size of the postfix, that contains the padded counter in base 36.
      */
-    private static long last = 0;
+    private final int postfixSize;
     /**
-     * <code>counter</code> counts the number of generated identifiers since the last reset.
+     * <code>offset</code> is subtracted from the time value.
      */
-    private static long counter = 0;
+    private final long offset;
     /**
-     * <code>postfixSize</code> size of the postfix, that contains the padded counter in base 36.
+     * <code>domain</code> holds the time and counter shared with other generators. Not serialized,
+     * a deserialized instance always uses the {@link SequenceDomain#PROCESS process wide domain}.
      */
-    private final int postfixSize;
-    private final long offset;
-    
+    private transient SequenceDomain domain;
+
     /**
      * Construct a TimeBasedAlphanumericIdentifierGenerator with a defined size of the postfix and
      * an offset for the time value. The offset can be used to manipulate the representation of the
@@ -95,11 +98,33 @@ public class TimeBasedAlphanumericIdentifierGenerator extends AbstractStringIden
      *             maximum size for representing {@link Long#MAX_VALUE} in base 36
      */
     public TimeBasedAlphanumericIdentifierGenerator(final int postfixSize, final long offset) {
+        this(postfixSize, offset, SequenceDomain.PROCESS);
+    }
+
+    /**
+     * Construct a TimeBasedAlphanumericIdentifierGenerator with a defined size of the postfix, an
+     * offset for the time value and the sequence domain to use. Only generators sharing the same
+     * domain are guaranteed to generate unique ids. Pass a new {@link SequenceDomain} for an
+     * independent sequence or the same instance to several generators to share one.
+     * 
+     * @param postfixSize the size of the postfix
+     * @param offset the offset taken into account for the time value
+     * @param domain the sequence domain
+     * @throws IllegalArgumentException if <code>postfixSize</code> is negative or exceeds the
+     *             maximum size for representing {@link Long#MAX_VALUE} in base 36 or if
+     *             <code>domain</code> is <code>null</code>
+     */
+    public TimeBasedAlphanumericIdentifierGenerator(
+            final int postfixSize, final long offset, final SequenceDomain domain) {
         if (postfixSize < 0 || postfixSize > MAX_LONG_ALPHANUMERIC_VALUE_LENGTH) {
             throw new IllegalArgumentException("Invalid size for postfix");
         }
+        if (domain == null) {
+            throw new IllegalArgumentException("Sequence domain must not be null");
+        }
         this.postfixSize = postfixSize;
         this.offset = offset;
+        this.domain = domain;
     }
 
     /**
@@ -131,53 +156,72 @@ public class TimeBasedAlphanumericIdentifierGenerator extends AbstractStringIden
     }
 
     public String nextStringIdentifier() {
+        return appendTo(new StringBuilder((int) maxLength())).toString();
+    }
+
+    public StringBuilder appendTo(final StringBuilder buffer) {
+        final long maxCounter = Math.min(Base36.maxValue(postfixSize), SequenceDomain.MAX_COUNTER);
+        final AtomicLong state = domain.state;
         long now;
-        synchronized (this) {
-            now = Calendar.getInstance(UTC).getTime().getTime(); // JDK 1.3 compatibility
+        long counter;
+        for (;;) {
+            final long current = state.get();
+            final long last = current >> SequenceDomain.COUNTER_BITS;
+            final long next;
+            now = System.currentTimeMillis();
             final long diff = now - last;
             // external time correction of more than a second or overflow
             if (diff > 0 || diff < -1000) {
-                last = now;
                 counter = 0;
+                next = now << SequenceDomain.COUNTER_BITS;
             } else {
-                if (diff != 0) {
-                    now = last; // ignore time shift
+                now = last; // ignore time shift
+                counter = (current & SequenceDomain.MAX_COUNTER) + 1;
+                if (counter > maxCounter) {
+                    throw new IllegalStateException(
+                        "The maximum number of identifiers in this millisecond has been reached");
                 }
-                ++counter;
+                next = current + 1;
+            }
+            if (state.compareAndSet(current, next)) {
+                break;
             }
         }
-        final String postfix = counter > 0
-                                          ? Long.toString(counter, ALPHA_NUMERIC_CHARSET_SIZE) : "";
-        if (postfix.length() > postfixSize) {
-            throw new IllegalStateException(
-                    "The maximum number of identifiers in this millisecond has been reached");
+        if (METRICS != null) {
+            METRICS.record(MetricEvent.GENERATED);
         }
         // ensure, that no negative value is used and values stay increasing
         long base = now - offset;
         long value = base < 0 ? base + Long.MAX_VALUE + 1 : base;
-        final String time = Long.toString(value, ALPHA_NUMERIC_CHARSET_SIZE);
-        final char[] buffer = new char[MAX_LONG_ALPHANUMERIC_VALUE_LENGTH + postfixSize];
-        int i = 0;
-        int maxPad = MAX_LONG_ALPHANUMERIC_VALUE_LENGTH - time.length();
-        if (maxPad > 0) {
-            System.arraycopy(padding, 0, buffer, 0, maxPad);
-        }
-        System.arraycopy(time.toCharArray(), 0, buffer, maxPad, time.length());
+        final int start = buffer.length();
+        Base36.encode(value, buffer, MAX_LONG_ALPHANUMERIC_VALUE_LENGTH);
         if (base < 0) {
             // Representation of Long.MAX_VALUE starts with '1', negative 'base' means higher value
             // in time
-            buffer[0] += 2;
-        }
-        i += time.length() + maxPad;
-        if (postfixSize > 0) {
-            maxPad = postfixSize - postfix.length();
-            if (maxPad > 0) {
-                System.arraycopy(padding, 0, buffer, i, maxPad);
-                i += maxPad;
-            }
-            System.arraycopy(postfix.toCharArray(), 0, buffer, i, postfix.length());
+            buffer.setCharAt(start, (char) (buffer.charAt(start) + 2));
         }
-        return new String(buffer);
+        return Base36.encode(counter, buffer, postfixSize);
+    }
+
+    /**
+     * Returns the sequence domain of this generator.
+     * 
+     * @return the sequence domain
+     */
+    public SequenceDomain getSequenceDomain() {
+        return domain;
+    }
+
+    /**
+     * Restore the process wide sequence domain after deserialization.
+     * 
+     * @param in the stream to read from
+     * @throws IOException if reading fails
+     * @throws ClassNotFoundException if a class of the stream cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        domain = SequenceDomain.PROCESS;
     }
 
     /**
@@ -190,20 +234,58 @@ public class TimeBasedAlphanumericIdentifierGenerator extends AbstractStringIden
      *             generator
      */
     public long getMillisecondsFromId(final Object id, final long offset) {
-        if (id instanceof String && id.toString().length() >= MAX_LONG_ALPHANUMERIC_VALUE_LENGTH) {
-            final char[] buffer = new char[MAX_LONG_ALPHANUMERIC_VALUE_LENGTH];
-            System.arraycopy(
-                    id.toString().toCharArray(), 0, buffer, 0, MAX_LONG_ALPHANUMERIC_VALUE_LENGTH);
-            final boolean overflow = buffer[0] > '1';
+        if (id instanceof String && ((String) id).length() >= MAX_LONG_ALPHANUMERIC_VALUE_LENGTH) {
+            final String str = (String) id;
+            int high = Base36.digit(str.charAt(0));
+            final boolean overflow = high > 1;
             if (overflow) {
-                buffer[0] -= 2;
+                high -= 2;
             }
-            long value = Long.parseLong(new String(buffer), ALPHA_NUMERIC_CHARSET_SIZE);
-            if (overflow) {
-                value -= Long.MAX_VALUE + 1;
+            final int lowLength = MAX_LONG_ALPHANUMERIC_VALUE_LENGTH - 1;
+            long value = high * (Base36.maxValue(lowLength) + 1) + Base36.decode(str, 1, lowLength);
+            // a negative value means the high digit was illegal or the value exceeded a long
+            if (high >= 0 && high <= 1 && value >= 0) {
+                if (overflow) {
+                    value -= Long.MAX_VALUE + 1;
+                }
+                return value + offset;
             }
-            return value + offset;
         }
         throw new IllegalArgumentException("'" + id + "' is not an id from this generator");
     }
+
+    /**
+     * A <code>SequenceDomain</code> holds the last millisecond and the counter of identifiers
+     * generated in this millisecond. Generators sharing a domain generate unique ids among each
+     * other.
+     */
+    public static final class SequenceDomain {
+
+        /**
+         * The domain shared by all generators that do not specify one explicitly.
+         */
+        public static final SequenceDomain PROCESS = new SequenceDomain();
+
+        /**
+         * Number of low order bits of the state used for the counter.
+         */
+        static final int COUNTER_BITS = 21;
+
+        /**
+         * The maximum number of identifiers per millisecond (in addition to the first one).
+         */
+        public static final long MAX_COUNTER = (1L << COUNTER_BITS) - 1;
+
+        /**
+         * The millisecond in the high order bits and the counter in the low order bits.
+         */
+        final AtomicLong state = new AtomicLong();
+
+        /**
+         * Construct a new independent sequence domain.
+         */
+        public SequenceDomain() {
+            super();
+        }
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.ulid;
+
+import org.apache.commons.id.uuid.UUID;
+import org.apache.commons.id.uuid.UUIDCodec;
+import org.apache.commons.id.uuid.UUIDFormatException;
+import org.apache.commons.id.uuid.UUIDSink;
+
+/**
+ * <p>Encoding of ULIDs, Universally Unique Lexicographically Sortable
+ * Identifiers.</p>
+ *
+ * <p>A ULID is a 128 bit value made of a 48 bit timestamp in milliseconds
+ * since 1970 followed by 80 random bits. Its string representation are 26
+ * Crockford Base32 characters, which is exactly the
+ * {@link UUIDCodec Base32 encoding} of a UUID. A ULID therefore converts to
+ * and from a {@link UUID} with the same 128 bits without loss. Such a UUID
+ * carries no meaningful version or variant.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class ULIDCodec {
+
+    /** The number of characters of a ULID. */
+    public static final int LENGTH = 26;
+
+    /** The largest timestamp of a ULID. */
+    public static final long MAX_TIMESTAMP = (1L << 48) - 1;
+
+    /**
+     * <p>Hide constructor in utility class.</p>
+     */
+    private ULIDCodec() {
+    }
+
+    /**
+     * Encodes a ULID into a char array.
+     *
+     * @param msb the most significant 64 bits
+     * @param lsb the least significant 64 bits
+     * @param dst the array to write the 26 characters to
+     * @param off the index of the first character to write
+     * @return the index after the last character written
+     */
+    public static int encode(long msb, long lsb, char[] dst, int off) {
+        return UUIDCodec.encodeBase32(msb, lsb, dst, off);
+    }
+
+    /**
+     * Returns the ULID string with the bits of a UUID.
+     *
+     * @param uuid the UUID
+     * @return the 26 character ULID
+     */
+    public static String format(UUID uuid) {
+        return uuid.toBase32String();
+    }
+
+    /**
+     * Decodes 26 characters of a ULID and passes its bits to a sink.
+     * Decoding is case insensitive.
+     *
+     * @param src the characters to decode
+     * @param off the index of the first character
+     * @param sink the sink receiving the bits
+     * @throws UUIDFormatException if the characters are not a valid ULID
+     * @throws IndexOutOfBoundsException if the range exceeds the sequence
+     */
+    public static void decode(CharSequence src, int off, UUIDSink sink) throws UUIDFormatException {
+        UUIDCodec.decodeBase32(src, off, sink);
+    }
+
+    /**
+     * Returns the UUID with the bits of a ULID.
+     *
+     * @param text the 26 character ULID
+     * @return the UUID
+     * @throws UUIDFormatException if the text is not a valid ULID
+     */
+    public static UUID parse(CharSequence text) throws UUIDFormatException {
+        return UUID.parseBase32(text);
+    }
+
+    /**
+     * Returns the timestamp of a ULID.
+     *
+     * @param msb the most significant 64 bits of the ULID
+     * @return the milliseconds since 1970
+     */
+    public static long timestampOf(long msb) {
+        return msb >>> 16;
+    }
+
+    /**
+     * Returns the timestamp of a ULID held by a UUID.
+     *
+     * @param uuid the UUID with the bits of the ULID
+     * @return the milliseconds since 1970
+     */
+    public static long timestampOf(UUID uuid) {
+        return timestampOf(uuid.getMostSignificantBits());
+    }
+}
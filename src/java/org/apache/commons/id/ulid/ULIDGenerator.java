@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.ulid;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.id.AbstractStringIdentifierGenerator;
+import org.apache.commons.id.metrics.GeneratorMetrics;
+import org.apache.commons.id.metrics.MetricEvent;
+import org.apache.commons.id.metrics.Metrics;
+import org.apache.commons.id.uuid.MutableUUID;
+import org.apache.commons.id.uuid.UUID;
+import org.apache.commons.id.uuid.UUIDSink;
+
+/**
+ * <p>Generates monotonic ULIDs, 128 bit identifiers whose string
+ * representations sort by creation time.</p>
+ *
+ * <p>The first ULID of a millisecond gets fresh random bits; every further
+ * ULID of the same millisecond increments the random part of the previous
+ * one. The millisecond with its random bits is replaced with a
+ * compare-and-set and the increments come from an atomic counter, so
+ * concurrent callers never block each other. The random source is only
+ * used once per millisecond, which makes a <code>SecureRandom</code>
+ * affordable. If the clock goes back, the generator stays in the last
+ * millisecond and keeps incrementing.</p>
+ *
+ * <p>When a millisecond starts, the highest bit of the lower 64 random bits
+ * is cleared and the upper 16 random bits are left random. The cleared bit
+ * is headroom for the increments, which therefore never carry out of the
+ * lower 64 bits into the upper random bits or the timestamp.</p>
+ *
+ * <p>No node identifier or state file is involved. The ULIDs are unique
+ * within a generator instance and, with overwhelming probability, between
+ * instances.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ * @see ULIDCodec
+ */
+public class ULIDGenerator extends AbstractStringIdentifierGenerator {
+
+    /** The metrics of this generator, <code>null</code> if metrics are disabled. */
+    private static final GeneratorMetrics METRICS = Metrics.forGenerator(ULIDGenerator.class);
+
+    /** The source of the random bits. */
+    private final Random random;
+
+    /** The current millisecond. */
+    private final AtomicReference window = new AtomicReference(new Window(-1, 0, 0));
+
+    /**
+     * Constructs a generator using a <code>SecureRandom</code>.
+     */
+    public ULIDGenerator() {
+        this(new SecureRandom());
+    }
+
+    /**
+     * Constructs a generator.
+     *
+     * @param random the source of the random bits
+     * @throws IllegalArgumentException if <code>random</code> is <code>null</code>
+     */
+    public ULIDGenerator(Random random) {
+        if (random == null) {
+            throw new IllegalArgumentException("Random must not be null");
+        }
+        this.random = random;
+    }
+
+    /**
+     * Passes the next ULID to a sink.
+     *
+     * @param sink the sink receiving the bits of the ULID, for example a {@link MutableUUID}
+     * @throws IllegalStateException if the clock is outside the range of a ULID timestamp
+     */
+    public void nextULID(UUIDSink sink) {
+        final Window current = currentWindow();
+        final long increment = current.counter.getAndIncrement();
+        if (METRICS != null) {
+            METRICS.record(MetricEvent.GENERATED);
+        }
+        sink.accept(current.millis << 16 | current.high, current.low + increment);
+    }
+
+    /**
+     * Returns the current millisecond, starting a new one if the clock has advanced.
+     *
+     * @return the current millisecond
+     * @throws IllegalStateException if the clock is outside the range of a ULID timestamp
+     */
+    private Window currentWindow() {
+        while (true) {
+            final Window current = (Window) window.get();
+            final long now = currentTimeMillis();
+            if (now < 0 || now > ULIDCodec.MAX_TIMESTAMP) {
+                throw new IllegalStateException("Time is outside the range of a ULID: " + now);
+            }
+            if (now <= current.millis) {
+                return current;
+            }
+            final Window next = new Window(now, random.nextInt() & 0xFFFF, random.nextLong() >>> 1);
+            if (window.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Returns the next ULID as a UUID with the same bits.
+     *
+     * @return the next ULID
+     * @throws IllegalStateException if the clock is outside the range of a ULID timestamp
+     */
+    public UUID nextUUID() {
+        final MutableUUID ulid = new MutableUUID();
+        nextULID(ulid);
+        return ulid.toUUID();
+    }
+
+    /**
+     * Returns the next ULID as a 26 character string.
+     *
+     * @return the next ULID
+     * @throws IllegalStateException if the clock is outside the range of a ULID timestamp
+     */
+    public String nextStringIdentifier() {
+        return new String(nextChars());
+    }
+
+    /**
+     * Appends the next ULID to the given buffer.
+     *
+     * @param buffer {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IllegalStateException if the clock is outside the range of a ULID timestamp
+     */
+    public StringBuilder appendTo(StringBuilder buffer) {
+        return buffer.append(nextChars());
+    }
+
+    /**
+     * Returns the characters of the next ULID.
+     *
+     * @return the 26 characters
+     */
+    private char[] nextChars() {
+        final MutableUUID ulid = new MutableUUID();
+        nextULID(ulid);
+        final char[] chars = new char[ULIDCodec.LENGTH];
+        ULIDCodec.encode(ulid.getMostSignificantBits(), ulid.getLeastSignificantBits(), chars, 0);
+        return chars;
+    }
+
+    /**
+     * Returns the length of a ULID.
+     *
+     * @return {@value ULIDCodec#LENGTH}
+     */
+    public long maxLength() {
+        return ULIDCodec.LENGTH;
+    }
+
+    /**
+     * Returns the length of a ULID.
+     *
+     * @return {@value ULIDCodec#LENGTH}
+     */
+    public long minLength() {
+        return ULIDCodec.LENGTH;
+    }
+
+    /**
+     * Returns the current time. Subclasses may override this method to use
+     * another clock.
+     *
+     * @return the milliseconds since 1970
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * A millisecond with its random bits.
+     */
+    private static final class Window {
+
+        /** The millisecond, -1 before the first ULID. */
+        final long millis;
+
+        /** The upper 16 random bits. */
+        final long high;
+
+        /** The lower 64 random bits of the first ULID in the millisecond. */
+        final long low;
+
+        /** The increment of the next ULID in the millisecond. */
+        final AtomicLong counter = new AtomicLong();
+
+        /**
+         * Constructor.
+         *
+         * @param millis the millisecond
+         * @param high the upper 16 random bits
+         * @param low the lower 64 random bits
+         */
+        Window(long millis, long high, long low) {
+            this.millis = millis;
+            this.high = high;
+            this.low = low;
+        }
+    }
+}
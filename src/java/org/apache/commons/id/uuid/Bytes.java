@@ -83,6 +83,21 @@ public final class Bytes {
         return b;
     }
 
+    /**
+     * Write a long into 8 bytes of the array starting at the given offset.
+     * No check is performed on the array length.
+     *
+     * @param n The number to convert.
+     * @param b The array to fill.
+     * @param offset The index of the first byte to write.
+     */
+    public static void toBytes(long n, byte[] b, int offset) {
+        for (int i = offset + 7; i >= offset; i--) {
+            b[i] = (byte) n;
+            n >>>= 8;
+        }
+    }
+
     /**
      * Build a long from first 8 bytes of the array.
      *
@@ -90,14 +105,25 @@ public final class Bytes {
      * @return A long.
      */
     public static long toLong(byte[] b) {
-        return ((((long) b[7]) & 0xFF)
-                + ((((long) b[6]) & 0xFF) << 8)
-                + ((((long) b[5]) & 0xFF) << 16)
-                + ((((long) b[4]) & 0xFF) << 24)
-                + ((((long) b[3]) & 0xFF) << 32)
-                + ((((long) b[2]) & 0xFF) << 40)
-                + ((((long) b[1]) & 0xFF) << 48)
-                + ((((long) b[0]) & 0xFF) << 56));
+        return toLong(b, 0);
+    }
+
+    /**
+     * Build a long from 8 bytes of the array starting at the given offset.
+     *
+     * @param b The byte[] to convert.
+     * @param offset The index of the most significant byte.
+     * @return A long.
+     */
+    public static long toLong(byte[] b, int offset) {
+        return ((((long) b[offset + 7]) & 0xFF)
+                + ((((long) b[offset + 6]) & 0xFF) << 8)
+                + ((((long) b[offset + 5]) & 0xFF) << 16)
+                + ((((long) b[offset + 4]) & 0xFF) << 24)
+                + ((((long) b[offset + 3]) & 0xFF) << 32)
+                + ((((long) b[offset + 2]) & 0xFF) << 40)
+                + ((((long) b[offset + 1]) & 0xFF) << 48)
+                + ((((long) b[offset]) & 0xFF) << 56));
     }
 
     /**
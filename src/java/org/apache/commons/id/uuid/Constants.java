@@ -40,6 +40,12 @@ public interface Constants {
     /** Chars in a UUID String. */
     int UUID_FORMATTED_LENGTH = 36;
 
+    /** Chars in a URL safe Base64 encoded UUID. */
+    int UUID_BASE64_LENGTH = 22;
+
+    /** Chars in a Crockford Base32 encoded UUID. */
+    int UUID_BASE32_LENGTH = 26;
+
     /** Token length of '-' separated tokens. */
     int TOKENS_IN_UUID = 5;
 
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.apache.commons.id.Hex;
+
+/**
+ * <p>A mutable holder of the 128 bits of a UUID.</p>
+ *
+ * <p>An instance can be passed as {@link UUIDSink} to the generators and
+ * reused for every UUID, so that a loop generating, formatting and writing
+ * UUIDs into caller supplied buffers does not allocate. An immutable
+ * {@link UUID} is only created by {@link #toUUID()}.</p>
+ *
+ * <p>Instances are not thread-safe. They are meant to be owned by a single
+ * thread, for example held in a field of a worker or a
+ * <code>ThreadLocal</code>.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class MutableUUID implements UUIDSink, Comparable, Constants {
+
+    /** The most significant 64 bits. */
+    private long mostSignificantBits;
+
+    /** The least significant 64 bits. */
+    private long leastSignificantBits;
+
+    /**
+     * Constructs a nil UUID.
+     */
+    public MutableUUID() {
+        super();
+    }
+
+    /**
+     * Constructs a UUID from its two halves.
+     *
+     * @param mostSignificantBits the most significant 64 bits
+     * @param leastSignificantBits the least significant 64 bits
+     */
+    public MutableUUID(long mostSignificantBits, long leastSignificantBits) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+    }
+
+    /**
+     * Sets the value.
+     *
+     * @param mostSignificantBits the most significant 64 bits
+     * @param leastSignificantBits the least significant 64 bits
+     * @return this instance
+     */
+    public MutableUUID set(long mostSignificantBits, long leastSignificantBits) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+        return this;
+    }
+
+    /**
+     * Sets the value to the one of an immutable UUID.
+     *
+     * @param uuid the UUID to copy
+     * @return this instance
+     */
+    public MutableUUID set(UUID uuid) {
+        return set(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Sets the value, the UUID passed by a generator.
+     *
+     * @see UUIDSink#accept(long, long)
+     */
+    public void accept(long mostSignificantBits, long leastSignificantBits) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+    }
+
+    /**
+     * Returns the most significant 64 bits.
+     *
+     * @return the most significant bits
+     */
+    public long getMostSignificantBits() {
+        return mostSignificantBits;
+    }
+
+    /**
+     * Returns the least significant 64 bits.
+     *
+     * @return the least significant bits
+     */
+    public long getLeastSignificantBits() {
+        return leastSignificantBits;
+    }
+
+    /**
+     * Returns the version of the UUID.
+     *
+     * @return the version
+     * @see UUID#version()
+     */
+    public int version() {
+        return UUID.versionOf(mostSignificantBits);
+    }
+
+    /**
+     * Returns an immutable copy of the current value.
+     *
+     * @return a new UUID
+     */
+    public UUID toUUID() {
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Returns a <code>java.util.UUID</code> with the current value.
+     *
+     * @return a new <code>java.util.UUID</code>
+     */
+    public java.util.UUID toJavaUUID() {
+        return new java.util.UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Writes the canonical string representation into a char array.
+     *
+     * @param dst the array to write the 36 characters to
+     * @param off the index of the first character to write
+     * @return the index after the last character written
+     * @see UUIDCodec#encodeHex(long, long, char[], int)
+     */
+    public int formatTo(char[] dst, int off) {
+        return UUIDCodec.encodeHex(mostSignificantBits, leastSignificantBits, dst, off);
+    }
+
+    /**
+     * Appends the canonical string representation to a buffer. The buffer
+     * grows if needed, otherwise nothing is allocated.
+     *
+     * @param buffer the buffer to append the 36 characters to
+     * @return the buffer
+     */
+    public StringBuilder formatTo(StringBuilder buffer) {
+        for (int digit = 0; digit < UUID_UNFORMATTED_LENGTH; digit++) {
+            if (digit == 8 || digit == 12 || digit == 16 || digit == 20) {
+                buffer.append('-');
+            }
+            final long half = digit < 16 ? mostSignificantBits : leastSignificantBits;
+            buffer.append(Hex.forDigit((int) (half >>> (60 - 4 * (digit & 15)))));
+        }
+        return buffer;
+    }
+
+    /**
+     * Writes the 16 bytes in network byte order into a byte array.
+     *
+     * @param dst the array to write to
+     * @param off the index of the first byte to write
+     * @return the index after the last byte written
+     */
+    public int writeTo(byte[] dst, int off) {
+        Bytes.toBytes(mostSignificantBits, dst, off);
+        Bytes.toBytes(leastSignificantBits, dst, off + 8);
+        return off + UUID_BYTE_LENGTH;
+    }
+
+    /**
+     * Writes the 16 bytes in network byte order into a buffer at its current
+     * position, regardless of the byte order of the buffer.
+     *
+     * @param dst the buffer to write to
+     * @throws java.nio.BufferOverflowException if less than 16 bytes remain in the buffer
+     */
+    public void writeTo(ByteBuffer dst) {
+        if (dst.order() == ByteOrder.BIG_ENDIAN) {
+            dst.putLong(mostSignificantBits).putLong(leastSignificantBits);
+        } else {
+            dst.putLong(Long.reverseBytes(mostSignificantBits)).putLong(Long.reverseBytes(leastSignificantBits));
+        }
+    }
+
+    /**
+     * Compares the value with another <code>MutableUUID</code> or <code>UUID</code>
+     * in the order of {@link UUID#compareTo(Object)}.
+     *
+     * @see Comparable#compareTo(Object)
+     */
+    public int compareTo(Object other) {
+        if (other instanceof UUID) {
+            final UUID uuid = (UUID) other;
+            return UUID.compare(mostSignificantBits, leastSignificantBits,
+                uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        }
+        final MutableUUID uuid = (MutableUUID) other;
+        return UUID.compare(mostSignificantBits, leastSignificantBits,
+            uuid.mostSignificantBits, uuid.leastSignificantBits);
+    }
+
+    /**
+     * Compares the current values of two <code>MutableUUID</code>s.
+     *
+     * @see java.lang.Object#equals(Object)
+     */
+    public boolean equals(Object obj) {
+        if (!(obj instanceof MutableUUID)) {
+            return false;
+        }
+        final MutableUUID other = (MutableUUID) obj;
+        return mostSignificantBits == other.mostSignificantBits
+            && leastSignificantBits == other.leastSignificantBits;
+    }
+
+    /**
+     * Returns the hash code of the current value, which is equal to the hash
+     * code of the corresponding <code>UUID</code>.
+     *
+     * @see UUID#hashCode(long, long)
+     */
+    public int hashCode() {
+        return UUID.hashCode(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Returns the canonical string representation.
+     *
+     * @return the 36 character string
+     */
+    public String toString() {
+        final char[] chars = new char[UUID_FORMATTED_LENGTH];
+        formatTo(chars, 0);
+        return new String(chars);
+    }
+}
@@ -20,6 +20,10 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.Set;
 
+import org.apache.commons.id.metrics.GeneratorMetrics;
+import org.apache.commons.id.metrics.MetricEvent;
+import org.apache.commons.id.metrics.Metrics;
+import org.apache.commons.id.metrics.jfr.FlightRecorderEvents;
 import org.apache.commons.id.uuid.clock.Clock;
 import org.apache.commons.id.uuid.state.Node;
 import org.apache.commons.id.uuid.state.State;
@@ -35,6 +39,10 @@ import org.apache.commons.id.uuid.state.StateHelper;
  *
  */
 public final class NodeManagerImpl implements NodeManager {
+    /** The name of the version one generator in flight recordings. */
+    private static final String GENERATOR = "VersionOneGenerator";
+    /** The metrics of the version one generator, <code>null</code> if metrics are disabled. */
+    private static final GeneratorMetrics METRICS = Metrics.forGenerator(VersionOneGenerator.class);
     /** Reference to the State implementation to use for loading and storing */
     private State nodeState;
     /** The current array index for the Node in use. */
@@ -119,6 +127,10 @@ public final class NodeManagerImpl implements NodeManager {
         if (currentNodeIndex >= allNodes.length) {
             currentNodeIndex = 0;
         }
+        if (METRICS != null) {
+            METRICS.record(MetricEvent.NODE_FAILOVER, 1, currentNodeIndex);
+        }
+        FlightRecorderEvents.nodeFailover(GENERATOR, currentNodeIndex);
         return currentNode();
     }
 
@@ -0,0 +1,485 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * <p>Locates and caches the implementations of the UUID service provider
+ * interfaces, such as {@link NodeManager},
+ * {@link org.apache.commons.id.uuid.clock.Clock} and
+ * {@link org.apache.commons.id.uuid.state.State}.</p>
+ *
+ * <p>The implementation of an interface is resolved in this order:</p>
+ * <ol>
+ *   <li>the factory or class {@link #register(Class, Supplier) registered}
+ *   for the interface,</li>
+ *   <li>the class named by the system property with the name of the interface,</li>
+ *   <li>the first provider found by <code>java.util.ServiceLoader</code> in
+ *   <code>META-INF/services</code>,</li>
+ *   <li>the default implementation given by the caller.</li>
+ * </ol>
+ *
+ * <p>Implementations are found with the context class loader of the current
+ * thread, so the resolved implementations are cached per class loader: each
+ * web application sees its own providers even if this library is shared
+ * between them. Classpath scanning happens at most once per interface and
+ * class loader, and later instances cost one constructor call. The instance
+ * created by <code>ServiceLoader</code> while resolving is handed to the
+ * caller rather than thrown away. The system property is read on every
+ * lookup and a changed value is resolved again.</p>
+ *
+ * <p>The shared instances of {@link #getSingleton(Class, String)} are held
+ * by their implementation class and only referred to weakly from the cache
+ * of the class loader, so neither they nor the cached constructors keep a
+ * class loader from being collected.</p>
+ *
+ * <p>Only a factory registered with {@link #register(Class, Supplier)} works
+ * without reflection, which suits ahead-of-time compilers such as GraalVM
+ * native images. The other ways create the implementation through its
+ * public no argument constructor, which then needs reflection
+ * configuration.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class ProviderRegistry {
+
+    /** The registrations, keyed by interface. */
+    private static final ConcurrentHashMap REGISTERED = new ConcurrentHashMap();
+
+    /**
+     * The caches of the class loaders, guarded by itself. The caches only
+     * refer weakly to the implementations and their instances, so that they
+     * do not keep a class loader from being collected.
+     */
+    private static final Map CACHES = new WeakHashMap();
+
+    /** The holders of the shared instances, one for each implementation class. */
+    private static final ClassValue SINGLETONS = new ClassValue() {
+        protected Object computeValue(Class type) {
+            return new AtomicReference();
+        }
+    };
+
+    /**
+     * <p>Hide constructor in utility class.</p>
+     */
+    private ProviderRegistry() {
+    }
+
+    /**
+     * Registers a factory for the implementation of an interface, taking
+     * precedence over the system property, the service files and the
+     * default. A previous registration and its shared instance are
+     * discarded.
+     *
+     * @param spi the interface
+     * @param factory the factory of the implementation, returning instances of <code>spi</code>
+     * @throws IllegalArgumentException if <code>spi</code> or <code>factory</code> is <code>null</code>
+     * @since 1.1
+     */
+    public static void register(Class spi, Supplier factory) {
+        if (spi == null || factory == null) {
+            throw new IllegalArgumentException("Cannot register " + factory + " for " + spi);
+        }
+        REGISTERED.put(spi, new Registration(spi, factory));
+    }
+
+    /**
+     * Registers the implementation of an interface, taking precedence over
+     * the system property, the service files and the default. A previous
+     * registration and its shared instance are discarded.
+     *
+     * @param spi the interface
+     * @param impl the implementation, with a public no argument constructor
+     * @throws IllegalArgumentException if <code>impl</code> does not implement
+     *  <code>spi</code> or has no public no argument constructor
+     */
+    public static void register(Class spi, Class impl) {
+        if (spi == null || impl == null) {
+            throw new IllegalArgumentException(impl + " does not implement " + spi);
+        }
+        register(spi, new ConstructorFactory(constructor(spi, impl)));
+    }
+
+    /**
+     * Removes the registration of an interface and its shared instance.
+     *
+     * @param spi the interface
+     */
+    public static void unregister(Class spi) {
+        REGISTERED.remove(spi);
+    }
+
+    /**
+     * Creates a new instance of the implementation of an interface.
+     *
+     * @param spi the interface
+     * @param defaultImpl the name of the default implementation
+     * @return the new instance
+     * @throws IllegalStateException if the implementation cannot be loaded or instantiated
+     */
+    public static Object newInstance(Class spi, String defaultImpl) {
+        final Registration registration = (Registration) REGISTERED.get(spi);
+        if (registration != null) {
+            return registration.newInstance();
+        }
+        final Object[] created = new Object[1];
+        final Provider provider = resolve(spi, defaultImpl, cache(classLoader(spi)), created);
+        return created[0] != null ? created[0] : provider.newInstance();
+    }
+
+    /**
+     * Returns the shared instance of the implementation of an interface,
+     * creating it on the first call. The instance is kept even if the system
+     * property changes later.
+     *
+     * @param spi the interface
+     * @param defaultImpl the name of the default implementation
+     * @return the shared instance
+     * @throws IllegalStateException if the implementation cannot be loaded or instantiated
+     */
+    public static Object getSingleton(Class spi, String defaultImpl) {
+        final Registration registration = (Registration) REGISTERED.get(spi);
+        if (registration != null) {
+            return registration.getSingleton();
+        }
+        final Cache cache = cache(classLoader(spi));
+        final WeakReference shared = (WeakReference) cache.singletons.get(spi);
+        Object instance = shared == null ? null : shared.get();
+        if (instance == null) {
+            final Object[] created = new Object[1];
+            final Provider provider = resolve(spi, defaultImpl, cache, created);
+            final AtomicReference singleton = (AtomicReference) SINGLETONS.get(provider.type());
+            synchronized (singleton) {
+                instance = singleton.get();
+                if (instance == null) {
+                    instance = created[0] != null ? created[0] : provider.newInstance();
+                    singleton.set(instance);
+                }
+            }
+            cache.singletons.put(spi, new WeakReference(instance));
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the cached provider of an interface for the context class
+     * loader, resolving it if there is none or the system property changed.
+     *
+     * @param spi the interface
+     * @param defaultImpl the name of the default implementation
+     * @param cache the cache of the context class loader
+     * @param created receives the instance created by <code>ServiceLoader</code>, if any
+     * @return the provider
+     */
+    private static Provider resolve(Class spi, String defaultImpl, Cache cache, Object[] created) {
+        final ClassLoader loader = classLoader(spi);
+        final String property = System.getProperty(spi.getName());
+        final Provider cached = (Provider) cache.providers.get(spi);
+        if (cached != null && (property == null ? cached.property == null : property.equals(cached.property))) {
+            return cached;
+        }
+        Class impl = null;
+        if (property != null) {
+            impl = loadClass(spi, property, loader);
+        } else {
+            try {
+                final Iterator services = ServiceLoader.load(spi, loader).iterator();
+                if (services.hasNext()) {
+                    created[0] = services.next();
+                    impl = created[0].getClass();
+                }
+            } catch (ServiceConfigurationError e) {
+                // ignore as the default implementation will be used
+            }
+            if (impl == null) {
+                impl = loadClass(spi, defaultImpl, loader);
+            }
+        }
+        final Provider provider;
+        try {
+            provider = new Provider(constructor(spi, impl), property);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+        cache.providers.put(spi, provider);
+        return provider;
+    }
+
+    /**
+     * Returns the public no argument constructor of an implementation.
+     *
+     * @param spi the interface
+     * @param impl the implementation
+     * @return the constructor
+     * @throws IllegalArgumentException if <code>impl</code> does not
+     *  implement <code>spi</code> or has no public no argument constructor
+     */
+    private static Constructor constructor(Class spi, Class impl) {
+        if (!spi.isAssignableFrom(impl)) {
+            throw new IllegalArgumentException(impl.getName() + " does not implement " + spi.getName());
+        }
+        try {
+            return impl.getConstructor(new Class[0]);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(impl.getName() + " has no public no argument constructor");
+        }
+    }
+
+    /**
+     * Creates an instance with a constructor.
+     *
+     * @param constructor the public no argument constructor
+     * @return the new instance
+     * @throws IllegalStateException if the constructor fails
+     */
+    private static Object instantiate(Constructor constructor) {
+        try {
+            return constructor.newInstance(new Object[0]);
+        } catch (InstantiationException e) {
+            throw new IllegalStateException("Cannot instantiate " + constructor.getDeclaringClass().getName(), e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot instantiate " + constructor.getDeclaringClass().getName(), e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Cannot instantiate " + constructor.getDeclaringClass().getName(),
+                e.getCause());
+        }
+    }
+
+    /**
+     * Returns the class loader to find implementations with.
+     *
+     * @param spi the interface
+     * @return the context class loader of the current thread, or the loader of the interface
+     */
+    private static ClassLoader classLoader(Class spi) {
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return loader != null ? loader : spi.getClassLoader();
+    }
+
+    /**
+     * Returns the cache of a class loader, creating it if there is none.
+     *
+     * @param loader the class loader
+     * @return the cache
+     */
+    private static Cache cache(ClassLoader loader) {
+        synchronized (CACHES) {
+            Cache cache = (Cache) CACHES.get(loader);
+            if (cache == null) {
+                cache = new Cache();
+                CACHES.put(loader, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Loads an implementation by name.
+     *
+     * @param spi the interface
+     * @param name the name of the implementation
+     * @param loader the class loader to try first
+     * @return the implementation
+     * @throws IllegalStateException if the class cannot be found
+     */
+    private static Class loadClass(Class spi, String name, ClassLoader loader) {
+        try {
+            return Class.forName(name, true, loader);
+        } catch (ClassNotFoundException e) {
+            try {
+                return Class.forName(name, true, spi.getClassLoader());
+            } catch (ClassNotFoundException e2) {
+                throw new IllegalStateException("Cannot load " + name + " for " + spi.getName(), e2);
+            }
+        }
+    }
+
+    /**
+     * The resolved providers and the shared instances of a class loader.
+     */
+    private static final class Cache {
+
+        /** The resolved providers, keyed by interface. */
+        final ConcurrentHashMap providers = new ConcurrentHashMap();
+
+        /** Weak references to the shared instances, keyed by interface. */
+        final ConcurrentHashMap singletons = new ConcurrentHashMap();
+    }
+
+    /**
+     * The factory and the shared instance registered for an interface.
+     */
+    private static final class Registration {
+
+        /** The interface. */
+        private final Class spi;
+
+        /** The factory of the implementation. */
+        private final Supplier factory;
+
+        /** The shared instance, created on demand. */
+        private final AtomicReference singleton = new AtomicReference();
+
+        /**
+         * Constructor.
+         *
+         * @param spi the interface
+         * @param factory the factory of the implementation
+         */
+        Registration(Class spi, Supplier factory) {
+            this.spi = spi;
+            this.factory = factory;
+        }
+
+        /**
+         * Creates an instance with the factory.
+         *
+         * @return the new instance
+         * @throws IllegalStateException if the factory returns no instance of the interface
+         */
+        Object newInstance() {
+            final Object instance = factory.get();
+            if (!spi.isInstance(instance)) {
+                throw new IllegalStateException(factory + " returned " + instance + " for " + spi.getName());
+            }
+            return instance;
+        }
+
+        /**
+         * Returns the shared instance, creating it on the first call.
+         *
+         * @return the shared instance
+         */
+        Object getSingleton() {
+            Object instance = singleton.get();
+            if (instance == null) {
+                synchronized (singleton) {
+                    instance = singleton.get();
+                    if (instance == null) {
+                        instance = newInstance();
+                        singleton.set(instance);
+                    }
+                }
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * The factory of a class registered explicitly.
+     */
+    private static final class ConstructorFactory implements Supplier {
+
+        /** The public no argument constructor. */
+        private final Constructor constructor;
+
+        /**
+         * Constructor.
+         *
+         * @param constructor the public no argument constructor
+         */
+        ConstructorFactory(Constructor constructor) {
+            this.constructor = constructor;
+        }
+
+        public Object get() {
+            return instantiate(constructor);
+        }
+
+        public String toString() {
+            return constructor.getDeclaringClass().getName();
+        }
+    }
+
+    /**
+     * The implementation of an interface resolved for a class loader.
+     */
+    private static final class Provider {
+
+        /** The implementation, weakly so that it does not pin its class loader. */
+        private final WeakReference type;
+
+        /**
+         * The cached constructor, softly so that it does not pin the class
+         * loader of the implementation for longer than the reflection data
+         * of the JDK.
+         */
+        private volatile SoftReference constructor;
+
+        /** The value of the system property when the provider was resolved. */
+        final String property;
+
+        /**
+         * Constructor.
+         *
+         * @param constructor the public no argument constructor of the implementation
+         * @param property the value of the system property
+         */
+        Provider(Constructor constructor, String property) {
+            this.type = new WeakReference(constructor.getDeclaringClass());
+            this.constructor = new SoftReference(constructor);
+            this.property = property;
+        }
+
+        /**
+         * Returns the implementation.
+         *
+         * @return the implementation
+         * @throws IllegalStateException if the implementation has been unloaded
+         */
+        Class type() {
+            final Class impl = (Class) type.get();
+            if (impl == null) {
+                throw new IllegalStateException("The implementation has been unloaded");
+            }
+            return impl;
+        }
+
+        /**
+         * Creates an instance of the implementation.
+         *
+         * @return the new instance
+         * @throws IllegalStateException if the constructor fails
+         */
+        Object newInstance() {
+            Constructor cached = (Constructor) constructor.get();
+            if (cached == null) {
+                try {
+                    cached = type().getConstructor(new Class[0]);
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalStateException("Cannot instantiate " + type().getName(), e);
+                }
+                constructor = new SoftReference(cached);
+            }
+            return instantiate(cached);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+/**
+ * <p>Orders time-based (version 1) UUIDs chronologically.</p>
+ *
+ * <p>{@link UUID#compareTo(Object)} orders by the raw bytes, which start with
+ * the rapidly changing low bits of the timestamp. This comparator compares
+ * the 60 bit timestamp first, then the clock sequence and then the node. The
+ * fields are taken directly from the most and least significant bits without
+ * creating temporary objects. Ties are broken by the remaining version and
+ * variant bits, so the order is consistent with <code>equals</code>.</p>
+ *
+ * <p>UUIDs of other versions are ordered by the same bit fields, which has no
+ * chronological meaning. {@link UUID#minForTimestamp(long)} and
+ * {@link UUID#maxForTimestamp(long)} create the bounds for time range scans
+ * of sorted maps using this comparator, for example:</p>
+ * <pre>
+ * SortedMap events = new TreeMap(new TimeBasedUUIDComparator());
+ * ...
+ * SortedMap range = events.subMap(UUID.minForTimestamp(from), UUID.minForTimestamp(to));
+ * </pre>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public class TimeBasedUUIDComparator implements Comparator, Serializable {
+
+    /**
+     * <code>serialVersionUID</code> is the serializable UID for the binary version of the class.
+     */
+    private static final long serialVersionUID = 20261019L;
+
+    /**
+     * Constructor.
+     */
+    public TimeBasedUUIDComparator() {
+        super();
+    }
+
+    /**
+     * Compares two UUIDs by timestamp, clock sequence and node.
+     *
+     * @param o1 the first UUID
+     * @param o2 the second UUID
+     * @return a negative integer, zero, or a positive integer as the first UUID
+     *  is less than, equal to, or greater than the second
+     * @throws ClassCastException if an argument is not a {@link UUID}
+     */
+    public int compare(Object o1, Object o2) {
+        final UUID u1 = (UUID) o1;
+        final UUID u2 = (UUID) o2;
+        return compare(u1.getMostSignificantBits(), u1.getLeastSignificantBits(),
+            u2.getMostSignificantBits(), u2.getLeastSignificantBits());
+    }
+
+    /**
+     * Compares two UUIDs given by their most and least significant bits in
+     * the order of this comparator.
+     *
+     * @param msb1 the most significant 64 bits of the first UUID
+     * @param lsb1 the least significant 64 bits of the first UUID
+     * @param msb2 the most significant 64 bits of the second UUID
+     * @param lsb2 the least significant 64 bits of the second UUID
+     * @return a negative integer, zero, or a positive integer as the first UUID
+     *  is less than, equal to, or greater than the second
+     */
+    public static int compare(long msb1, long lsb1, long msb2, long lsb2) {
+        int cmp = Long.compare(UUID.timestampOf(msb1), UUID.timestampOf(msb2));
+        if (cmp != 0) {
+            return cmp;
+        }
+        // clock sequence and node are the low 62 bits, compared as a positive long
+        cmp = Long.compare(lsb1 & 0x3FFFFFFFFFFFFFFFL, lsb2 & 0x3FFFFFFFFFFFFFFFL);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return UUID.compare(msb1, lsb1, msb2, lsb2);
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>Binary encoding of UUIDs with the fields of the timestamp swapped, as
+ * done by MySQL's <code>UUID_TO_BIN(uuid, 1)</code>.</p>
+ *
+ * <p>The 16 bytes are laid out as
+ * <code>time_hi_and_version | time_mid | time_low | clock_seq | node</code>
+ * instead of the RFC 4122 order starting with <code>time_low</code>. For
+ * version 1 UUIDs the unsigned bytes then sort by the timestamp, so UUIDs
+ * generated in sequence are appended at the end of a <code>BINARY(16)</code>
+ * index instead of being scattered over its pages. The clock sequence and
+ * node keep their positions.</p>
+ *
+ * <p>All methods write and read caller supplied arrays and buffers. Buffers
+ * are always written and read in network byte order, regardless of their
+ * {@link ByteBuffer#order()}.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class TimeSwappedCodec implements Constants {
+
+    /**
+     * <p>Hide constructor in utility class.</p>
+     */
+    private TimeSwappedCodec() {
+    }
+
+    /**
+     * Moves <code>time_hi_and_version</code> to the front of the most significant bits.
+     *
+     * @param msb the most significant 64 bits in RFC 4122 order
+     * @return the most significant 64 bits in swapped order
+     */
+    public static long swap(long msb) {
+        return msb << 48 | (msb & 0xFFFF0000L) << 16 | msb >>> 32;
+    }
+
+    /**
+     * Restores the RFC 4122 order of swapped most significant bits.
+     *
+     * @param swapped the most significant 64 bits in swapped order
+     * @return the most significant 64 bits in RFC 4122 order
+     */
+    public static long unswap(long swapped) {
+        return swapped << 32 | (swapped >>> 16 & 0xFFFF0000L) | swapped >>> 48;
+    }
+
+    /**
+     * Writes a UUID in swapped order into a byte array.
+     *
+     * @param msb the most significant 64 bits in RFC 4122 order
+     * @param lsb the least significant 64 bits
+     * @param dst the array to write the 16 bytes to
+     * @param off the index of the first byte to write
+     * @return the index after the last byte written
+     */
+    public static int encode(long msb, long lsb, byte[] dst, int off) {
+        Bytes.toBytes(swap(msb), dst, off);
+        Bytes.toBytes(lsb, dst, off + 8);
+        return off + UUID_BYTE_LENGTH;
+    }
+
+    /**
+     * Writes a UUID in swapped order into a byte array.
+     *
+     * @param uuid the UUID
+     * @param dst the array to write the 16 bytes to
+     * @param off the index of the first byte to write
+     * @return the index after the last byte written
+     */
+    public static int encode(UUID uuid, byte[] dst, int off) {
+        return encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, off);
+    }
+
+    /**
+     * Writes a UUID in swapped order into a buffer at its current position.
+     *
+     * @param msb the most significant 64 bits in RFC 4122 order
+     * @param lsb the least significant 64 bits
+     * @param dst the buffer to write to
+     * @throws java.nio.BufferOverflowException if less than 16 bytes remain in the buffer
+     */
+    public static void encode(long msb, long lsb, ByteBuffer dst) {
+        if (dst.order() == ByteOrder.BIG_ENDIAN) {
+            dst.putLong(swap(msb)).putLong(lsb);
+        } else {
+            dst.putLong(Long.reverseBytes(swap(msb))).putLong(Long.reverseBytes(lsb));
+        }
+    }
+
+    /**
+     * Writes a UUID in swapped order into a buffer at its current position.
+     *
+     * @param uuid the UUID
+     * @param dst the buffer to write to
+     * @throws java.nio.BufferOverflowException if less than 16 bytes remain in the buffer
+     */
+    public static void encode(UUID uuid, ByteBuffer dst) {
+        encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst);
+    }
+
+    /**
+     * Writes consecutive UUIDs in swapped order into a byte array, for example
+     * the keys of a batch insert.
+     *
+     * @param src the UUIDs
+     * @param srcOff the index of the first UUID
+     * @param len the number of UUIDs
+     * @param dst the array to write <code>16 * len</code> bytes to
+     * @param dstOff the index of the first byte to write
+     * @return the index after the last byte written
+     * @throws IndexOutOfBoundsException if a range exceeds its array
+     */
+    public static int encode(UUID[] src, int srcOff, int len, byte[] dst, int dstOff) {
+        checkRange(src.length, srcOff, len);
+        checkRange(dst.length, dstOff, len * UUID_BYTE_LENGTH);
+        for (int i = srcOff; i < srcOff + len; i++) {
+            dstOff = encode(src[i], dst, dstOff);
+        }
+        return dstOff;
+    }
+
+    /**
+     * Writes consecutive UUIDs in swapped order into a buffer at its current position.
+     *
+     * @param src the UUIDs
+     * @param srcOff the index of the first UUID
+     * @param len the number of UUIDs
+     * @param dst the buffer to write <code>16 * len</code> bytes to
+     * @throws IndexOutOfBoundsException if the range exceeds the array
+     * @throws java.nio.BufferOverflowException if less than <code>16 * len</code> bytes
+     *  remain in the buffer, nothing is written then
+     */
+    public static void encode(UUID[] src, int srcOff, int len, ByteBuffer dst) {
+        checkRange(src.length, srcOff, len);
+        if (dst.remaining() < len * UUID_BYTE_LENGTH) {
+            throw new BufferOverflowException();
+        }
+        for (int i = srcOff; i < srcOff + len; i++) {
+            encode(src[i], dst);
+        }
+    }
+
+    /**
+     * Reads a UUID in swapped order from a byte array and passes it to a sink.
+     *
+     * @param src the array to read from
+     * @param off the index of the first byte
+     * @param sink the sink receiving the UUID in RFC 4122 order
+     * @throws IndexOutOfBoundsException if less than 16 bytes are available
+     */
+    public static void decode(byte[] src, int off, UUIDSink sink) {
+        sink.accept(unswap(Bytes.toLong(src, off)), Bytes.toLong(src, off + 8));
+    }
+
+    /**
+     * Reads a UUID in swapped order from a byte array.
+     *
+     * @param src the array to read from
+     * @param off the index of the first byte
+     * @return the UUID
+     * @throws IndexOutOfBoundsException if less than 16 bytes are available
+     */
+    public static UUID decode(byte[] src, int off) {
+        return new UUID(unswap(Bytes.toLong(src, off)), Bytes.toLong(src, off + 8));
+    }
+
+    /**
+     * Reads a UUID in swapped order from the next 16 bytes of a buffer.
+     *
+     * @param src the buffer to read from
+     * @param sink the sink receiving the UUID in RFC 4122 order
+     * @throws java.nio.BufferUnderflowException if less than 16 bytes remain in the buffer
+     */
+    public static void decode(ByteBuffer src, UUIDSink sink) {
+        long msb = src.getLong();
+        long lsb = src.getLong();
+        if (src.order() != ByteOrder.BIG_ENDIAN) {
+            msb = Long.reverseBytes(msb);
+            lsb = Long.reverseBytes(lsb);
+        }
+        sink.accept(unswap(msb), lsb);
+    }
+
+    /**
+     * Reads a UUID in swapped order from the next 16 bytes of a buffer.
+     *
+     * @param src the buffer to read from
+     * @return the UUID
+     * @throws java.nio.BufferUnderflowException if less than 16 bytes remain in the buffer
+     */
+    public static UUID decode(ByteBuffer src) {
+        final MutableUUID uuid = new MutableUUID();
+        decode(src, uuid);
+        return uuid.toUUID();
+    }
+
+    /**
+     * Reads consecutive UUIDs in swapped order from a byte array.
+     *
+     * @param src the array to read <code>16 * len</code> bytes from
+     * @param srcOff the index of the first byte
+     * @param dst the array to store the UUIDs in
+     * @param dstOff the index of the first UUID to store
+     * @param len the number of UUIDs
+     * @return the index after the last byte read
+     * @throws IndexOutOfBoundsException if a range exceeds its array
+     */
+    public static int decode(byte[] src, int srcOff, UUID[] dst, int dstOff, int len) {
+        checkRange(dst.length, dstOff, len);
+        checkRange(src.length, srcOff, len * UUID_BYTE_LENGTH);
+        for (int i = dstOff; i < dstOff + len; i++) {
+            dst[i] = decode(src, srcOff);
+            srcOff += UUID_BYTE_LENGTH;
+        }
+        return srcOff;
+    }
+
+    /**
+     * Checks a range of an array.
+     *
+     * @param length the length of the array
+     * @param off the index of the first element
+     * @param len the number of elements
+     * @throws IndexOutOfBoundsException if the range exceeds the array
+     */
+    private static void checkRange(int length, int off, int len) {
+        if (off < 0 || len < 0 || off > length - len) {
+            throw new IndexOutOfBoundsException("Range [" + off + ", " + off + " + " + len
+                + ") out of bounds for length " + length);
+        }
+    }
+}
@@ -16,14 +16,14 @@
  */
 package org.apache.commons.id.uuid;
 
-import org.apache.commons.id.DecoderException;
 import org.apache.commons.id.DigestUtils;
 import org.apache.commons.id.Hex;
 
 import java.io.DataInput;
 import java.io.IOException;
 import java.io.Serializable;
-import java.util.StringTokenizer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 
 /**
@@ -42,13 +42,13 @@ public class UUID implements Constants, Serializable, Comparable {
 	/** byte array to store 128-bits composing this UUID */
 	private byte[] rawBytes = new byte[UUID_BYTE_LENGTH];
 	
-	/** Holds node identifier for this UUID */
+	/** No longer used, the node is decoded on demand. Kept for serialization compatibility. */
 	private Long node = null;
 	
 	/** Holds timestamp for this UUID */
 	private long timestamp = -1;
 	
-	/** Holds the clock sequence field */
+	/** No longer used, the clock sequence is decoded on demand. Kept for serialization compatibility. */
 	private Short clockSq = null;
 	
 	/** Holds the version field of this UUID */
@@ -60,6 +60,20 @@ public class UUID implements Constants, Serializable, Comparable {
 	/** Holds the internal string value of the UUID */
 	private String stringValue = null;
 	
+	/** The positions of the 32 hexadecimal digits in the formatted string. */
+	static final int[] DIGIT_POSITIONS = new int[UUID_UNFORMATTED_LENGTH];
+	
+	static {
+		int digit = 0;
+		int position = 0;
+		for (int token = 0; token < TOKENS_IN_UUID; token++) {
+			for (int i = 0; i < TOKEN_LENGTHS[token]; i++) {
+				DIGIT_POSITIONS[digit++] = position++;
+			}
+			position++; // the dash
+		}
+	}
+	
 	/** Constructs a nil UUID */
 	public UUID() {
 		super();
@@ -124,7 +138,8 @@ public class UUID implements Constants, Serializable, Comparable {
 	 * @param leastSignificant - the least significant 8 bytes of the uuid to be constructed.
 	 */
 	public UUID(long mostSignificant, long leastSignificant) {
-		rawBytes = Bytes.append(Bytes.toBytes(mostSignificant), Bytes.toBytes(leastSignificant));
+		Bytes.toBytes(mostSignificant, rawBytes, 0);
+		Bytes.toBytes(leastSignificant, rawBytes, 8);
 	}
 	
 	/**
@@ -144,50 +159,76 @@ public class UUID implements Constants, Serializable, Comparable {
 	 *  @param uuidString the UUID formatted String to parse.
 	 *  @throws UUIDFormatException the String must be a properly formatted UUID String.
 	 *  @return Returns a UUID or null if the formatted string could not be parsed.
+	 *  @see #tryParse(CharSequence)
 	 */
 	public static UUID fromString(String uuidString)
 	throws UUIDFormatException {
-		String leanString = uuidString.toLowerCase();
-		UUID tmpUUID = null;
-		
-		//Handle prefixed UUIDs
-		// e.g. urn:uuid:f81d4fae-7dec-11d0-a765-00a0c91e6bf6
-		int pos = uuidString.lastIndexOf(":");
-		if (pos > 1) {
-			leanString = uuidString.substring(++pos, uuidString.length());
-		}
-		
-		//Check for 36 char length
-		if (leanString.length() != UUID_FORMATTED_LENGTH) {
+		UUID uuid = tryParse(uuidString);
+		if (uuid == null) {
 			throw new UUIDFormatException(uuidString);
 		}
-		
-		//Check for 5 fields
-		StringTokenizer tok = new StringTokenizer(leanString, "-");
-		if ( tok.countTokens() != TOKENS_IN_UUID ) {
-			throw new UUIDFormatException(uuidString);
+		return uuid;
+	}
+	
+	/**
+	 * <p>Tests whether a string is a properly formatted UUID, as accepted by
+	 * {@link #fromString(String)}. Nothing is allocated.</p>
+	 *
+	 * @param text the string to test, may be <code>null</code>.
+	 * @return <code>true</code> if the string can be parsed.
+	 */
+	public static boolean isValid(CharSequence text) {
+		return text != null && canonicalStart(text) >= 0;
+	}
+	
+	/**
+	 * <p>Parses a string for a UUID without throwing an exception, for validating
+	 * untrusted input. The accepted format is the one of {@link #fromString(String)}:
+	 * 36 hexadecimal digits and dashes in either case, optionally prefixed by a
+	 * string ending in a colon such as {@link #URN_PREFIX}. Nothing is allocated
+	 * if the string is invalid.</p>
+	 *
+	 * @param text the string to parse, may be <code>null</code>.
+	 * @return the UUID or <code>null</code> if the string is not a properly formatted UUID.
+	 */
+	public static UUID tryParse(CharSequence text) {
+		if (text == null) {
+			return null;
 		}
-		
-		//Remove the "-" from the formatted string and test token sizes
-		StringBuffer buf = new StringBuffer(UUID_UNFORMATTED_LENGTH);
-		String token = null;
-		int count = 0;
-		while (tok.hasMoreTokens()) {
-			token = tok.nextToken();
-			if (token.length() != TOKEN_LENGTHS[count++]) {
-				throw new UUIDFormatException(uuidString);
-			}
-			buf.append(token);
+		int start = canonicalStart(text);
+		if (start < 0) {
+			return null;
 		}
-		
-		//Create from the hex value
-		try {
-			char[] chars = buf.toString().toCharArray();
-			tmpUUID = new UUID(Hex.decodeHex(chars));
-		} catch (DecoderException de) {
-			throw new UUIDFormatException(uuidString + ": " + de.getMessage());
+		long msb = 0;
+		long lsb = 0;
+		for (int i = 0; i < 16; i++) {
+			msb = msb << 4 | Hex.digit(text.charAt(start + DIGIT_POSITIONS[i]));
+			lsb = lsb << 4 | Hex.digit(text.charAt(start + DIGIT_POSITIONS[i + 16]));
 		}
-		return tmpUUID;
+		return new UUID(msb, lsb);
+	}
+	
+	/**
+	 * <p>Validates the layout of a formatted UUID and locates it.</p>
+	 *
+	 * @param text the string to validate.
+	 * @return the index of the first digit or -1 if the string is not a properly formatted UUID.
+	 */
+	private static int canonicalStart(CharSequence text) {
+		int start = text.length() - UUID_FORMATTED_LENGTH;
+		// a prefix must end with a colon after index 1, like the prefixes of fromString
+		if (start < 0 || start > 0 && (start < 3 || text.charAt(start - 1) != ':')) {
+			return -1;
+		}
+		if ((text.charAt(start + FORMAT_POSITION1) ^ '-' | text.charAt(start + FORMAT_POSITION2) ^ '-'
+				| text.charAt(start + FORMAT_POSITION3) ^ '-' | text.charAt(start + FORMAT_POSITION4) ^ '-') != 0) {
+			return -1;
+		}
+		int invalid = 0;
+		for (int i = 0; i < DIGIT_POSITIONS.length; i++) {
+			invalid |= Hex.digit(text.charAt(start + DIGIT_POSITIONS[i]));
+		}
+		return invalid < 0 ? -1 : start;
 	}
 	
 	/**
@@ -198,20 +239,199 @@ public class UUID implements Constants, Serializable, Comparable {
 	public String toString() {
 		//set string value if not set
 		if (stringValue == null) {
-			StringBuffer buf = new StringBuffer(new String(Hex.encodeHex(rawBytes)));
-			while (buf.length() != UUID_UNFORMATTED_LENGTH) {
-				buf.insert(0, "0");
-			}
-			buf.ensureCapacity(UUID_FORMATTED_LENGTH);
-			buf.insert(FORMAT_POSITION1, '-');
-			buf.insert(FORMAT_POSITION2, '-');
-			buf.insert(FORMAT_POSITION3, '-');
-			buf.insert(FORMAT_POSITION4, '-');
-			stringValue = buf.toString();
+			char[] chars = new char[UUID_FORMATTED_LENGTH];
+			UUIDCodec.encodeHex(getMostSignificantBits(), getLeastSignificantBits(), chars, 0);
+			stringValue = new String(chars);
 		}
 		return stringValue;
 	}
 	
+	/**
+	 * <p>Returns the URL safe Base64 representation of the UUID.</p>
+	 *
+	 * @return the 22 character Base64 representation of the UUID.
+	 * @see UUIDCodec
+	 */
+	public String toBase64String() {
+		char[] chars = new char[UUID_BASE64_LENGTH];
+		formatBase64To(chars, 0);
+		return new String(chars);
+	}
+	
+	/**
+	 * <p>Writes the URL safe Base64 representation of the UUID into a char array.</p>
+	 *
+	 * @param dst the array to write the 22 characters to.
+	 * @param off the index of the first character to write.
+	 * @return the index after the last character written.
+	 * @see UUIDCodec
+	 */
+	public int formatBase64To(char[] dst, int off) {
+		return UUIDCodec.encodeBase64(getMostSignificantBits(), getLeastSignificantBits(), dst, off);
+	}
+	
+	/**
+	 * <p>Appends the URL safe Base64 representation of the UUID to a buffer.</p>
+	 *
+	 * @param buffer the buffer to append the 22 characters to.
+	 * @return the buffer.
+	 * @see UUIDCodec
+	 */
+	public StringBuilder formatBase64To(StringBuilder buffer) {
+		char[] chars = new char[UUID_BASE64_LENGTH];
+		formatBase64To(chars, 0);
+		return buffer.append(chars);
+	}
+	
+	/**
+	 * <p>Parses the URL safe Base64 representation of a UUID.</p>
+	 *
+	 * @param text the 22 character representation.
+	 * @return the UUID.
+	 * @throws UUIDFormatException if the text is not a valid representation.
+	 * @see UUIDCodec
+	 */
+	public static UUID parseBase64(CharSequence text) throws UUIDFormatException {
+		if (text.length() != UUID_BASE64_LENGTH) {
+			throw new UUIDFormatException(text.toString());
+		}
+		return parseBase64(text, 0);
+	}
+	
+	/**
+	 * <p>Parses the URL safe Base64 representation of a UUID embedded in a longer text.</p>
+	 *
+	 * @param text the text.
+	 * @param offset the index of the first of the 22 characters.
+	 * @return the UUID.
+	 * @throws UUIDFormatException if the characters are not a valid representation.
+	 * @throws IndexOutOfBoundsException if the text is too short.
+	 * @see UUIDCodec
+	 */
+	public static UUID parseBase64(CharSequence text, int offset) throws UUIDFormatException {
+		UUID uuid = new UUID();
+		UUIDCodec.decodeBase64(text, offset, uuid.rawBytes, 0);
+		return uuid;
+	}
+	
+	/**
+	 * <p>Returns the Crockford Base32 representation of the UUID. The representations
+	 * sort in the unsigned order of the UUID bytes.</p>
+	 *
+	 * @return the 26 character Base32 representation of the UUID.
+	 * @see UUIDCodec
+	 */
+	public String toBase32String() {
+		char[] chars = new char[UUID_BASE32_LENGTH];
+		formatBase32To(chars, 0);
+		return new String(chars);
+	}
+	
+	/**
+	 * <p>Writes the Crockford Base32 representation of the UUID into a char array.</p>
+	 *
+	 * @param dst the array to write the 26 characters to.
+	 * @param off the index of the first character to write.
+	 * @return the index after the last character written.
+	 * @see UUIDCodec
+	 */
+	public int formatBase32To(char[] dst, int off) {
+		return UUIDCodec.encodeBase32(getMostSignificantBits(), getLeastSignificantBits(), dst, off);
+	}
+	
+	/**
+	 * <p>Appends the Crockford Base32 representation of the UUID to a buffer.</p>
+	 *
+	 * @param buffer the buffer to append the 26 characters to.
+	 * @return the buffer.
+	 * @see UUIDCodec
+	 */
+	public StringBuilder formatBase32To(StringBuilder buffer) {
+		char[] chars = new char[UUID_BASE32_LENGTH];
+		formatBase32To(chars, 0);
+		return buffer.append(chars);
+	}
+	
+	/**
+	 * <p>Parses the Crockford Base32 representation of a UUID.</p>
+	 *
+	 * @param text the 26 character representation.
+	 * @return the UUID.
+	 * @throws UUIDFormatException if the text is not a valid representation.
+	 * @see UUIDCodec
+	 */
+	public static UUID parseBase32(CharSequence text) throws UUIDFormatException {
+		if (text.length() != UUID_BASE32_LENGTH) {
+			throw new UUIDFormatException(text.toString());
+		}
+		return parseBase32(text, 0);
+	}
+	
+	/**
+	 * <p>Parses the Crockford Base32 representation of a UUID embedded in a longer text.</p>
+	 *
+	 * @param text the text.
+	 * @param offset the index of the first of the 26 characters.
+	 * @return the UUID.
+	 * @throws UUIDFormatException if the characters are not a valid representation.
+	 * @throws IndexOutOfBoundsException if the text is too short.
+	 * @see UUIDCodec
+	 */
+	public static UUID parseBase32(CharSequence text, int offset) throws UUIDFormatException {
+		UUID uuid = new UUID();
+		UUIDCodec.decodeBase32(text, offset, uuid.rawBytes, 0);
+		return uuid;
+	}
+	
+	/**
+	 * <p>Writes the 16 bytes of the UUID into a byte array.</p>
+	 *
+	 * @param dst the array to write to.
+	 * @param off the index of the first byte to write.
+	 * @return the index after the last byte written.
+	 */
+	public int writeTo(byte[] dst, int off) {
+		System.arraycopy(rawBytes, 0, dst, off, UUID_BYTE_LENGTH);
+		return off + UUID_BYTE_LENGTH;
+	}
+	
+	/**
+	 * <p>Writes the 16 bytes of the UUID into a buffer at its current position.</p>
+	 *
+	 * @param dst the buffer to write to.
+	 * @throws java.nio.BufferOverflowException if less than 16 bytes remain in the buffer.
+	 */
+	public void writeTo(ByteBuffer dst) {
+		dst.put(rawBytes);
+	}
+	
+	/**
+	 * <p>Reads a UUID from 16 bytes of an array.</p>
+	 *
+	 * @param src the array to read from.
+	 * @param off the index of the first byte.
+	 * @return the UUID.
+	 * @throws IndexOutOfBoundsException if less than 16 bytes are available.
+	 */
+	public static UUID fromBytes(byte[] src, int off) {
+		UUID uuid = new UUID();
+		System.arraycopy(src, off, uuid.rawBytes, 0, UUID_BYTE_LENGTH);
+		return uuid;
+	}
+	
+	/**
+	 * <p>Reads a UUID from the next 16 bytes of a buffer.</p>
+	 *
+	 * @param src the buffer to read from.
+	 * @return the UUID.
+	 * @throws java.nio.BufferUnderflowException if less than 16 bytes remain in the buffer.
+	 */
+	public static UUID fromBytes(ByteBuffer src) {
+		UUID uuid = new UUID();
+		src.get(uuid.rawBytes);
+		return uuid;
+	}
+	
 	/**
 	 * <p>Returns a urn representation of the UUID. This is same as the
 	 * toString() value prefixed with <code>urn:uuid:</code></p>
@@ -232,25 +452,41 @@ public class UUID implements Constants, Serializable, Comparable {
 		if (!(obj instanceof UUID)) {
 			return false;
 		}
-		return Bytes.areEqual( ((UUID) obj).getRawBytes(), rawBytes);
+		return Bytes.areEqual( ((UUID) obj).rawBytes, rawBytes);
 	}
 	
 	/**
 	 * <p>Returns a hash code value for the object.</p>
 	 *
 	 * @see java.lang.Object#hashCode()
+	 * @see #hashCode(long, long)
 	 */
 	public int hashCode() {
-		int iConstant = 37;
-		int iTotal = 17;
-		for (int i = 0; i < rawBytes.length; i++) {
-			iTotal = iTotal * iConstant + rawBytes[i];
-		}
-		return iTotal;
+		return hashCode(getMostSignificantBits(), getLeastSignificantBits());
+	}
+	
+	/**
+	 * <p>Returns the hash code of a UUID given by its most and least significant bits.</p>
+	 *
+	 * <p>The halves are combined and passed through the 64 bit finaliser of
+	 * MurmurHash3, so that UUIDs differing in a few bits of either half, such as
+	 * time based UUIDs with slowly changing high bytes, are evenly distributed
+	 * over all bits of the hash.</p>
+	 *
+	 * @param msb the most significant 64 bits of the UUID.
+	 * @param lsb the least significant 64 bits of the UUID.
+	 * @return the hash code of the UUID.
+	 */
+	public static int hashCode(long msb, long lsb) {
+		long h = msb * 0x9e3779b97f4a7c15L + lsb;
+		h = (h ^ h >>> 33) * 0xff51afd7ed558ccdL;
+		h = (h ^ h >>> 33) * 0xc4ceb9fe1a85ec53L;
+		return (int) (h ^ h >>> 33);
 	}
 	
 	/**
-	 * <p>Compares two UUID's for equality.</p>
+	 * <p>Compares two UUID's by their 128 bit values as unsigned numbers, which
+	 * is the order of their unsigned bytes.</p>
 	 *
 	 * @see Comparable#compareTo(Object)
 	 */
@@ -258,7 +494,25 @@ public class UUID implements Constants, Serializable, Comparable {
 		if (!(compareTo instanceof UUID)) {
 			throw new ClassCastException();
 		}
-		return (Bytes.compareTo(rawBytes, ((UUID) compareTo).getRawBytes()));
+		UUID other = (UUID) compareTo;
+		return compare(getMostSignificantBits(), getLeastSignificantBits(),
+			other.getMostSignificantBits(), other.getLeastSignificantBits());
+	}
+	
+	/**
+	 * <p>Compares two UUIDs given by their most and least significant bits in
+	 * the order of {@link #compareTo(Object)}.</p>
+	 *
+	 * @param msb1 the most significant 64 bits of the first UUID.
+	 * @param lsb1 the least significant 64 bits of the first UUID.
+	 * @param msb2 the most significant 64 bits of the second UUID.
+	 * @param lsb2 the least significant 64 bits of the second UUID.
+	 * @return a negative integer, zero, or a positive integer as the first UUID
+	 *  is less than, equal to, or greater than the second.
+	 */
+	public static int compare(long msb1, long lsb1, long msb2, long lsb2) {
+		int cmp = Long.compareUnsigned(msb1, msb2);
+		return cmp != 0 ? cmp : Long.compareUnsigned(lsb1, lsb2);
 	}
 	
 	/**
@@ -273,11 +527,7 @@ public class UUID implements Constants, Serializable, Comparable {
 		if (variant() != VARIANT_IETF_DRAFT || version() != VERSION_ONE) {
 			throw new UnsupportedOperationException(WRONG_VAR_VER_MSG);
 		}
-		if (clockSq == null) {
-			byte[] b = {((byte) (rawBytes[8] & 0x3F)), rawBytes[9]};
-			clockSq = new Short(Bytes.toShort(b));
-		}
-		return clockSq.intValue();
+		return clockSequenceOf(getLeastSignificantBits());
 	}
 	
 	/**
@@ -335,12 +585,7 @@ public class UUID implements Constants, Serializable, Comparable {
 		if (variant() != VARIANT_IETF_DRAFT || version() != VERSION_ONE) {
 			throw new UnsupportedOperationException(WRONG_VAR_VER_MSG);
 		}
-		if (node == null) {
-			byte[] b = new byte[8];
-			System.arraycopy(rawBytes, 10, b, 2, 6);
-			node = new Long((Bytes.toLong(b) & 0xFFFFFFFFFFFFL));
-		}
-		return node.longValue();
+		return nodeOf(getLeastSignificantBits());
 	}
 	
 	/**
@@ -356,25 +601,157 @@ public class UUID implements Constants, Serializable, Comparable {
 			throw new UnsupportedOperationException(WRONG_VAR_VER_MSG);
 		}
 		if (timestamp == -1) {
-			byte[] longVal = new byte[8];
-			System.arraycopy(rawBytes, TIME_HI_START_POS, longVal, TIME_HI_TS_POS, TIME_HI_BYTE_LEN);
-			System.arraycopy(rawBytes, TIME_MID_START_POS, longVal, TIME_MID_TS_POS, TIME_MID_BYTE_LEN);
-			System.arraycopy(rawBytes, TIME_LOW_START_POS, longVal, TIME_LOW_TS_POS, TIME_LOW_BYTE_LEN);
-			longVal[TIME_HI_TS_POS] &= 0x0F;
-			timestamp = Bytes.toLong(longVal);
+			timestamp = timestampOf(getMostSignificantBits());
 		}
 		return timestamp;
 	}
 	
 	/**
-	 * <p>Returns the least significant bits stored in the uuid's internal structure.</p>
+	 * <p>Decodes the 60 bit timestamp of a time-based UUID from its most significant bits.</p>
 	 *
-	 * @return the least significant bits stored in the uuid's internal structure.
+	 * <p>This and the other static decoders neither allocate nor check the version and
+	 * variant, use {@link #versionOf(long)} and {@link #variantOf(long)} for that.</p>
+	 *
+	 * @param msb the most significant 64 bits of the UUID.
+	 * @return the timestamp as 100-nano second intervals since the Gregorian change offset.
+	 * @see #timestamp()
+	 */
+	public static long timestampOf(long msb) {
+		return (msb & 0x0FFFL) << 48 | (msb & 0xFFFF0000L) << 16 | msb >>> 32;
+	}
+	
+	/**
+	 * <p>Decodes the timestamp of a time-based UUID stored in a byte array.</p>
+	 *
+	 * @param src the array holding the 16 bytes of the UUID.
+	 * @param off the index of the first byte of the UUID.
+	 * @return the timestamp as 100-nano second intervals since the Gregorian change offset.
+	 * @see #timestampOf(long)
+	 */
+	public static long timestampOf(byte[] src, int off) {
+		return timestampOf(Bytes.toLong(src, off));
+	}
+	
+	/**
+	 * <p>Decodes the timestamp of a time-based UUID stored in a buffer, regardless
+	 * of the buffer's byte order. The position of the buffer is not changed.</p>
+	 *
+	 * @param src the buffer holding the 16 bytes of the UUID.
+	 * @param index the index of the first byte of the UUID.
+	 * @return the timestamp as 100-nano second intervals since the Gregorian change offset.
+	 * @see #timestampOf(long)
+	 */
+	public static long timestampOf(ByteBuffer src, int index) {
+		return timestampOf(getLong(src, index));
+	}
+	
+	/**
+	 * <p>Decodes the 14 bit clock sequence of a time-based UUID from its least significant bits.</p>
+	 *
+	 * @param lsb the least significant 64 bits of the UUID.
+	 * @return the clock sequence.
+	 * @see #clockSequence()
+	 */
+	public static int clockSequenceOf(long lsb) {
+		return (int) (lsb >>> 48) & 0x3FFF;
+	}
+	
+	/**
+	 * <p>Decodes the clock sequence of a time-based UUID stored in a byte array.</p>
+	 *
+	 * @param src the array holding the 16 bytes of the UUID.
+	 * @param off the index of the first byte of the UUID.
+	 * @return the clock sequence.
+	 */
+	public static int clockSequenceOf(byte[] src, int off) {
+		return (src[off + 8] & 0x3F) << 8 | src[off + 9] & 0xFF;
+	}
+	
+	/**
+	 * <p>Decodes the clock sequence of a time-based UUID stored in a buffer. The position
+	 * of the buffer is not changed.</p>
+	 *
+	 * @param src the buffer holding the 16 bytes of the UUID.
+	 * @param index the index of the first byte of the UUID.
+	 * @return the clock sequence.
+	 */
+	public static int clockSequenceOf(ByteBuffer src, int index) {
+		return (src.get(index + 8) & 0x3F) << 8 | src.get(index + 9) & 0xFF;
+	}
+	
+	/**
+	 * <p>Decodes the 48 bit node of a time-based UUID from its least significant bits.</p>
+	 *
+	 * @param lsb the least significant 64 bits of the UUID.
+	 * @return the node.
+	 * @see #node()
+	 */
+	public static long nodeOf(long lsb) {
+		return lsb & 0xFFFFFFFFFFFFL;
+	}
+	
+	/**
+	 * <p>Decodes the node of a time-based UUID stored in a byte array.</p>
+	 *
+	 * @param src the array holding the 16 bytes of the UUID.
+	 * @param off the index of the first byte of the UUID.
+	 * @return the node.
+	 */
+	public static long nodeOf(byte[] src, int off) {
+		return nodeOf(Bytes.toLong(src, off + 8));
+	}
+	
+	/**
+	 * <p>Decodes the node of a time-based UUID stored in a buffer, regardless of the
+	 * buffer's byte order. The position of the buffer is not changed.</p>
+	 *
+	 * @param src the buffer holding the 16 bytes of the UUID.
+	 * @param index the index of the first byte of the UUID.
+	 * @return the node.
+	 */
+	public static long nodeOf(ByteBuffer src, int index) {
+		return nodeOf(getLong(src, index + 8));
+	}
+	
+	/**
+	 * <p>Decodes the version of a UUID from its most significant bits.</p>
+	 *
+	 * @param msb the most significant 64 bits of the UUID.
+	 * @return the version.
+	 * @see #version()
+	 */
+	public static int versionOf(long msb) {
+		return (int) (msb >>> 12) & 0x0F;
+	}
+	
+	/**
+	 * <p>Decodes the variant of a UUID from its least significant bits.</p>
+	 *
+	 * @param lsb the least significant 64 bits of the UUID.
+	 * @return the variant.
+	 * @see #variant()
+	 */
+	public static int variantOf(long lsb) {
+		if (lsb >= 0) {
+			return VARIANT_NCS_COMPAT;
+		} else if ((lsb & 0x4000000000000000L) == 0) {
+			return VARIANT_IETF_DRAFT;
+		} else if ((lsb & 0x2000000000000000L) == 0) {
+			return VARIANT_MS;
+		}
+		return VARIANT_FUTURE;
+	}
+	
+	/**
+	 * <p>Reads 8 bytes of a buffer in big-endian order.</p>
+	 *
+	 * @param src the buffer.
+	 * @param index the index of the most significant byte.
+	 * @return the long value.
 	 */
-	long getLeastSignificantBits()  {
-		byte[] lsb = new byte[8];
-		System.arraycopy(rawBytes, 8, lsb, 0, 8);
-		return Bytes.toLong(lsb);
+	private static long getLong(ByteBuffer src, int index) {
+		long value = src.getLong(index);
+		return src.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
 	}
 	
 	/**
@@ -382,10 +759,36 @@ public class UUID implements Constants, Serializable, Comparable {
 	 *
 	 * @return the least significant bits stored in the uuid's internal structure.
 	 */
-	long getMostSignificantBits()  {
-		byte[] msb = new byte[8];
-		System.arraycopy(rawBytes, 0, msb, 0, 8);
-		return Bytes.toLong(msb);
+	public long getLeastSignificantBits()  {
+		return Bytes.toLong(rawBytes, 8);
+	}
+	
+	/**
+	 * <p>Returns the most significant bits stored in the uuid's internal structure.</p>
+	 *
+	 * @return the most significant bits stored in the uuid's internal structure.
+	 */
+	public long getMostSignificantBits()  {
+		return Bytes.toLong(rawBytes, 0);
+	}
+	
+	/**
+	 * <p>Returns a <code>java.util.UUID</code> with the same 128 bit value.</p>
+	 *
+	 * @return the equivalent <code>java.util.UUID</code>.
+	 */
+	public java.util.UUID toJavaUUID() {
+		return new java.util.UUID(getMostSignificantBits(), getLeastSignificantBits());
+	}
+	
+	/**
+	 * <p>Returns a UUID with the same 128 bit value as a <code>java.util.UUID</code>.</p>
+	 *
+	 * @param uuid the <code>java.util.UUID</code> to convert.
+	 * @return the equivalent UUID.
+	 */
+	public static UUID fromJavaUUID(java.util.UUID uuid) {
+		return new UUID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
 	}
 	
 	/**
@@ -417,6 +820,51 @@ public class UUID implements Constants, Serializable, Comparable {
 		return VersionOneGenerator.getInstance().nextUUID();
 	}
 	
+	/**
+	 * <p>Returns the smallest version 1 UUID with the given timestamp in the order of a
+	 * {@link TimeBasedUUIDComparator}. The clock sequence and node are zero.</p>
+	 *
+	 * <p>Together with {@link #maxForTimestamp(long)} this gives inclusive bounds for
+	 * scanning a time range of a sorted map keyed by time-based UUIDs.</p>
+	 *
+	 * @param timestamp 100-nano second intervals since the Gregorian change offset.
+	 * @return the lower bound UUID for the timestamp.
+	 * @throws IllegalArgumentException if the timestamp does not fit in 60 bits.
+	 */
+	public static UUID minForTimestamp(long timestamp) {
+		return new UUID(timeBasedMsb(timestamp), 0x8000000000000000L);
+	}
+	
+	/**
+	 * <p>Returns the largest version 1 UUID with the given timestamp in the order of a
+	 * {@link TimeBasedUUIDComparator}. All bits of the clock sequence and node are set.</p>
+	 *
+	 * @param timestamp 100-nano second intervals since the Gregorian change offset.
+	 * @return the upper bound UUID for the timestamp.
+	 * @throws IllegalArgumentException if the timestamp does not fit in 60 bits.
+	 * @see #minForTimestamp(long)
+	 */
+	public static UUID maxForTimestamp(long timestamp) {
+		return new UUID(timeBasedMsb(timestamp), 0xBFFFFFFFFFFFFFFFL);
+	}
+	
+	/**
+	 * <p>Lays out a timestamp in the most significant bits of a version 1 UUID.</p>
+	 *
+	 * @param timestamp the 60 bit timestamp.
+	 * @return the most significant bits.
+	 * @throws IllegalArgumentException if the timestamp does not fit in 60 bits.
+	 */
+	private static long timeBasedMsb(long timestamp) {
+		if (timestamp < 0 || timestamp >>> 60 != 0) {
+			throw new IllegalArgumentException("Timestamp must be a positive 60 bit value: " + timestamp);
+		}
+		return timestamp << 32
+			| (timestamp >>> 16 & 0xFFFF0000L)
+			| 0x1000L
+			| timestamp >>> 48;
+	}
+	
 	/**
 	 * <p>Returns a new version three (MD5) or five (SHA-1) UUID, using the specified encoding
 	 *  given a name and the namespace's UUID.</p>
@@ -427,9 +875,36 @@ public class UUID implements Constants, Serializable, Comparable {
 	 * @return a new version three UUID given a name and the namespace's UUID.
 	 */
 	public static UUID nameUUIDFromString(String name, UUID namespace, String encoding) {
+		return new UUID(nameBytes(name, namespace, encoding));
+	}
+	
+	/**
+	 * <p>Passes a new version three (MD5) or five (SHA-1) UUID to a sink instead of creating
+	 * a <code>UUID</code> instance.</p>
+	 *
+	 * @param name String the name to calculate the UUID for.
+	 * @param namespace UUID assigned to this namespace.
+	 * @param encoding The encoding to use, either #{link UUID.MD5_ENCODING} or #{link UUID.SHA1_ENCODING}
+	 * @param sink the sink receiving the UUID, for example a {@link MutableUUID}.
+	 * @see #nameUUIDFromString(String, UUID, String)
+	 */
+	public static void nameUUIDFromString(String name, UUID namespace, String encoding, UUIDSink sink) {
+		byte[] raw = nameBytes(name, namespace, encoding);
+		sink.accept(Bytes.toLong(raw, 0), Bytes.toLong(raw, 8));
+	}
+	
+	/**
+	 * <p>Computes the bytes of a version three or five UUID.</p>
+	 *
+	 * @param name String the name to calculate the UUID for.
+	 * @param namespace UUID assigned to this namespace.
+	 * @param encoding The encoding to use, either #{link UUID.MD5_ENCODING} or #{link UUID.SHA1_ENCODING}
+	 * @return the 16 bytes of the UUID.
+	 */
+	private static byte[] nameBytes(String name, UUID namespace, String encoding) {
 		byte[] nameAsBytes = name.getBytes();
 		byte[] concat = new byte[UUID_BYTE_LENGTH + nameAsBytes.length];
-		System.arraycopy(namespace.getRawBytes(), 0, concat, 0, UUID_BYTE_LENGTH);
+		System.arraycopy(namespace.rawBytes, 0, concat, 0, UUID_BYTE_LENGTH);
 		System.arraycopy(nameAsBytes, 0, concat, UUID_BYTE_LENGTH, nameAsBytes.length);
 		
 		byte[] raw = null;
@@ -460,7 +935,7 @@ public class UUID implements Constants, Serializable, Comparable {
 		raw[CLOCK_SEQ_HI_AND_RESERVED_BYTE_8] &= 0x3F; //0011 1111
 		raw[CLOCK_SEQ_HI_AND_RESERVED_BYTE_8] |= 0x80; //1000 0000
 		
-		return new UUID(raw);
+		return raw;
 	}
 	
 	/**
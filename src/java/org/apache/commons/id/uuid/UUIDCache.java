@@ -0,0 +1,513 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>A bounded cache of parsed UUIDs, keyed by their string representation.</p>
+ *
+ * <p>{@link #fromString(String)} returns the same canonical <code>UUID</code>
+ * instance for a recently parsed string, with its string representation
+ * already formatted. Strings that are not in the cache are parsed with
+ * {@link UUID#fromString(String)} and may replace another entry.</p>
+ *
+ * <p>The cache is a set associative table of {@value #WAYS} entries per set.
+ * The set is selected by the hash of the string, so lookups inspect at most
+ * {@value #WAYS} slots and never block. Entries are replaced with a
+ * compare-and-set; concurrent misses for the same string may therefore parse
+ * it more than once, and only one of the instances stays cached.</p>
+ *
+ * <p>The {@link Policy} selects the entry that is replaced in a full set:</p>
+ * <ul>
+ *   <li>{@link Policy#CLOCK} gives every entry that was hit since the last
+ *   sweep a second chance and replaces the first entry without hit.</li>
+ *   <li>{@link Policy#FREQUENCY} estimates the access frequency of all
+ *   strings with a small, periodically aged count-min sketch. A new string
+ *   is only admitted if it was requested more often than the least frequent
+ *   entry of its set, so a scan of one-off strings does not flush the hot
+ *   entries.</li>
+ * </ul>
+ *
+ * <p>With the {@link Policy#FREQUENCY} policy a lookup does not write the
+ * shared sketch. It appends the string hash to one of several lossy buffers,
+ * selected by the calling thread. Whichever thread fills a buffer or misses
+ * the cache tries to acquire the sketch and, if it succeeds, drains all
+ * buffers into it and ages it. Accesses that find their buffer full while
+ * another thread drains are dropped.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class UUIDCache {
+
+    /** The number of entries per set. */
+    public static final int WAYS = 4;
+
+    /** Maximum value of a frequency counter. */
+    private static final int MAX_FREQUENCY = 15;
+
+    /** Counters per slot in the frequency sketch. */
+    private static final int SKETCH_WIDTH = 16;
+
+    /** Maximum number of counters in the frequency sketch. */
+    private static final int MAX_SKETCH_SIZE = 1 << 26;
+
+    /** Number of string hashes an access buffer holds. */
+    private static final int BUFFER_SIZE = 16;
+
+    /** Maximum number of access buffers. */
+    private static final int MAX_BUFFERS = 64;
+
+    /** The slots, consecutive groups of {@link #WAYS} form a set. */
+    private final AtomicReferenceArray slots;
+
+    /** Mask to select the first slot of a set from a hash. */
+    private final int setMask;
+
+    /** The eviction policy. */
+    private final Policy policy;
+
+    /** The frequency sketch, <code>null</code> unless the policy is {@link Policy#FREQUENCY}. */
+    private final byte[] sketch;
+
+    /** Number of sketch increments after which all counters are halved. */
+    private final int sampleSize;
+
+    /** Sketch increments since the counters were last halved, guarded by {@link #sketchLock}. */
+    private int samples;
+
+    /** The access buffers, <code>null</code> unless the policy is {@link Policy#FREQUENCY}. */
+    private final AccessBuffer[] buffers;
+
+    /** Held by the thread that drains the buffers into the sketch. */
+    private final ReentrantLock sketchLock = new ReentrantLock();
+
+    /** Number of lookups answered from the cache. */
+    private final LongAdder hits = new LongAdder();
+
+    /** Number of lookups that had to parse the string. */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache with the {@link Policy#CLOCK} policy.
+     *
+     * @param capacity the maximum number of cached UUIDs, rounded up to a power of two
+     * @throws IllegalArgumentException if <code>capacity</code> is not positive
+     */
+    public UUIDCache(int capacity) {
+        this(capacity, Policy.CLOCK);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param capacity the maximum number of cached UUIDs, rounded up to a power of two
+     * @param policy the eviction policy
+     * @throws IllegalArgumentException if <code>capacity</code> is not positive or
+     *             larger than 2^30 or if <code>policy</code> is <code>null</code>
+     */
+    public UUIDCache(int capacity, Policy policy) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy must not be null");
+        }
+        int size = WAYS;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray(size);
+        this.setMask = size - WAYS;
+        this.policy = policy;
+        if (policy == Policy.FREQUENCY) {
+            this.sketch = new byte[Math.min(size * SKETCH_WIDTH, MAX_SKETCH_SIZE)];
+            this.sampleSize = size * 10;
+            int count = 1;
+            while (count < Math.min(Runtime.getRuntime().availableProcessors(), MAX_BUFFERS)) {
+                count <<= 1;
+            }
+            this.buffers = new AccessBuffer[count];
+            for (int i = 0; i < count; i++) {
+                buffers[i] = new AccessBuffer();
+            }
+        } else {
+            this.sketch = null;
+            this.sampleSize = 0;
+            this.buffers = null;
+        }
+    }
+
+    /**
+     * Returns the UUID for a string, parsing it only if it is not cached.
+     *
+     * @param text the UUID formatted string
+     * @return the canonical UUID instance for the string
+     * @throws UUIDFormatException if the string is not a properly formatted UUID
+     * @see UUID#fromString(String)
+     */
+    public UUID fromString(String text) throws UUIDFormatException {
+        final int hash = spread(text.hashCode());
+        final int set = hash & setMask;
+        if (sketch != null) {
+            record(hash);
+        }
+        for (int i = set; i < set + WAYS; i++) {
+            final Entry entry = (Entry) slots.get(i);
+            if (entry != null && entry.hash == hash && entry.text.equals(text)) {
+                if (!entry.referenced) {
+                    entry.referenced = true;
+                }
+                hits.increment();
+                return entry.uuid;
+            }
+        }
+        misses.increment();
+        final UUID uuid = UUID.fromString(text);
+        if (sketch != null) {
+            // the admission compares frequencies, bring the sketch up to date
+            tryDrain();
+        }
+        uuid.toString(); // format once, the cached instance is shared
+        admit(new Entry(text, hash, uuid), set);
+        return uuid;
+    }
+
+    /**
+     * Stores a new entry in its set if the policy admits it.
+     *
+     * @param entry the new entry
+     * @param set the index of the first slot of the set
+     */
+    private void admit(Entry entry, int set) {
+        for (int i = set; i < set + WAYS; i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, entry)) {
+                return;
+            }
+        }
+        final int start = ThreadLocalRandom.current().nextInt(WAYS);
+        int victim = set + start;
+        if (sketch == null) {
+            // second chance: clear the reference bits until an unreferenced entry is found
+            for (int n = 0; n < WAYS; n++) {
+                final int i = set + (start + n) % WAYS;
+                final Entry candidate = (Entry) slots.get(i);
+                if (candidate == null || !candidate.referenced) {
+                    victim = i;
+                    break;
+                }
+                candidate.referenced = false;
+            }
+        } else {
+            int lowest = Integer.MAX_VALUE;
+            for (int n = 0; n < WAYS; n++) {
+                final int i = set + (start + n) % WAYS;
+                final Entry candidate = (Entry) slots.get(i);
+                final int frequency = candidate == null ? -1 : frequency(candidate.hash);
+                if (frequency < lowest) {
+                    lowest = frequency;
+                    victim = i;
+                }
+            }
+            if (frequency(entry.hash) <= lowest) {
+                return;
+            }
+        }
+        slots.lazySet(victim, entry);
+    }
+
+    /**
+     * Records an access in the buffer of the calling thread and drains the
+     * buffers if it is full.
+     *
+     * @param hash the spread hash of the string
+     */
+    private void record(int hash) {
+        final int probe = spread((int) Thread.currentThread().getId());
+        final AccessBuffer buffer = buffers[probe & (buffers.length - 1)];
+        if (!buffer.offer(hash)) {
+            tryDrain();
+        }
+    }
+
+    /**
+     * Drains all buffers into the sketch unless another thread is doing so.
+     */
+    private void tryDrain() {
+        if (sketchLock.tryLock()) {
+            try {
+                for (int i = 0; i < buffers.length; i++) {
+                    buffers[i].drainTo(this);
+                }
+            } finally {
+                sketchLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Counts an access in the frequency sketch, the caller holds the
+     * {@link #sketchLock}.
+     *
+     * @param hash the spread hash of the string
+     */
+    private void increment(int hash) {
+        final int mask = sketch.length - 1;
+        for (int i = 0; i < 4; i++) {
+            final int index = rehash(hash, i) & mask;
+            if (sketch[index] < MAX_FREQUENCY) {
+                sketch[index]++;
+            }
+        }
+        if (++samples >= sampleSize) {
+            samples = 0;
+            for (int i = 0; i < sketch.length; i++) {
+                sketch[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Estimates the access frequency of a string.
+     *
+     * @param hash the spread hash of the string
+     * @return the smallest of the string's counters
+     */
+    private int frequency(int hash) {
+        final int mask = sketch.length - 1;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            frequency = Math.min(frequency, sketch[rehash(hash, i) & mask]);
+        }
+        return frequency;
+    }
+
+    /**
+     * Spreads the bits of a string hash, so that similar strings fall into different sets.
+     *
+     * @param hash the string hash
+     * @return the spread hash
+     */
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        return hash ^ hash >>> 13;
+    }
+
+    /**
+     * Derives the hash for one row of the frequency sketch.
+     *
+     * @param hash the spread hash
+     * @param row the row
+     * @return the hash for the row
+     */
+    private static int rehash(int hash, int row) {
+        final int h = (hash + row) * 0x9e3779b9;
+        return h ^ h >>> 16;
+    }
+
+    /**
+     * Returns the maximum number of cached UUIDs.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Returns the eviction policy.
+     *
+     * @return the policy
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of lookups that were answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that parsed the string.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the ratio of hits to all lookups.
+     *
+     * @return the hit rate, 0 if there were no lookups
+     */
+    public double getHitRate() {
+        final long hitCount = hits.sum();
+        final long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        if (sketch != null) {
+            sketchLock.lock();
+            try {
+                for (int i = 0; i < buffers.length; i++) {
+                    buffers[i].discard();
+                }
+                for (int i = 0; i < sketch.length; i++) {
+                    sketch[i] = 0;
+                }
+                samples = 0;
+            } finally {
+                sketchLock.unlock();
+            }
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * A cached string and its UUID.
+     */
+    private static final class Entry {
+
+        /** The string. */
+        final String text;
+
+        /** The spread hash of the string. */
+        final int hash;
+
+        /** The canonical UUID. */
+        final UUID uuid;
+
+        /** Set on a hit, cleared by the {@link Policy#CLOCK} sweep. Races are benign. */
+        boolean referenced;
+
+        /**
+         * Constructor.
+         *
+         * @param text the string
+         * @param hash the spread hash of the string
+         * @param uuid the UUID
+         */
+        Entry(String text, int hash, UUID uuid) {
+            this.text = text;
+            this.hash = hash;
+            this.uuid = uuid;
+        }
+    }
+
+    /**
+     * A lossy buffer of string hashes, written by any thread and drained by
+     * the thread holding the {@link UUIDCache#sketchLock}.
+     */
+    private static final class AccessBuffer {
+
+        /** The hashes, indexed by the positions modulo {@link #BUFFER_SIZE}. */
+        private final int[] hashes = new int[BUFFER_SIZE];
+
+        /** The number of hashes ever written. */
+        private final AtomicInteger writes = new AtomicInteger();
+
+        /** The number of hashes ever drained. */
+        private volatile int reads;
+
+        /**
+         * Adds a hash unless the buffer is full. A concurrent drain may read
+         * the slot before the hash is stored and count a stale hash, which
+         * only makes the sketch less precise.
+         *
+         * @param hash the hash
+         * @return <code>false</code> if the buffer is full
+         */
+        boolean offer(int hash) {
+            final int position = writes.get();
+            if (position - reads >= BUFFER_SIZE) {
+                return false;
+            }
+            if (writes.compareAndSet(position, position + 1)) {
+                hashes[position & (BUFFER_SIZE - 1)] = hash;
+            }
+            return true;
+        }
+
+        /**
+         * Counts the buffered hashes in the sketch of a cache.
+         *
+         * @param cache the cache, whose sketch lock the caller holds
+         */
+        void drainTo(UUIDCache cache) {
+            final int end = writes.get();
+            for (int position = reads; position != end; position++) {
+                cache.increment(hashes[position & (BUFFER_SIZE - 1)]);
+            }
+            reads = end;
+        }
+
+        /**
+         * Drops the buffered hashes, the caller holds the sketch lock.
+         */
+        void discard() {
+            reads = writes.get();
+        }
+    }
+
+    /**
+     * The eviction policy of a {@link UUIDCache}.
+     */
+    public static final class Policy {
+
+        /** Second chance replacement of entries without recent hits. */
+        public static final Policy CLOCK = new Policy("CLOCK");
+
+        /** Frequency based admission and replacement. */
+        public static final Policy FREQUENCY = new Policy("FREQUENCY");
+
+        /** The name of the policy. */
+        private final String name;
+
+        /**
+         * Constructor.
+         *
+         * @param name the name of the policy
+         */
+        private Policy(String name) {
+            this.name = name;
+        }
+
+        public String toString() {
+            return name;
+        }
+    }
+}
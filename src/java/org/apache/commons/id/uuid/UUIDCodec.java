@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import org.apache.commons.id.Hex;
+
+/**
+ * <p>Compact textual encodings of 128 bit values such as UUIDs.</p>
+ *
+ * <p>Three encodings are supported:</p>
+ * <ul>
+ *   <li>The canonical form of RFC 4122, 36 lower case hexadecimal digits and
+ *   dashes. Encoding only, see {@link UUID#fromString(String)} for parsing.</li>
+ *   <li>URL safe Base64 (RFC 4648, section 5) without padding, 22 characters.
+ *   The output is identical to a Base64 URL encoder applied to the 16 bytes of
+ *   the value.</li>
+ *   <li>Crockford Base32, 26 characters. The 128 bits are left-padded with
+ *   two zero bits, so the first character is in the range '0' to '7'. The
+ *   alphabet is in ascending ASCII order, therefore the encoded strings sort
+ *   like the unsigned values. Decoding is case insensitive and accepts 'I',
+ *   'L' for 1 and 'O' for 0.</li>
+ * </ul>
+ *
+ * <p>Values are encoded from their most and least significant 64 bits into
+ * caller supplied arrays and decoded from any <code>CharSequence</code>
+ * directly into a byte array, so no intermediate objects are created.
+ * Decoding validates the whole input at once and only looks for the
+ * offending character if the input is invalid.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class UUIDCodec implements Constants {
+
+    /** The URL safe Base64 alphabet. */
+    private static final char[] BASE64_DIGITS =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    /** The Crockford Base32 alphabet. */
+    private static final char[] BASE32_DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    /** Digit value for each ASCII character in URL safe Base64, -1 for illegal characters. */
+    private static final byte[] BASE64_VALUES = new byte[128];
+
+    /** Digit value for each ASCII character in Crockford Base32, -1 for illegal characters. */
+    private static final byte[] BASE32_VALUES = new byte[128];
+
+    static {
+        for (int i = 0; i < 128; i++) {
+            BASE64_VALUES[i] = -1;
+            BASE32_VALUES[i] = -1;
+        }
+        for (int i = 0; i < BASE64_DIGITS.length; i++) {
+            BASE64_VALUES[BASE64_DIGITS[i]] = (byte) i;
+        }
+        for (int i = 0; i < BASE32_DIGITS.length; i++) {
+            BASE32_VALUES[BASE32_DIGITS[i]] = (byte) i;
+            BASE32_VALUES[Character.toLowerCase(BASE32_DIGITS[i])] = (byte) i;
+        }
+        BASE32_VALUES['O'] = 0;
+        BASE32_VALUES['o'] = 0;
+        BASE32_VALUES['I'] = 1;
+        BASE32_VALUES['i'] = 1;
+        BASE32_VALUES['L'] = 1;
+        BASE32_VALUES['l'] = 1;
+    }
+
+    /**
+     * <p>Hide constructor in utility class.</p>
+     */
+    private UUIDCodec() {
+    }
+
+    /**
+     * Encodes a 128 bit value in the canonical form of RFC 4122, for example
+     * <code>f81d4fae-7dec-11d0-a765-00a0c91e6bf6</code>.
+     *
+     * @param msb the most significant 64 bits
+     * @param lsb the least significant 64 bits
+     * @param dst the array to write the 36 characters to
+     * @param off the index of the first character to write
+     * @return the index after the last character written
+     */
+    public static int encodeHex(long msb, long lsb, char[] dst, int off) {
+        hex(msb >>> 32, dst, off, 8);
+        dst[off + 8] = '-';
+        hex(msb >>> 16, dst, off + 9, 4);
+        dst[off + 13] = '-';
+        hex(msb, dst, off + 14, 4);
+        dst[off + 18] = '-';
+        hex(lsb >>> 48, dst, off + 19, 4);
+        dst[off + 23] = '-';
+        hex(lsb, dst, off + 24, 12);
+        return off + UUID_FORMATTED_LENGTH;
+    }
+
+    /**
+     * Writes the lowest bits of a value as hexadecimal digits.
+     *
+     * @param value the value
+     * @param dst the array to write to
+     * @param off the index of the first digit
+     * @param digits the number of digits to write
+     */
+    private static void hex(long value, char[] dst, int off, int digits) {
+        for (int i = off + digits - 1; i >= off; i--) {
+            dst[i] = Hex.forDigit((int) value);
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * Encodes a 128 bit value in URL safe Base64 without padding.
+     *
+     * @param msb the most significant 64 bits
+     * @param lsb the least significant 64 bits
+     * @param dst the array to write the 22 characters to
+     * @param off the index of the first character to write
+     * @return the index after the last character written
+     */
+    public static int encodeBase64(long msb, long lsb, char[] dst, int off) {
+        // the 22 digits cover the value followed by 4 zero bits
+        for (int i = 0; i < UUID_BASE64_LENGTH; i++) {
+            dst[off + i] = BASE64_DIGITS[bits(msb, lsb, 122 - 6 * i) & 0x3F];
+        }
+        return off + UUID_BASE64_LENGTH;
+    }
+
+    /**
+     * Decodes 22 URL safe Base64 characters into 16 bytes.
+     *
+     * @param src the characters to decode
+     * @param off the index of the first character
+     * @param dst the array to write the 16 bytes to
+     * @param dstOff the index of the first byte to write
+     * @throws UUIDFormatException if the characters are not a valid encoding
+     * @throws IndexOutOfBoundsException if a range exceeds its sequence or array
+     */
+    public static void decodeBase64(CharSequence src, int off, byte[] dst, int dstOff)
+            throws UUIDFormatException {
+        long msb = 0;
+        long lsb = 0;
+        int invalid = 0;
+        for (int i = 0; i < UUID_BASE64_LENGTH - 1; i++) {
+            final int digit = digit(BASE64_VALUES, src.charAt(off + i));
+            invalid |= digit;
+            msb = msb << 6 | lsb >>> 58;
+            lsb = lsb << 6 | digit;
+        }
+        // the last digit holds 2 bits of the value and 4 bits that must be zero
+        final int last = digit(BASE64_VALUES, src.charAt(off + UUID_BASE64_LENGTH - 1));
+        invalid |= last | -(last & 0x0F);
+        msb = msb << 2 | lsb >>> 62;
+        lsb = lsb << 2 | last >>> 4;
+        if (invalid < 0) {
+            throw invalid(src, off, UUID_BASE64_LENGTH, BASE64_VALUES, "Base64");
+        }
+        Bytes.toBytes(msb, dst, dstOff);
+        Bytes.toBytes(lsb, dst, dstOff + 8);
+    }
+
+    /**
+     * Encodes a 128 bit value in Crockford Base32.
+     *
+     * @param msb the most significant 64 bits
+     * @param lsb the least significant 64 bits
+     * @param dst the array to write the 26 characters to
+     * @param off the index of the first character to write
+     * @return the index after the last character written
+     */
+    public static int encodeBase32(long msb, long lsb, char[] dst, int off) {
+        // the 26 digits cover two zero bits followed by the value
+        for (int i = 0; i < UUID_BASE32_LENGTH; i++) {
+            dst[off + i] = BASE32_DIGITS[bits(msb, lsb, 125 - 5 * i) & 0x1F];
+        }
+        return off + UUID_BASE32_LENGTH;
+    }
+
+    /**
+     * Decodes 26 Crockford Base32 characters into 16 bytes.
+     *
+     * @param src the characters to decode
+     * @param off the index of the first character
+     * @param dst the array to write the 16 bytes to
+     * @param dstOff the index of the first byte to write
+     * @throws UUIDFormatException if the characters are not a valid encoding
+     *  or the value exceeds 128 bits
+     * @throws IndexOutOfBoundsException if a range exceeds its sequence or array
+     */
+    public static void decodeBase32(CharSequence src, int off, byte[] dst, int dstOff)
+            throws UUIDFormatException {
+        decodeBase32(src, off, null, dst, dstOff);
+    }
+
+    /**
+     * Decodes 26 Crockford Base32 characters and passes the 128 bit value to a sink.
+     *
+     * @param src the characters to decode
+     * @param off the index of the first character
+     * @param sink the sink receiving the value
+     * @throws UUIDFormatException if the characters are not a valid encoding
+     *  or the value exceeds 128 bits
+     * @throws IndexOutOfBoundsException if the range exceeds the sequence
+     */
+    public static void decodeBase32(CharSequence src, int off, UUIDSink sink)
+            throws UUIDFormatException {
+        decodeBase32(src, off, sink, null, 0);
+    }
+
+    /**
+     * Decodes 26 Crockford Base32 characters into a sink or a byte array.
+     *
+     * @param src the characters to decode
+     * @param off the index of the first character
+     * @param sink the sink receiving the value, <code>null</code> to write the bytes
+     * @param dst the array to write the 16 bytes to if there is no sink
+     * @param dstOff the index of the first byte to write
+     * @throws UUIDFormatException if the characters are not a valid encoding
+     *  or the value exceeds 128 bits
+     */
+    private static void decodeBase32(CharSequence src, int off, UUIDSink sink, byte[] dst, int dstOff)
+            throws UUIDFormatException {
+        // the first digit holds 3 bits of the value and 2 bits that must be zero
+        final int first = digit(BASE32_VALUES, src.charAt(off));
+        int invalid = first | -(first >>> 3);
+        long msb = 0;
+        long lsb = first;
+        for (int i = 1; i < UUID_BASE32_LENGTH; i++) {
+            final int digit = digit(BASE32_VALUES, src.charAt(off + i));
+            invalid |= digit;
+            msb = msb << 5 | lsb >>> 59;
+            lsb = lsb << 5 | digit;
+        }
+        if (invalid < 0) {
+            throw invalid(src, off, UUID_BASE32_LENGTH, BASE32_VALUES, "Base32");
+        }
+        if (sink != null) {
+            sink.accept(msb, lsb);
+        } else {
+            Bytes.toBytes(msb, dst, dstOff);
+            Bytes.toBytes(lsb, dst, dstOff + 8);
+        }
+    }
+
+    /**
+     * Returns the bits of a 128 bit value shifted right by the given amount.
+     * Negative shifts move the value to the left.
+     *
+     * @param msb the most significant 64 bits
+     * @param lsb the least significant 64 bits
+     * @param shift the number of bits to shift, between -63 and 127
+     * @return the lowest 32 bits of the shifted value
+     */
+    private static int bits(long msb, long lsb, int shift) {
+        if (shift < 0) {
+            return (int) (lsb << -shift);
+        } else if (shift == 0) {
+            return (int) lsb;
+        } else if (shift < 64) {
+            return (int) (lsb >>> shift | msb << (64 - shift));
+        } else {
+            return (int) (msb >>> (shift - 64));
+        }
+    }
+
+    /**
+     * Returns the value of a digit without branching on the input. Any
+     * character outside the ASCII range is mapped to a negative value.
+     *
+     * @param values the digit values of the ASCII characters
+     * @param ch the character
+     * @return the digit value or a negative value if <code>ch</code> is not a digit
+     */
+    private static int digit(byte[] values, char ch) {
+        return values[ch & 0x7F] | -(ch >>> 7);
+    }
+
+    /**
+     * Creates the exception for an invalid encoding, locating the first
+     * illegal character.
+     *
+     * @param src the characters
+     * @param off the index of the first character
+     * @param len the number of characters
+     * @param values the digit values of the ASCII characters
+     * @param name the name of the encoding
+     * @return the exception
+     */
+    private static UUIDFormatException invalid(
+            CharSequence src, int off, int len, byte[] values, String name) {
+        for (int i = off; i < off + len; i++) {
+            if (digit(values, src.charAt(i)) < 0) {
+                return new UUIDFormatException("Illegal " + name + " character "
+                    + src.charAt(i) + " at index " + i);
+            }
+        }
+        return new UUIDFormatException("Non canonical " + name + " encoding "
+            + src.subSequence(off, off + len));
+    }
+}
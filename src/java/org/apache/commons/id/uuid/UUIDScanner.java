@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+import org.apache.commons.id.Hex;
+
+/**
+ * <p>Finds UUIDs in their canonical string representation in a stream of
+ * ASCII compatible bytes, such as log or CSV files.</p>
+ *
+ * <p>A UUID is recognized where 36 bytes follow the layout checked by
+ * {@link UUID#fromString(String)}: hexadecimal digits in either case with
+ * dashes at {@link Constants#FORMAT_POSITION1} to
+ * {@link Constants#FORMAT_POSITION4}. The bytes before and after the UUID
+ * must not be hexadecimal digits or dashes, so parts of longer tokens are
+ * not reported. A {@link Constants#URN_PREFIX} is accepted as it ends with a
+ * colon.</p>
+ *
+ * <p>The UUIDs are decoded in the buffer they were read into and passed to a
+ * {@link UUIDSink} as two 64 bit halves, no objects are created per UUID.
+ * Input can be a <code>ReadableByteChannel</code>, which is read through a
+ * reused direct buffer, a file, which is memory mapped in windows, or a
+ * <code>ByteBuffer</code>.</p>
+ *
+ * <p>A scanner is not thread safe.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class UUIDScanner implements Constants {
+
+    /** The default size of the buffer for reading channels. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** The smallest buffer size. */
+    private static final int MIN_BUFFER_SIZE = 256;
+
+    /** The default size of the windows a file is mapped in. */
+    private static final int DEFAULT_MAP_WINDOW = 1 << 30;
+
+    /** The receiver of the UUIDs. */
+    private final UUIDSink sink;
+
+    /** The size of the buffer for reading channels. */
+    private final int bufferSize;
+
+    /** The size of the windows a file is mapped in. */
+    private final int mapWindow;
+
+    /** The buffer for reading channels, allocated on first use. */
+    private ByteBuffer buffer;
+
+    /**
+     * Creates a scanner with the default buffer size.
+     *
+     * @param sink the receiver of the UUIDs
+     * @throws IllegalArgumentException if <code>sink</code> is <code>null</code>
+     */
+    public UUIDScanner(UUIDSink sink) {
+        this(sink, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a scanner.
+     *
+     * @param sink the receiver of the UUIDs
+     * @param bufferSize the size of the buffer for reading channels, at least 256
+     * @throws IllegalArgumentException if <code>sink</code> is <code>null</code>
+     *  or <code>bufferSize</code> is too small
+     */
+    public UUIDScanner(UUIDSink sink, int bufferSize) {
+        this(sink, bufferSize, DEFAULT_MAP_WINDOW);
+    }
+
+    /**
+     * Creates a scanner with a custom window size for mapped files.
+     *
+     * @param sink the receiver of the UUIDs
+     * @param bufferSize the size of the buffer for reading channels
+     * @param mapWindow the size of the windows a file is mapped in
+     * @throws IllegalArgumentException if an argument is invalid
+     */
+    UUIDScanner(UUIDSink sink, int bufferSize, int mapWindow) {
+        if (sink == null) {
+            throw new IllegalArgumentException("Sink must not be null");
+        }
+        if (bufferSize < MIN_BUFFER_SIZE || mapWindow < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE);
+        }
+        this.sink = sink;
+        this.bufferSize = bufferSize;
+        this.mapWindow = mapWindow;
+    }
+
+    /**
+     * Scans the remaining bytes of a buffer. The position of the buffer is
+     * moved to its limit.
+     *
+     * @param src the bytes to scan
+     * @return the number of UUIDs found
+     */
+    public long scan(ByteBuffer src) {
+        final long[] found = new long[1];
+        scan(src, src.position(), src.limit(), true, true, found);
+        ((Buffer) src).position(src.limit());
+        return found[0];
+    }
+
+    /**
+     * Reads a channel to its end and scans the bytes. The channel is not closed.
+     *
+     * @param channel the channel to read
+     * @return the number of UUIDs found
+     * @throws IOException if the channel cannot be read
+     */
+    public long scan(ReadableByteChannel channel) throws IOException {
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+        final ByteBuffer buf = buffer;
+        // the Buffer casts keep the calls linkable on Java 8
+        ((Buffer) buf).clear();
+        final long[] found = new long[1];
+        int from = 0;
+        boolean first = true;
+        boolean eof = false;
+        while (!eof) {
+            eof = channel.read(buf) < 0;
+            if (!eof && buf.hasRemaining()) {
+                continue; // fill the buffer before scanning
+            }
+            final int end = buf.position();
+            final int resume = scan(buf, from, end, first, eof, found);
+            // keep the unscanned bytes and the byte before them
+            first = first && resume == 0;
+            final int keep = first ? 0 : resume - 1;
+            ((Buffer) buf).limit(end).position(keep);
+            buf.compact();
+            from = resume - keep;
+        }
+        return found[0];
+    }
+
+    /**
+     * Scans a file, mapping it into memory in windows of up to 1 GB.
+     *
+     * @param file the file to scan
+     * @return the number of UUIDs found
+     * @throws IOException if the file cannot be read
+     */
+    public long scan(File file) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            return scan(raf.getChannel());
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Scans a file channel, mapping it into memory in windows of up to 1 GB.
+     * The channel is not closed and its position is not changed.
+     *
+     * @param channel the channel to scan
+     * @return the number of UUIDs found
+     * @throws IOException if the channel cannot be mapped
+     */
+    public long scan(FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final long[] found = new long[1];
+        long position = 0;
+        boolean first = true;
+        while (position < size) {
+            final int length = (int) Math.min(size - position, mapWindow);
+            final boolean last = position + length == size;
+            final ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            final int resume = scan(window, first ? 0 : 1, length, first, last, found);
+            if (last) {
+                break;
+            }
+            // the next window starts with the byte before the unscanned bytes
+            position += resume - 1;
+            first = false;
+        }
+        return found[0];
+    }
+
+    /**
+     * Scans a range of a buffer.
+     *
+     * @param b the buffer
+     * @param from the index of the first possible UUID
+     * @param end the index after the last byte
+     * @param first <code>true</code> if <code>from</code> is the start of the input,
+     *  otherwise the byte before <code>from</code> belongs to the input
+     * @param last <code>true</code> if <code>end</code> is the end of the input
+     * @param found the counter of UUIDs found
+     * @return the index of the first byte that may start a UUID not yet
+     *  reported, which needs more input to decide
+     */
+    private int scan(ByteBuffer b, int from, int end, boolean first, boolean last, long[] found) {
+        // a UUID is only decided once the byte after it is known
+        final int stop = last ? end - UUID_FORMATTED_LENGTH : end - UUID_FORMATTED_LENGTH - 1;
+        int i = from;
+        while (i <= stop) {
+            final int c = b.get(i + FORMAT_POSITION1) & 0xFF;
+            if (c != '-') {
+                // no UUID can contain this byte, skip all candidates covering it
+                i += Hex.digit(c) < 0 ? FORMAT_POSITION1 + 1 : 1;
+                continue;
+            }
+            if (matches(b, i, end, first && i == from)) {
+                decode(b, i);
+                found[0]++;
+                i += UUID_FORMATTED_LENGTH;
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Tests whether the canonical layout starts at an index.
+     *
+     * @param b the buffer
+     * @param i the index of the first character
+     * @param end the index after the last byte
+     * @param atStart <code>true</code> if there is no byte before <code>i</code>
+     * @return <code>true</code> if a UUID starts at <code>i</code>
+     */
+    private static boolean matches(ByteBuffer b, int i, int end, boolean atStart) {
+        if ((b.get(i + FORMAT_POSITION2) ^ '-' | b.get(i + FORMAT_POSITION3) ^ '-'
+                | b.get(i + FORMAT_POSITION4) ^ '-') != 0) {
+            return false;
+        }
+        int invalid = 0;
+        for (int k = 0; k < UUID.DIGIT_POSITIONS.length; k++) {
+            invalid |= Hex.digit(b.get(i + UUID.DIGIT_POSITIONS[k]) & 0xFF);
+        }
+        if (invalid < 0) {
+            return false;
+        }
+        if (!atStart && isTokenByte(b.get(i - 1))) {
+            return false;
+        }
+        final int after = i + UUID_FORMATTED_LENGTH;
+        return after == end || !isTokenByte(b.get(after));
+    }
+
+    /**
+     * Tests whether a byte could continue a UUID token.
+     *
+     * @param c the byte
+     * @return <code>true</code> for hexadecimal digits and dashes
+     */
+    private static boolean isTokenByte(byte c) {
+        return c == '-' || Hex.digit(c & 0xFF) >= 0;
+    }
+
+    /**
+     * Decodes a UUID that matched the layout and passes it to the sink.
+     *
+     * @param b the buffer
+     * @param i the index of the first character
+     */
+    private void decode(ByteBuffer b, int i) {
+        long msb = 0;
+        long lsb = 0;
+        for (int k = 0; k < 16; k++) {
+            msb = msb << 4 | Hex.digit(b.get(i + UUID.DIGIT_POSITIONS[k]) & 0xFF);
+            lsb = lsb << 4 | Hex.digit(b.get(i + UUID.DIGIT_POSITIONS[k + 16]) & 0xFF);
+        }
+        sink.accept(msb, lsb);
+    }
+}
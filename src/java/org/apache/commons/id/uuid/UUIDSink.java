@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+/**
+ * <p>Receives UUIDs as their two 64 bit halves, so that producers can pass
+ * them on without creating <code>UUID</code> instances.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public interface UUIDSink {
+
+    /**
+     * Receives a UUID.
+     *
+     * @param mostSignificantBits the most significant 64 bits of the UUID
+     * @param leastSignificantBits the least significant 64 bits of the UUID
+     */
+    void accept(long mostSignificantBits, long leastSignificantBits);
+}
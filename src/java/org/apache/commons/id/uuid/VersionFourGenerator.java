@@ -17,6 +17,9 @@
 package org.apache.commons.id.uuid;
 
 import org.apache.commons.id.IdentifierGenerator;
+import org.apache.commons.id.metrics.GeneratorMetrics;
+import org.apache.commons.id.metrics.MetricEvent;
+import org.apache.commons.id.metrics.Metrics;
 
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
@@ -55,6 +58,9 @@ public final class VersionFourGenerator implements IdentifierGenerator, Constant
         
         private static VersionFourGenerator generator;
 
+        /** The metrics of this generator, <code>null</code> if metrics are disabled. */
+        private static final GeneratorMetrics METRICS = Metrics.forGenerator(VersionFourGenerator.class);
+
         /**
          * <p>Constructs a new VersionFourGenerator.</p>
          */
@@ -106,6 +112,56 @@ public final class VersionFourGenerator implements IdentifierGenerator, Constant
             return nextUUID(false);
         }
 
+        /**
+         * <p>Returns a new version four UUID, based upon <code>Random</code>, as a
+         * <code>java.util.UUID</code>.</p>
+         *
+         * @return a new version 4 UUID.
+         */
+        public java.util.UUID nextJavaUUID() {
+            final long msb = versionBits(regularRandom.nextLong());
+            final long lsb = variantBits(regularRandom.nextLong());
+            if (METRICS != null) {
+                METRICS.record(MetricEvent.GENERATED);
+            }
+            return new java.util.UUID(msb, lsb);
+        }
+
+        /**
+         * <p>Passes a new version four UUID, based upon <code>Random</code>, to a sink
+         * instead of creating a <code>UUID</code> instance.</p>
+         *
+         * @param sink the sink receiving the UUID, for example a {@link MutableUUID}.
+         */
+        public void nextUUID(UUIDSink sink) {
+            final long msb = versionBits(regularRandom.nextLong());
+            final long lsb = variantBits(regularRandom.nextLong());
+            if (METRICS != null) {
+                METRICS.record(MetricEvent.GENERATED);
+            }
+            sink.accept(msb, lsb);
+        }
+
+        /**
+         * <p>Sets the version four in random most significant bits.</p>
+         *
+         * @param random the random bits.
+         * @return the most significant bits of a version four UUID.
+         */
+        private static long versionBits(long random) {
+            return random & ~0xF000L | (long) UUID.VERSION_FOUR << 12;
+        }
+
+        /**
+         * <p>Sets the IETF variant in random least significant bits.</p>
+         *
+         * @param random the random bits.
+         * @return the least significant bits of a version four UUID.
+         */
+        private static long variantBits(long random) {
+            return random & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        }
+
         /**
          * <p>Returns a new version four UUID using either <code>SecureRandom</code> or <code>Random</code>.</p>
          *
@@ -128,10 +184,15 @@ public final class VersionFourGenerator implements IdentifierGenerator, Constant
                     } catch (NoSuchProviderException nspe) {
                         secure = false; //Fail back to default PRNG/Random
                     }
+                    if (!secure && METRICS != null) {
+                        METRICS.record(MetricEvent.SECURE_RANDOM_FALLBACK);
+                    }
+                }
+                if (secureRandom != null) {
+                    secureRandom.nextBytes(raw);
+                } else {
+                    regularRandom.nextBytes(raw);
                 }
-                if (secureRandom != null) { 
-                    secureRandom.nextBytes(raw); 
-                }                
             } else {
                 regularRandom.nextBytes(raw);
             }
@@ -142,6 +203,10 @@ public final class VersionFourGenerator implements IdentifierGenerator, Constant
             raw[CLOCK_SEQ_HI_AND_RESERVED_BYTE_8] &= 0x3F; //0011 1111
             raw[CLOCK_SEQ_HI_AND_RESERVED_BYTE_8] |= 0x80; //1000 0000
 
+            if (METRICS != null) {
+                METRICS.record(MetricEvent.GENERATED);
+            }
+
             return new UUID(raw);
         }
 
@@ -16,8 +16,13 @@
  */
 package org.apache.commons.id.uuid;
 
-import org.apache.commons.discovery.tools.DiscoverSingleton;
+import java.util.concurrent.locks.ReentrantLock;
+
 import org.apache.commons.id.IdentifierGenerator;
+import org.apache.commons.id.metrics.GeneratorMetrics;
+import org.apache.commons.id.metrics.MetricEvent;
+import org.apache.commons.id.metrics.Metrics;
+import org.apache.commons.id.metrics.jfr.FlightRecorderEvents;
 import org.apache.commons.id.uuid.clock.OverClockedException;
 import org.apache.commons.id.uuid.state.Node;
 
@@ -38,33 +43,39 @@ import org.apache.commons.id.uuid.state.Node;
 
 public final class VersionOneGenerator implements IdentifierGenerator, Constants {
 
-    /** Positions 10-16: Length of node bytes */
+    /** Length of node bytes */
     private static final int NODE_ID_BYTE_LENGTH = 6;
 
-    /** Position 8: CLOCK_SEQ_LOW byte */
-    private static final int CLOCK_HI_VARIANT_BYTE8 = 8;
-    /** Position 9: CLOCK_SEQ_HIGH and VARIANT byte */
-    private static final int CLOCK_LOW_BYTE9 = 9;
-    /** Positions 10-16: Start of node bytes */
-    private static final int NODE_ID_BYTE10 = 10;
-
     /** The default NodeManager implementation. */
     private static final String DEFAULT_NODEMANAGER_IMPL = NodeManagerImpl.class.getName();
 
+    /** The name of this generator in metrics and flight recordings. */
+    private static final String NAME = "VersionOneGenerator";
+
+    /** The metrics of this generator, <code>null</code> if metrics are disabled. */
+    private static final GeneratorMetrics METRICS = Metrics.forGenerator(VersionOneGenerator.class);
+
+    /** Shorter waits for the lock are not recorded. */
+    private static final long LOCK_WAIT_THRESHOLD_NANOS = 10000;
+
     /** The NodeManager implementation */
     private NodeManager manager;
 
-    /** Singleton instance such that only one instance is accessing the static
-     * fields at any time.
+    /**
+     * Guards the generation. A lock rather than a monitor, so that virtual
+     * threads waiting for it do not pin their carrier thread.
      */
-    private static VersionOneGenerator generator;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Receives the UUIDs of {@link #nextUUID()}, guarded by the lock. */
+    private final MutableUUID scratch = new MutableUUID();
 
     /**
      *  <p>Private singleton constructor.</p>
      */
     private VersionOneGenerator() {
         super();
-        manager = (NodeManager) DiscoverSingleton.find( NodeManager.class, DEFAULT_NODEMANAGER_IMPL);
+        manager = (NodeManager) ProviderRegistry.getSingleton(NodeManager.class, DEFAULT_NODEMANAGER_IMPL);
     }
 
     /**
@@ -73,10 +84,17 @@ public final class VersionOneGenerator implements IdentifierGenerator, Constants
      * @return the singleton instance of the version one UUID generator.
      */
     public static VersionOneGenerator getInstance()  {
-            if (generator == null) {
-                generator = new VersionOneGenerator();
-            }
-            return generator;
+        return Holder.GENERATOR;
+    }
+
+    /**
+     * <p>Holds the singleton instance, which is created on first use by the
+     * class initialization, so that only one instance is accessing the
+     * static fields at any time.</p>
+     */
+    private static final class Holder {
+        /** The singleton instance. */
+        static final VersionOneGenerator GENERATOR = new VersionOneGenerator();
     }
     
     /**
@@ -92,38 +110,129 @@ public final class VersionOneGenerator implements IdentifierGenerator, Constants
      *
      * @return Returns a new version 1 UUID.
      */
-    public synchronized UUID nextUUID() {
-        byte[] rawUUID = new byte[UUID_BYTE_LENGTH];
+    public UUID nextUUID() {
+        acquire();
+        try {
+            generate(scratch);
+            return scratch.toUUID();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * <p>Returns a new version 1 UUID as a <code>java.util.UUID</code>.</p>
+     *
+     * @return Returns a new version 1 UUID.
+     */
+    public java.util.UUID nextJavaUUID() {
+        acquire();
+        try {
+            generate(scratch);
+            return scratch.toJavaUUID();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * <p>Passes a new version 1 UUID to a sink instead of creating a
+     * <code>UUID</code> instance. The sink is called while the generator is
+     * locked and should return quickly.</p>
+     *
+     * @param sink the sink receiving the UUID, for example a {@link MutableUUID}.
+     */
+    public void nextUUID(UUIDSink sink) {
+        acquire();
+        try {
+            generate(sink);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * <p>Acquires the lock, recording long waits.</p>
+     */
+    private void acquire() {
+        if (!lock.tryLock()) {
+            final Object event = FlightRecorderEvents.beginLockWait();
+            if (METRICS == null) {
+                lock.lock();
+            } else {
+                final long start = System.nanoTime();
+                lock.lock();
+                final long wait = System.nanoTime() - start;
+                if (wait >= LOCK_WAIT_THRESHOLD_NANOS) {
+                    METRICS.record(MetricEvent.LOCK_WAIT, wait);
+                }
+            }
+            FlightRecorderEvents.commitLockWait(event, NAME);
+        }
+    }
+
+    /**
+     * <p>Generates a new version 1 UUID, the caller holds the lock.</p>
+     *
+     * @param sink the sink receiving the UUID.
+     */
+    private void generate(UUIDSink sink) {
+        long nodeId = 0;
         long time = 0;
         short clockSq = 0;
+        int retries = 0;
+        long spinStart = 0;
+        Object spin = null;
         Node node = manager.currentNode();
         while (time < 1) {
             try {
                 manager.lockNode(node);
                 time = node.getUUIDTime();
                 clockSq = node.getClockSequence();
-                System.arraycopy(node.getNodeIdentifier(), 0, rawUUID, NODE_ID_BYTE10, NODE_ID_BYTE_LENGTH);
+                nodeId = nodeId(node.getNodeIdentifier());
                 manager.releaseNode(node);
             } catch (OverClockedException e) {
+                if (retries++ == 0) {
+                    spin = FlightRecorderEvents.beginOverclockSpin();
+                    spinStart = METRICS == null ? 0 : System.nanoTime();
+                }
+                if (METRICS != null) {
+                    METRICS.record(MetricEvent.RETRY);
+                }
                 node = manager.nextAvailableNode();
             } finally {
                 manager.releaseNode(node);
             }
         }
-        byte[] timeBytes = Bytes.toBytes(time);
-        //Copy time low
-        System.arraycopy(timeBytes, TIME_LOW_TS_POS, rawUUID, TIME_LOW_START_POS, TIME_LOW_BYTE_LEN);
-        //Copy time mid
-        System.arraycopy(timeBytes, TIME_MID_TS_POS, rawUUID, TIME_MID_START_POS, TIME_MID_BYTE_LEN);
-        //Copy time hi
-        System.arraycopy(timeBytes, TIME_HI_TS_POS, rawUUID, TIME_HI_START_POS, TIME_HI_BYTE_LEN);
-        //Set version
-        rawUUID[6] |= 0x10; // 0001 0000
-        //Set clock sequence
-        rawUUID[CLOCK_HI_VARIANT_BYTE8] = (byte) ((clockSq & 0x3F00) >>> 8);
-        rawUUID[CLOCK_HI_VARIANT_BYTE8] |= 0x80;
-        rawUUID[CLOCK_LOW_BYTE9] = (byte) (clockSq & 0xFF);
-
-        return new UUID(rawUUID);
+        if (retries > 0) {
+            if (METRICS != null) {
+                METRICS.record(MetricEvent.OVERCLOCK_SPIN, System.nanoTime() - spinStart, retries);
+            }
+            FlightRecorderEvents.commitOverclockSpin(spin, NAME, retries);
+        }
+        // time low, time mid, version and time hi
+        final long msb = time << 32 | (time >>> 16 & 0xFFFF0000L) | 0x1000L | time >>> 48;
+        // variant, clock sequence and node
+        final long lsb = (0x8000L | clockSq & 0x3FFFL) << 48 | nodeId;
+
+        if (METRICS != null) {
+            METRICS.record(MetricEvent.GENERATED);
+        }
+
+        sink.accept(msb, lsb);
+    }
+
+    /**
+     * <p>Returns the 48 bit value of a node identifier.</p>
+     *
+     * @param id the 6 bytes of the node identifier.
+     * @return the node identifier as a long.
+     */
+    private static long nodeId(byte[] id) {
+        long value = 0;
+        for (int i = 0; i < NODE_ID_BYTE_LENGTH; i++) {
+            value = value << 8 | id[i] & 0xFF;
+        }
+        return value;
     }
 }
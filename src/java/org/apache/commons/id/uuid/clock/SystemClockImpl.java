@@ -17,6 +17,8 @@
 
 package org.apache.commons.id.uuid.clock;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * <p><code>SystemClockImpl</code> provides a timing mechanism for returning the
  * current time in 100-nano second intervals since 00:00:00.00, 15 October 1582.
@@ -28,11 +30,12 @@ package org.apache.commons.id.uuid.clock;
  */
 
 public final class SystemClockImpl implements Clock {
-    /** Counter for the number of calls during the current millisecond */
-    private long generatedThisMilli = 0;
-
-    /** The current time in milliseconds held in this clock thread. */
-    private long currentTimeMillis;
+    /**
+     * The current time in milliseconds times the intervals per millisecond,
+     * plus the number of calls during that millisecond. Updated with a
+     * compare-and-set, so that no thread blocks on a monitor.
+     */
+    private final AtomicLong state = new AtomicLong();
 
     /**
      * <p>Public constructor.</p>
@@ -43,34 +46,25 @@ public final class SystemClockImpl implements Clock {
 
     /** @see org.apache.commons.id.uuid.clock.Clock#getUUIDTime() */
     public long getUUIDTime() throws OverClockedException {
-        return getTimeSynchronized();
-    }
-
-    /**
-     * <p>Object synchronized method returns the current time in 100ns
-     * intervals since the Gregorian change offset.</p>
-     *
-     * @return  the current time in 100ns intervals since the Gregorian change
-     *          offset.
-     * @throws  OverClockedException an exception raised if too many timestamps
-     *          have been generated for the system time interval.
-     */
-    private synchronized long getTimeSynchronized()
-            throws OverClockedException {
-        if (currentTimeMillis != System.currentTimeMillis()) {
-            currentTimeMillis = System.currentTimeMillis();
-            generatedThisMilli = 0;
-        }
-        // Set time as current time millis plus offset times 100 ns ticks
-        long currentTime =
-            (currentTimeMillis + GREGORIAN_CHANGE_OFFSET)
-                * INTERVALS_PER_MILLI;
-
-        // Return the same time - generator/client code must check to see if overclocked
-        if (generatedThisMilli + 1 >= INTERVALS_PER_MILLI) {
-            throw new OverClockedException();
+        while (true) {
+            final long current = state.get();
+            // read the clock after the state, so a successful update never
+            // follows an update with a later time
+            final long millis = System.currentTimeMillis();
+            final long generatedThisMilli;
+            if (current / INTERVALS_PER_MILLI != millis) {
+                generatedThisMilli = 0;
+            } else {
+                generatedThisMilli = current % INTERVALS_PER_MILLI;
+                // Return the same time - generator/client code must check to see if overclocked
+                if (generatedThisMilli + 1 >= INTERVALS_PER_MILLI) {
+                    throw new OverClockedException();
+                }
+            }
+            if (state.compareAndSet(current, millis * INTERVALS_PER_MILLI + generatedThisMilli + 1)) {
+                // Return the uuid time plus the artifical tick incremented
+                return (millis + GREGORIAN_CHANGE_OFFSET) * INTERVALS_PER_MILLI + generatedThisMilli;
+            }
         }
-        // Return the uuid time plus the artifical tick incremented
-        return (currentTime + generatedThisMilli++);
     }
 }
@@ -92,6 +92,7 @@ public final class ThreadClockImpl extends Thread implements Clock {
         setDaemon(true);
         setPriority(Thread.MAX_PRIORITY);
         currentTimeMillis = System.currentTimeMillis();
+        expires = threadLife;
         generatedThisInterval = 0;
         start();
     }
@@ -169,9 +170,11 @@ public final class ThreadClockImpl extends Thread implements Clock {
      */
     public long getUUIDTime() throws OverClockedException {
             if (!worker.isAlive()) {
-                synchronized (SystemClockImpl.class) {
-                    currentTimeMillis = System.currentTimeMillis();
-                    worker.start();
+                synchronized (ThreadClockImpl.class) {
+                    // an expired thread cannot be restarted, replace it
+                    if (!worker.isAlive()) {
+                        worker = new ThreadClockImpl(true);
+                    }
                 }
                 generatedThisInterval = 0;
             }
@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid.collections;
+
+import java.util.Arrays;
+
+import org.apache.commons.id.uuid.UUID;
+import org.apache.commons.id.uuid.UUIDSink;
+
+/**
+ * <p>Open addressing hash table of UUID keys stored in two parallel
+ * <code>long[]</code> arrays. Subclasses keep their values in an array
+ * with the same indices.</p>
+ *
+ * <p>An all zero slot is free. The nil UUID, whose halves are both zero,
+ * is therefore kept in an extra slot after the table. Collisions are
+ * resolved with linear probing and removals shift the following entries
+ * back, so that no tombstones are needed.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+abstract class AbstractUUIDHash {
+
+    /** The default expected number of entries. */
+    static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    /** The smallest table size. */
+    private static final int MIN_CAPACITY = 8;
+
+    /** The largest table size. */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /** The most significant halves of the keys. */
+    long[] msbs;
+
+    /** The least significant halves of the keys. */
+    long[] lsbs;
+
+    /** Mask of the table size, the slot of the nil UUID is at <code>mask + 1</code>. */
+    int mask;
+
+    /** Is the nil UUID contained. */
+    boolean containsNil;
+
+    /** The number of entries. */
+    int size;
+
+    /** The number of entries that triggers a resize. */
+    private int resizeAt;
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize the number of entries the table must hold without resizing
+     * @throws IllegalArgumentException if <code>expectedSize</code> is negative or too large
+     */
+    AbstractUUIDHash(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        }
+        final long needed = (long) expectedSize * 4 / 3 + 1;
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed) {
+            if (capacity == MAX_CAPACITY) {
+                throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+            }
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Finds the slot of a key.
+     *
+     * @param msb the most significant 64 bits
+     * @param lsb the least significant 64 bits
+     * @return the slot of the key if it is contained, otherwise
+     *  <code>-(slot + 1)</code> of the slot the key would be stored in
+     */
+    final int find(long msb, long lsb) {
+        if ((msb | lsb) == 0) {
+            return containsNil ? mask + 1 : -(mask + 1) - 1;
+        }
+        int i = UUID.hashCode(msb, lsb) & mask;
+        for (;;) {
+            final long m = msbs[i];
+            final long l = lsbs[i];
+            if (m == msb && l == lsb) {
+                return i;
+            }
+            if ((m | l) == 0) {
+                return -i - 1;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Stores a key in a free slot returned by {@link #find(long, long)}. The
+     * caller must store the value and then call {@link #afterInsert()}.
+     *
+     * @param slot the free slot
+     * @param msb the most significant 64 bits
+     * @param lsb the least significant 64 bits
+     */
+    final void insert(int slot, long msb, long lsb) {
+        if (slot > mask) {
+            containsNil = true;
+        } else {
+            msbs[slot] = msb;
+            lsbs[slot] = lsb;
+        }
+        size++;
+    }
+
+    /**
+     * Grows the table if the number of entries exceeds the load factor.
+     */
+    final void afterInsert() {
+        if (size > resizeAt && mask + 1 < MAX_CAPACITY) {
+            rehash((mask + 1) << 1);
+        }
+    }
+
+    /**
+     * Removes the entry in a slot and shifts following entries of the same
+     * probe sequence back into the gap.
+     *
+     * @param slot the slot of the entry
+     */
+    final void removeAt(int slot) {
+        size--;
+        if (slot > mask) {
+            containsNil = false;
+            clearValue(slot);
+            return;
+        }
+        final Object values = values();
+        int gap = slot;
+        int i = (gap + 1) & mask;
+        for (;;) {
+            final long m = msbs[i];
+            final long l = lsbs[i];
+            if ((m | l) == 0) {
+                break;
+            }
+            final int home = UUID.hashCode(m, l) & mask;
+            // the entry may move if the gap lies between its home slot and its slot
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                msbs[gap] = m;
+                lsbs[gap] = l;
+                copyValue(values, i, gap);
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        msbs[gap] = 0;
+        lsbs[gap] = 0;
+        clearValue(gap);
+    }
+
+    /**
+     * Passes all keys to a sink.
+     *
+     * @param sink the sink
+     */
+    final void visitKeys(UUIDSink sink) {
+        if (containsNil) {
+            sink.accept(0, 0);
+        }
+        for (int i = 0; i <= mask; i++) {
+            if ((msbs[i] | lsbs[i]) != 0) {
+                sink.accept(msbs[i], lsbs[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <code>true</code> if there are no entries.
+     *
+     * @return <code>true</code> if there are no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries. The table keeps its size.
+     */
+    public void clear() {
+        Arrays.fill(msbs, 0);
+        Arrays.fill(lsbs, 0);
+        containsNil = false;
+        size = 0;
+        clearValues();
+    }
+
+    /**
+     * Allocates a table, leaving keys and values empty.
+     *
+     * @param capacity the number of slots, a power of two
+     */
+    private void allocate(int capacity) {
+        msbs = new long[capacity + 1];
+        lsbs = new long[capacity + 1];
+        mask = capacity - 1;
+        resizeAt = capacity / 4 * 3;
+        swapValues(capacity + 1);
+    }
+
+    /**
+     * Moves all entries into a table of a new size.
+     *
+     * @param capacity the new number of slots
+     */
+    private void rehash(int capacity) {
+        final long[] oldMsbs = msbs;
+        final long[] oldLsbs = lsbs;
+        final int oldNil = mask + 1;
+        msbs = new long[capacity + 1];
+        lsbs = new long[capacity + 1];
+        mask = capacity - 1;
+        resizeAt = capacity / 4 * 3;
+        final Object oldValues = swapValues(capacity + 1);
+        for (int i = 0; i < oldNil; i++) {
+            final long m = oldMsbs[i];
+            final long l = oldLsbs[i];
+            if ((m | l) != 0) {
+                int j = UUID.hashCode(m, l) & mask;
+                while ((msbs[j] | lsbs[j]) != 0) {
+                    j = (j + 1) & mask;
+                }
+                msbs[j] = m;
+                lsbs[j] = l;
+                copyValue(oldValues, i, j);
+            }
+        }
+        if (containsNil) {
+            copyValue(oldValues, oldNil, mask + 1);
+        }
+    }
+
+    /**
+     * Replaces the value array by a new, empty one.
+     *
+     * @param length the length of the new array
+     * @return the previous value array, <code>null</code> if there is none
+     */
+    abstract Object swapValues(int length);
+
+    /**
+     * Returns the current value array.
+     *
+     * @return the value array, <code>null</code> if there is none
+     */
+    abstract Object values();
+
+    /**
+     * Copies a value into the current value array.
+     *
+     * @param from the array to copy from
+     * @param i the slot to copy from
+     * @param j the slot to copy to
+     */
+    abstract void copyValue(Object from, int i, int j);
+
+    /**
+     * Releases the value in a slot.
+     *
+     * @param slot the slot
+     */
+    abstract void clearValue(int slot);
+
+    /**
+     * Releases all values.
+     */
+    abstract void clearValues();
+}
@@ -0,0 +1,622 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid.collections;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.apache.commons.id.uuid.UUID;
+import org.apache.commons.id.uuid.UUIDSink;
+
+/**
+ * <p>A column of UUIDs stored off-heap as consecutive 16 byte records.</p>
+ *
+ * <p>The records are kept in a direct or memory-mapped <code>ByteBuffer</code>
+ * in the byte order of {@link UUID#getRawBytes()}, so a column holds up to
+ * {@link #MAX_CAPACITY} UUIDs without any objects on the heap. A direct
+ * column grows on demand, a mapped column has the fixed capacity of its
+ * file region. The file of a mapped column is truncated to the records
+ * when the column is {@link #close() closed}.</p>
+ *
+ * <p>{@link #sort()} orders the records by their unsigned bytes, which is the
+ * order of {@link UUID#compareTo(Object)}. Sorted columns support binary search
+ * with {@link #indexOf(long, long)} and {@link #contains(long, long)}. The
+ * records can be read by index, passed to a {@link UUIDSink} or visited with
+ * a {@link Cursor}; none of these create <code>UUID</code> instances.</p>
+ *
+ * <p>A column is not synchronized.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class UUIDColumn implements Closeable {
+
+    /** The size of a record in bytes. */
+    public static final int RECORD_SIZE = 16;
+
+    /** The maximum number of records, limited by the size of a <code>ByteBuffer</code>. */
+    public static final int MAX_CAPACITY = Integer.MAX_VALUE / RECORD_SIZE;
+
+    /** Buckets smaller than this are sorted by insertion. */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /** The records. */
+    private ByteBuffer records;
+
+    /** The number of records. */
+    private int size;
+
+    /** Are the records sorted. */
+    private boolean sorted = true;
+
+    /** Can the buffer be replaced by a larger one. */
+    private final boolean growable;
+
+    /** The channel of the mapped file, <code>null</code> for a direct column. */
+    private FileChannel channel;
+
+    /**
+     * Constructor.
+     *
+     * @param records the buffer holding the records
+     * @param size the number of records already in the buffer
+     * @param growable can the buffer be replaced by a larger one
+     * @param channel the channel of the mapped file or <code>null</code>
+     */
+    private UUIDColumn(ByteBuffer records, int size, boolean growable, FileChannel channel) {
+        this.records = records;
+        this.size = size;
+        this.growable = growable;
+        this.channel = channel;
+        this.sorted = size < 2;
+    }
+
+    /**
+     * Creates an empty column in a direct buffer.
+     *
+     * @param initialCapacity the number of records to allocate space for
+     * @return the column
+     * @throws IllegalArgumentException if <code>initialCapacity</code> is negative
+     *  or exceeds {@link #MAX_CAPACITY}
+     */
+    public static UUIDColumn allocate(int initialCapacity) {
+        checkCapacity(initialCapacity);
+        return new UUIDColumn(ByteBuffer.allocateDirect(initialCapacity * RECORD_SIZE), 0, true, null);
+    }
+
+    /**
+     * Maps a column onto a file. Records already in the file are part of
+     * the column, new records are written through to the file. The file
+     * stays open until the column is closed.
+     *
+     * @param file the file, created if it does not exist
+     * @param capacity the maximum number of records, the file grows to this size
+     * @return the column
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if <code>capacity</code> is negative,
+     *  exceeds {@link #MAX_CAPACITY} or is less than the number of records in the file
+     */
+    public static UUIDColumn map(File file, int capacity) throws IOException {
+        checkCapacity(capacity);
+        final FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        try {
+            final long existing = channel.size() / RECORD_SIZE;
+            if (existing > capacity) {
+                throw new IllegalArgumentException("File holds " + existing
+                    + " records, more than the capacity " + capacity);
+            }
+            final MappedByteBuffer buffer =
+                channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+            return new UUIDColumn(buffer, (int) existing, false, channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the column. The records of a mapped column are forced to its
+     * file and the file is truncated to their length. The column must not be
+     * used after it is closed.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void close() throws IOException {
+        final FileChannel mapped = channel;
+        final int length = size * RECORD_SIZE;
+        channel = null;
+        size = 0;
+        if (mapped != null) {
+            try {
+                ((MappedByteBuffer) records).force();
+                mapped.truncate(length);
+            } finally {
+                mapped.close();
+            }
+        }
+        records = ByteBuffer.allocate(0);
+    }
+
+    /**
+     * Validates a capacity.
+     *
+     * @param capacity the number of records
+     * @throws IllegalArgumentException if <code>capacity</code> is out of range
+     */
+    private static void checkCapacity(int capacity) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+    }
+
+    /**
+     * Returns the number of records.
+     *
+     * @return the number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of records the current buffer can hold.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return records.capacity() / RECORD_SIZE;
+    }
+
+    /**
+     * Returns <code>true</code> if the records are known to be sorted.
+     *
+     * @return <code>true</code> if the records are sorted
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Appends a UUID. The column stays sorted if the UUID is not less than the last one.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @throws IllegalStateException if the column is full and cannot grow
+     */
+    public void append(long msb, long lsb) {
+        ensureCapacity(size + 1);
+        if (sorted && size > 0) {
+            final int last = (size - 1) * RECORD_SIZE;
+            sorted = UUID.compare(records.getLong(last), records.getLong(last + 8), msb, lsb) <= 0;
+        }
+        final int offset = size * RECORD_SIZE;
+        records.putLong(offset, msb);
+        records.putLong(offset + 8, lsb);
+        size++;
+    }
+
+    /**
+     * Appends a UUID.
+     *
+     * @param uuid the UUID
+     * @throws IllegalStateException if the column is full and cannot grow
+     */
+    public void append(UUID uuid) {
+        append(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Appends the remaining 16 byte records of a buffer, for example as read
+     * from a file or another column. The position of <code>src</code> is moved
+     * to its limit.
+     *
+     * @param src the records
+     * @throws IllegalArgumentException if the remaining bytes are not a
+     *  multiple of the record size
+     * @throws IllegalStateException if the column is full and cannot grow
+     */
+    public void append(ByteBuffer src) {
+        final int bytes = src.remaining();
+        if (bytes % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("Not a multiple of " + RECORD_SIZE + " bytes: " + bytes);
+        }
+        final int count = bytes / RECORD_SIZE;
+        if (count == 0) {
+            return;
+        }
+        ensureCapacity((long) size + count);
+        final ByteBuffer target = records.duplicate();
+        // cast for Java 8, where only Buffer.position(int) exists
+        ((Buffer) target).position(size * RECORD_SIZE);
+        target.put(src);
+        final int first = size;
+        size += count;
+        if (sorted) {
+            sorted = isSorted(first == 0 ? 0 : first - 1);
+        }
+    }
+
+    /**
+     * Appends a range of UUIDs given as parallel arrays of their halves.
+     *
+     * @param msbs the most significant 64 bits of the UUIDs
+     * @param lsbs the least significant 64 bits of the UUIDs
+     * @param off the index of the first UUID
+     * @param len the number of UUIDs
+     * @throws IllegalStateException if the column is full and cannot grow
+     */
+    public void append(long[] msbs, long[] lsbs, int off, int len) {
+        ensureCapacity((long) size + len);
+        for (int i = off; i < off + len; i++) {
+            append(msbs[i], lsbs[i]);
+        }
+    }
+
+    /**
+     * Returns the most significant 64 bits of a record.
+     *
+     * @param index the index of the record
+     * @return the most significant 64 bits
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of range
+     */
+    public long getMostSignificantBits(int index) {
+        checkIndex(index);
+        return records.getLong(index * RECORD_SIZE);
+    }
+
+    /**
+     * Returns the least significant 64 bits of a record.
+     *
+     * @param index the index of the record
+     * @return the least significant 64 bits
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of range
+     */
+    public long getLeastSignificantBits(int index) {
+        checkIndex(index);
+        return records.getLong(index * RECORD_SIZE + 8);
+    }
+
+    /**
+     * Returns a record as a new UUID.
+     *
+     * @param index the index of the record
+     * @return the UUID
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of range
+     */
+    public UUID get(int index) {
+        checkIndex(index);
+        return new UUID(records.getLong(index * RECORD_SIZE), records.getLong(index * RECORD_SIZE + 8));
+    }
+
+    /**
+     * Passes every record in order to a sink.
+     *
+     * @param sink the sink
+     */
+    public void forEach(UUIDSink sink) {
+        final int end = size * RECORD_SIZE;
+        for (int offset = 0; offset < end; offset += RECORD_SIZE) {
+            sink.accept(records.getLong(offset), records.getLong(offset + 8));
+        }
+    }
+
+    /**
+     * Returns a cursor positioned before the first record.
+     *
+     * @return the cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Returns a read-only view of the records, from position 0 to the end of
+     * the last record.
+     *
+     * @return the records
+     */
+    public ByteBuffer asByteBuffer() {
+        final ByteBuffer view = records.asReadOnlyBuffer();
+        ((Buffer) view).limit(size * RECORD_SIZE);
+        return view;
+    }
+
+    /**
+     * Searches a UUID in the sorted column.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @return the index of the UUID if it is contained, otherwise
+     *  <code>-(insertion point + 1)</code>
+     * @throws IllegalStateException if the column is not sorted
+     */
+    public int indexOf(long msb, long lsb) {
+        if (!sorted) {
+            throw new IllegalStateException("Column is not sorted");
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int offset = mid * RECORD_SIZE;
+            final int cmp = UUID.compare(records.getLong(offset), records.getLong(offset + 8), msb, lsb);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Tests whether the sorted column contains a UUID.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @return <code>true</code> if the column contains the UUID
+     * @throws IllegalStateException if the column is not sorted
+     */
+    public boolean contains(long msb, long lsb) {
+        return indexOf(msb, lsb) >= 0;
+    }
+
+    /**
+     * Tests whether the sorted column contains a UUID.
+     *
+     * @param uuid the UUID
+     * @return <code>true</code> if the column contains the UUID
+     * @throws IllegalStateException if the column is not sorted
+     */
+    public boolean contains(UUID uuid) {
+        return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Sorts the records by their unsigned bytes.
+     * <p>
+     * The records are first distributed by their first byte. The buckets
+     * are then sorted in parallel with a least significant digit radix sort
+     * on the remaining bytes, which skips bytes that are equal in the whole
+     * bucket. A temporary direct buffer of the size of the records is used.
+     * </p>
+     */
+    public void sort() {
+        if (sorted) {
+            return;
+        }
+        final ByteBuffer temp = ByteBuffer.allocateDirect(size * RECORD_SIZE);
+        final int[] starts = new int[257];
+        for (int i = 0; i < size; i++) {
+            starts[(records.get(i * RECORD_SIZE) & 0xFF) + 1]++;
+        }
+        for (int b = 0; b < 256; b++) {
+            starts[b + 1] += starts[b];
+        }
+        final int[] next = new int[256];
+        System.arraycopy(starts, 0, next, 0, 256);
+        for (int i = 0; i < size; i++) {
+            final int offset = i * RECORD_SIZE;
+            final int to = next[records.get(offset) & 0xFF]++ * RECORD_SIZE;
+            temp.putLong(to, records.getLong(offset));
+            temp.putLong(to + 8, records.getLong(offset + 8));
+        }
+        final ByteBuffer target = records;
+        IntStream.range(0, 256).parallel().forEach(new IntConsumer() {
+            public void accept(int b) {
+                sortBucket(temp.duplicate(), target.duplicate(), starts[b], starts[b + 1]);
+            }
+        });
+        sorted = true;
+    }
+
+    /**
+     * Sorts the records of one bucket on bytes 1 to 15 and stores them in
+     * <code>target</code>.
+     *
+     * @param source the buffer holding the bucket
+     * @param target the buffer to store the sorted bucket in, used as scratch space
+     * @param from the index of the first record of the bucket
+     * @param to the index after the last record of the bucket
+     */
+    private static void sortBucket(ByteBuffer source, ByteBuffer target, int from, int to) {
+        if (to - from < INSERTION_SORT_THRESHOLD) {
+            for (int i = from; i < to; i++) {
+                final long msb = source.getLong(i * RECORD_SIZE);
+                final long lsb = source.getLong(i * RECORD_SIZE + 8);
+                int j = i - 1;
+                while (j >= from && UUID.compare(target.getLong(j * RECORD_SIZE),
+                        target.getLong(j * RECORD_SIZE + 8), msb, lsb) > 0) {
+                    target.putLong((j + 1) * RECORD_SIZE, target.getLong(j * RECORD_SIZE));
+                    target.putLong((j + 1) * RECORD_SIZE + 8, target.getLong(j * RECORD_SIZE + 8));
+                    j--;
+                }
+                target.putLong((j + 1) * RECORD_SIZE, msb);
+                target.putLong((j + 1) * RECORD_SIZE + 8, lsb);
+            }
+            return;
+        }
+        final int[] counts = new int[256];
+        ByteBuffer in = source;
+        ByteBuffer out = target;
+        for (int digit = RECORD_SIZE - 1; digit > 0; digit--) {
+            Arrays.fill(counts, 0);
+            for (int i = from; i < to; i++) {
+                counts[in.get(i * RECORD_SIZE + digit) & 0xFF]++;
+            }
+            if (counts[in.get(from * RECORD_SIZE + digit) & 0xFF] == to - from) {
+                continue; // all records share this byte
+            }
+            int position = from;
+            for (int b = 0; b < 256; b++) {
+                final int count = counts[b];
+                counts[b] = position;
+                position += count;
+            }
+            for (int i = from; i < to; i++) {
+                final int offset = i * RECORD_SIZE;
+                final int dest = counts[in.get(offset + digit) & 0xFF]++ * RECORD_SIZE;
+                out.putLong(dest, in.getLong(offset));
+                out.putLong(dest + 8, in.getLong(offset + 8));
+            }
+            final ByteBuffer swap = in;
+            in = out;
+            out = swap;
+        }
+        if (in != target) {
+            for (int i = from; i < to; i++) {
+                final int offset = i * RECORD_SIZE;
+                target.putLong(offset, in.getLong(offset));
+                target.putLong(offset + 8, in.getLong(offset + 8));
+            }
+        }
+    }
+
+    /**
+     * Checks whether the records from an index to the end are in order.
+     *
+     * @param from the index of the first record to check
+     * @return <code>true</code> if the records are in order
+     */
+    private boolean isSorted(int from) {
+        for (int i = from + 1; i < size; i++) {
+            final int offset = i * RECORD_SIZE;
+            if (UUID.compare(records.getLong(offset - RECORD_SIZE), records.getLong(offset - 8),
+                    records.getLong(offset), records.getLong(offset + 8)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Validates a record index.
+     *
+     * @param index the index
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of range
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    /**
+     * Makes room for the given number of records.
+     *
+     * @param needed the number of records
+     * @throws IllegalStateException if the column cannot hold the records
+     */
+    private void ensureCapacity(long needed) {
+        final int capacity = capacity();
+        if (needed <= capacity) {
+            return;
+        }
+        if (!growable || needed > MAX_CAPACITY) {
+            throw new IllegalStateException("Column is full, capacity " + capacity);
+        }
+        final long grown = Math.max(needed, Math.min((long) capacity * 2 + 16, MAX_CAPACITY));
+        final ByteBuffer larger = ByteBuffer.allocateDirect((int) grown * RECORD_SIZE);
+        final ByteBuffer used = records.duplicate();
+        ((Buffer) used).position(0).limit(size * RECORD_SIZE);
+        larger.put(used);
+        ((Buffer) larger).clear();
+        records = larger;
+    }
+
+    /**
+     * A flyweight that visits the records of the column in order. The cursor
+     * reflects appends made after its creation.
+     */
+    public final class Cursor {
+
+        /** The index of the current record. */
+        private int index = -1;
+
+        /**
+         * Constructor.
+         */
+        private Cursor() {
+        }
+
+        /**
+         * Moves to the next record.
+         *
+         * @return <code>true</code> if there is a next record
+         */
+        public boolean next() {
+            if (index + 1 < size) {
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Returns the index of the current record.
+         *
+         * @return the index
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * Returns the most significant 64 bits of the current record.
+         *
+         * @return the most significant 64 bits
+         * @throws IndexOutOfBoundsException if there is no current record
+         */
+        public long getMostSignificantBits() {
+            return UUIDColumn.this.getMostSignificantBits(index);
+        }
+
+        /**
+         * Returns the least significant 64 bits of the current record.
+         *
+         * @return the least significant 64 bits
+         * @throws IndexOutOfBoundsException if there is no current record
+         */
+        public long getLeastSignificantBits() {
+            return UUIDColumn.this.getLeastSignificantBits(index);
+        }
+
+        /**
+         * Returns the current record as a new UUID.
+         *
+         * @return the UUID
+         * @throws IndexOutOfBoundsException if there is no current record
+         */
+        public UUID toUUID() {
+            return get(index);
+        }
+    }
+}
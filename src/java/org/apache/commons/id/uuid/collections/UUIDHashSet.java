@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid.collections;
+
+import org.apache.commons.id.uuid.UUID;
+import org.apache.commons.id.uuid.UUIDSink;
+
+/**
+ * <p>A set of UUIDs stored as pairs of <code>long</code> values.</p>
+ *
+ * <p>Each element occupies 16 bytes in the table, which is kept at most
+ * three quarters full. This set is not synchronized.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public class UUIDHashSet extends AbstractUUIDHash {
+
+    /**
+     * Creates an empty set.
+     */
+    public UUIDHashSet() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty set that holds the given number of elements without resizing.
+     *
+     * @param expectedSize the expected number of elements
+     * @throws IllegalArgumentException if <code>expectedSize</code> is negative or too large
+     */
+    public UUIDHashSet(int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Adds a UUID.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @return <code>true</code> if the set did not contain the UUID
+     */
+    public boolean add(long msb, long lsb) {
+        final int slot = find(msb, lsb);
+        if (slot >= 0) {
+            return false;
+        }
+        insert(-slot - 1, msb, lsb);
+        afterInsert();
+        return true;
+    }
+
+    /**
+     * Adds a UUID.
+     *
+     * @param uuid the UUID
+     * @return <code>true</code> if the set did not contain the UUID
+     */
+    public boolean add(UUID uuid) {
+        return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Tests whether the set contains a UUID.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @return <code>true</code> if the set contains the UUID
+     */
+    public boolean contains(long msb, long lsb) {
+        return find(msb, lsb) >= 0;
+    }
+
+    /**
+     * Tests whether the set contains a UUID.
+     *
+     * @param uuid the UUID
+     * @return <code>true</code> if the set contains the UUID
+     */
+    public boolean contains(UUID uuid) {
+        return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Removes a UUID.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @return <code>true</code> if the set contained the UUID
+     */
+    public boolean remove(long msb, long lsb) {
+        final int slot = find(msb, lsb);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Removes a UUID.
+     *
+     * @param uuid the UUID
+     * @return <code>true</code> if the set contained the UUID
+     */
+    public boolean remove(UUID uuid) {
+        return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Passes every element to a sink. The set must not be modified meanwhile.
+     *
+     * @param sink the sink
+     */
+    public void forEach(UUIDSink sink) {
+        visitKeys(sink);
+    }
+
+    Object swapValues(int length) {
+        return null;
+    }
+
+    Object values() {
+        return null;
+    }
+
+    void copyValue(Object from, int i, int j) {
+    }
+
+    void clearValue(int slot) {
+    }
+
+    void clearValues() {
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid.collections;
+
+import java.util.Arrays;
+
+import org.apache.commons.id.uuid.UUID;
+import org.apache.commons.id.uuid.UUIDSink;
+
+/**
+ * <p>A map from UUIDs to primitive <code>long</code> values.</p>
+ *
+ * <p>Each entry occupies 24 bytes in the table, which is kept at most
+ * three quarters full. Lookups of absent keys return the <em>missing
+ * value</em> passed to the constructor, 0 by default. This map is not
+ * synchronized.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public class UUIDLongMap extends AbstractUUIDHash {
+
+    /** The value returned for absent keys. */
+    private final long missingValue;
+
+    /** The values. */
+    private long[] values;
+
+    /**
+     * Creates an empty map with 0 as missing value.
+     */
+    public UUIDLongMap() {
+        this(DEFAULT_EXPECTED_SIZE, 0);
+    }
+
+    /**
+     * Creates an empty map that holds the given number of entries without resizing.
+     *
+     * @param expectedSize the expected number of entries
+     * @param missingValue the value returned for absent keys
+     * @throws IllegalArgumentException if <code>expectedSize</code> is negative or too large
+     */
+    public UUIDLongMap(int expectedSize, long missingValue) {
+        super(expectedSize);
+        this.missingValue = missingValue;
+    }
+
+    /**
+     * Returns the value returned for absent keys.
+     *
+     * @return the missing value
+     */
+    public long getMissingValue() {
+        return missingValue;
+    }
+
+    /**
+     * Associates a value with a UUID.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @param value the value
+     * @return the previous value or the missing value if the UUID was absent
+     */
+    public long put(long msb, long lsb, long value) {
+        int slot = find(msb, lsb);
+        if (slot >= 0) {
+            final long previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        slot = -slot - 1;
+        insert(slot, msb, lsb);
+        values[slot] = value;
+        afterInsert();
+        return missingValue;
+    }
+
+    /**
+     * Associates a value with a UUID.
+     *
+     * @param uuid the UUID
+     * @param value the value
+     * @return the previous value or the missing value if the UUID was absent
+     */
+    public long put(UUID uuid, long value) {
+        return put(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), value);
+    }
+
+    /**
+     * Adds to the value of a UUID. An absent UUID starts with the missing value.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @param delta the amount to add
+     * @return the new value
+     */
+    public long addTo(long msb, long lsb, long delta) {
+        int slot = find(msb, lsb);
+        if (slot >= 0) {
+            return values[slot] += delta;
+        }
+        slot = -slot - 1;
+        insert(slot, msb, lsb);
+        final long value = missingValue + delta;
+        values[slot] = value;
+        afterInsert();
+        return value;
+    }
+
+    /**
+     * Returns the value of a UUID.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @return the value or the missing value if the UUID is absent
+     */
+    public long get(long msb, long lsb) {
+        final int slot = find(msb, lsb);
+        return slot >= 0 ? values[slot] : missingValue;
+    }
+
+    /**
+     * Returns the value of a UUID.
+     *
+     * @param uuid the UUID
+     * @return the value or the missing value if the UUID is absent
+     */
+    public long get(UUID uuid) {
+        return get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Tests whether the map contains a UUID.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @return <code>true</code> if the map contains the UUID
+     */
+    public boolean containsKey(long msb, long lsb) {
+        return find(msb, lsb) >= 0;
+    }
+
+    /**
+     * Tests whether the map contains a UUID.
+     *
+     * @param uuid the UUID
+     * @return <code>true</code> if the map contains the UUID
+     */
+    public boolean containsKey(UUID uuid) {
+        return containsKey(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Removes a UUID.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @return the previous value or the missing value if the UUID was absent
+     */
+    public long remove(long msb, long lsb) {
+        final int slot = find(msb, lsb);
+        if (slot < 0) {
+            return missingValue;
+        }
+        final long previous = values[slot];
+        removeAt(slot);
+        return previous;
+    }
+
+    /**
+     * Removes a UUID.
+     *
+     * @param uuid the UUID
+     * @return the previous value or the missing value if the UUID was absent
+     */
+    public long remove(UUID uuid) {
+        return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Passes every key to a sink. The map must not be modified meanwhile.
+     *
+     * @param sink the sink
+     */
+    public void forEachKey(UUIDSink sink) {
+        visitKeys(sink);
+    }
+
+    /**
+     * Passes every entry to a visitor. The map must not be modified meanwhile.
+     *
+     * @param visitor the visitor
+     */
+    public void forEach(Visitor visitor) {
+        final int nil = mask + 1;
+        if (containsNil) {
+            visitor.visit(0, 0, values[nil]);
+        }
+        for (int i = 0; i < nil; i++) {
+            if ((msbs[i] | lsbs[i]) != 0) {
+                visitor.visit(msbs[i], lsbs[i], values[i]);
+            }
+        }
+    }
+
+    Object swapValues(int length) {
+        final long[] previous = values;
+        values = new long[length];
+        return previous;
+    }
+
+    Object values() {
+        return values;
+    }
+
+    void copyValue(Object from, int i, int j) {
+        values[j] = ((long[]) from)[i];
+    }
+
+    void clearValue(int slot) {
+        values[slot] = 0;
+    }
+
+    void clearValues() {
+        Arrays.fill(values, 0);
+    }
+
+    /**
+     * Receives the entries of a {@link UUIDLongMap}.
+     */
+    public interface Visitor {
+
+        /**
+         * Receives an entry.
+         *
+         * @param msb the most significant 64 bits of the UUID
+         * @param lsb the least significant 64 bits of the UUID
+         * @param value the value
+         */
+        void visit(long msb, long lsb, long value);
+    }
+}
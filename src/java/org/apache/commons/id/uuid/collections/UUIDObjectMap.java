@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid.collections;
+
+import java.util.Arrays;
+
+import org.apache.commons.id.uuid.UUID;
+import org.apache.commons.id.uuid.UUIDSink;
+
+/**
+ * <p>A map from UUIDs to objects.</p>
+ *
+ * <p>Each entry occupies 16 bytes and a reference in the table, which is
+ * kept at most three quarters full. <code>null</code> values are allowed,
+ * use {@link #containsKey(long, long)} to distinguish them from absent keys.
+ * This map is not synchronized.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public class UUIDObjectMap extends AbstractUUIDHash {
+
+    /** The values. */
+    private Object[] values;
+
+    /**
+     * Creates an empty map.
+     */
+    public UUIDObjectMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty map that holds the given number of entries without resizing.
+     *
+     * @param expectedSize the expected number of entries
+     * @throws IllegalArgumentException if <code>expectedSize</code> is negative or too large
+     */
+    public UUIDObjectMap(int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Associates a value with a UUID.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @param value the value
+     * @return the previous value or <code>null</code> if the UUID was absent
+     */
+    public Object put(long msb, long lsb, Object value) {
+        int slot = find(msb, lsb);
+        if (slot >= 0) {
+            final Object previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        slot = -slot - 1;
+        insert(slot, msb, lsb);
+        values[slot] = value;
+        afterInsert();
+        return null;
+    }
+
+    /**
+     * Associates a value with a UUID.
+     *
+     * @param uuid the UUID
+     * @param value the value
+     * @return the previous value or <code>null</code> if the UUID was absent
+     */
+    public Object put(UUID uuid, Object value) {
+        return put(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), value);
+    }
+
+    /**
+     * Returns the value of a UUID.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @return the value or <code>null</code> if the UUID is absent
+     */
+    public Object get(long msb, long lsb) {
+        final int slot = find(msb, lsb);
+        return slot >= 0 ? values[slot] : null;
+    }
+
+    /**
+     * Returns the value of a UUID.
+     *
+     * @param uuid the UUID
+     * @return the value or <code>null</code> if the UUID is absent
+     */
+    public Object get(UUID uuid) {
+        return get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Tests whether the map contains a UUID.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @return <code>true</code> if the map contains the UUID
+     */
+    public boolean containsKey(long msb, long lsb) {
+        return find(msb, lsb) >= 0;
+    }
+
+    /**
+     * Tests whether the map contains a UUID.
+     *
+     * @param uuid the UUID
+     * @return <code>true</code> if the map contains the UUID
+     */
+    public boolean containsKey(UUID uuid) {
+        return containsKey(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Removes a UUID.
+     *
+     * @param msb the most significant 64 bits of the UUID
+     * @param lsb the least significant 64 bits of the UUID
+     * @return the previous value or <code>null</code> if the UUID was absent
+     */
+    public Object remove(long msb, long lsb) {
+        final int slot = find(msb, lsb);
+        if (slot < 0) {
+            return null;
+        }
+        final Object previous = values[slot];
+        removeAt(slot);
+        return previous;
+    }
+
+    /**
+     * Removes a UUID.
+     *
+     * @param uuid the UUID
+     * @return the previous value or <code>null</code> if the UUID was absent
+     */
+    public Object remove(UUID uuid) {
+        return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Passes every key to a sink. The map must not be modified meanwhile.
+     *
+     * @param sink the sink
+     */
+    public void forEachKey(UUIDSink sink) {
+        visitKeys(sink);
+    }
+
+    /**
+     * Passes every entry to a visitor. The map must not be modified meanwhile.
+     *
+     * @param visitor the visitor
+     */
+    public void forEach(Visitor visitor) {
+        final int nil = mask + 1;
+        if (containsNil) {
+            visitor.visit(0, 0, values[nil]);
+        }
+        for (int i = 0; i < nil; i++) {
+            if ((msbs[i] | lsbs[i]) != 0) {
+                visitor.visit(msbs[i], lsbs[i], values[i]);
+            }
+        }
+    }
+
+    Object swapValues(int length) {
+        final Object[] previous = values;
+        values = new Object[length];
+        return previous;
+    }
+
+    Object values() {
+        return values;
+    }
+
+    void copyValue(Object from, int i, int j) {
+        values[j] = ((Object[]) from)[i];
+    }
+
+    void clearValue(int slot) {
+        values[slot] = null;
+    }
+
+    void clearValues() {
+        Arrays.fill(values, null);
+    }
+
+    /**
+     * Receives the entries of a {@link UUIDObjectMap}.
+     */
+    public interface Visitor {
+
+        /**
+         * Receives an entry.
+         *
+         * @param msb the most significant 64 bits of the UUID
+         * @param lsb the least significant 64 bits of the UUID
+         * @param value the value
+         */
+        void visit(long msb, long lsb, Object value);
+    }
+}
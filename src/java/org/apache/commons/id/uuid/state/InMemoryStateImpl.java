@@ -40,7 +40,7 @@ public class InMemoryStateImpl implements State {
      * @see org.apache.commons.id.uuid.state.State#load()
      */
     public void load() {
-       Node one = new Node(StateHelper.randomNodeIdentifier());
+       Node one = new Node(NodeIdentifier.get());
        nodes.add(one);
     }
 
@@ -19,6 +19,11 @@ package org.apache.commons.id.uuid.state;
 
 import java.util.Arrays;
 
+import org.apache.commons.id.metrics.GeneratorMetrics;
+import org.apache.commons.id.metrics.MetricEvent;
+import org.apache.commons.id.metrics.Metrics;
+import org.apache.commons.id.metrics.jfr.FlightRecorderEvents;
+import org.apache.commons.id.uuid.VersionOneGenerator;
 import org.apache.commons.id.uuid.clock.Clock;
 import org.apache.commons.id.uuid.clock.OverClockedException;
 
@@ -34,6 +39,12 @@ import org.apache.commons.id.uuid.clock.OverClockedException;
  */
 public class Node {
 
+    /** The name of the version one generator in flight recordings. */
+    private static final String GENERATOR = "VersionOneGenerator";
+
+    /** The metrics of the version one generator, <code>null</code> if metrics are disabled. */
+    private static final GeneratorMetrics METRICS = Metrics.forGenerator(VersionOneGenerator.class);
+
     /** The node identifier bytes this class represents. */
     private byte[] id;
 
@@ -116,6 +127,10 @@ public class Node {
         long newTime = clock.getUUIDTime();
         if (newTime <= lastTimestamp) {
             incrementClockSequence();
+            if (METRICS != null) {
+                METRICS.record(MetricEvent.CLOCK_SEQUENCE_INCREMENT, 1, lastTimestamp - newTime);
+            }
+            FlightRecorderEvents.clockSequenceIncrement(GENERATOR, lastTimestamp - newTime);
         }
         lastTimestamp = newTime;
         return newTime;
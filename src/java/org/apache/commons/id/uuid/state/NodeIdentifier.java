@@ -0,0 +1,387 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid.state;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.security.SecureRandom;
+import java.util.Enumeration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>Derives the node identifier of version 1 UUIDs without blocking on
+ * name resolution.</p>
+ *
+ * <p>The {@link Strategy} is selected with the system property
+ * {@value #STRATEGY_PROPERTY}. If it is not set, the identifier given by the
+ * system property {@value #NODE_PROPERTY} is used, and a random identifier
+ * if that is not set either.</p>
+ *
+ * <p>{@link #get()} resolves the identifier once and returns the cached
+ * value afterwards. Applications that cannot afford the resolution on their
+ * first UUID call {@link #warmUp()} at startup, which resolves the
+ * identifier on a background thread; <code>get()</code> then waits for that
+ * thread at most.</p>
+ *
+ * @author Commons-Id Team
+ * @version $Id$
+ */
+public final class NodeIdentifier {
+
+    /** The system property selecting the {@link Strategy} by name. */
+    public static final String STRATEGY_PROPERTY = "org.apache.commons.id.uuid.node.strategy";
+
+    /** The system property with the configured identifier, in the form XX-XX-XX-XX-XX-XX. */
+    public static final String NODE_PROPERTY = "org.apache.commons.id.uuid.node";
+
+    /** The file listing the control groups of this process on Linux. */
+    private static final String CGROUP_FILE = "/proc/self/cgroup";
+
+    /** The length of a container identifier in the control group path. */
+    private static final int CONTAINER_ID_LENGTH = 64;
+
+    /** The identifier of the default strategy, resolved once. */
+    private static final AtomicReference DEFAULT = new AtomicReference();
+
+    /** The hardware address, resolved once. */
+    private static final AtomicReference HARDWARE_ADDRESS = new AtomicReference();
+
+    /**
+     * <p>Hide constructor in utility class.</p>
+     */
+    private NodeIdentifier() {
+    }
+
+    /**
+     * Returns the node identifier of the default strategy, resolving it on
+     * the first call or waiting for a running {@link #warmUp()}.
+     *
+     * @return a copy of the 6 byte node identifier
+     * @throws IllegalStateException if the strategy fails, the next call tries again
+     */
+    public static byte[] get() {
+        FutureTask task = (FutureTask) DEFAULT.get();
+        while (task == null) {
+            final FutureTask created = newTask();
+            if (DEFAULT.compareAndSet(null, created)) {
+                created.run();
+                task = created;
+            } else {
+                // null again if the winning task failed and was removed
+                task = (FutureTask) DEFAULT.get();
+            }
+        }
+        try {
+            return ((byte[]) task.get()).clone();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while resolving the node identifier");
+        } catch (ExecutionException e) {
+            // resolve again on the next call, the failure may be transient
+            DEFAULT.compareAndSet(task, null);
+            throw new IllegalStateException("Cannot resolve the node identifier", e.getCause());
+        }
+    }
+
+    /**
+     * Starts resolving the node identifier of the default strategy on a
+     * daemon thread. Does nothing if it is already resolved or resolving.
+     */
+    public static void warmUp() {
+        final FutureTask task = newTask();
+        if (DEFAULT.compareAndSet(null, task)) {
+            final Thread thread = new Thread(task, "commons-id-node-identifier");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Returns the default strategy, selected by the system properties.
+     *
+     * @return the default strategy
+     * @throws IllegalArgumentException if {@value #STRATEGY_PROPERTY} names no strategy
+     */
+    public static Strategy getDefaultStrategy() {
+        final String name = System.getProperty(STRATEGY_PROPERTY);
+        if (name != null) {
+            return Strategy.valueOf(name);
+        }
+        return System.getProperty(NODE_PROPERTY) != null ? Strategy.CONFIGURED : Strategy.RANDOM;
+    }
+
+    /**
+     * Derives a node identifier with a strategy. The hardware address is
+     * looked up once, the other strategies derive a new identifier on every
+     * call.
+     *
+     * @param strategy the strategy
+     * @return the 6 byte node identifier
+     * @throws IllegalStateException if the strategy fails
+     */
+    public static byte[] resolve(Strategy strategy) {
+        if (strategy == Strategy.HARDWARE_ADDRESS) {
+            byte[] address = (byte[]) HARDWARE_ADDRESS.get();
+            if (address == null) {
+                address = hardwareAddress();
+                HARDWARE_ADDRESS.compareAndSet(null, address);
+            }
+            return address.clone();
+        } else if (strategy == Strategy.CONFIGURED) {
+            final String configured = System.getProperty(NODE_PROPERTY);
+            final byte[] node = configured == null ? null : StateHelper.decodeMACAddress(configured);
+            if (node == null || node.length != StateHelper.NODE_ID_BYTE_LENGTH) {
+                throw new IllegalStateException("Invalid node identifier in " + NODE_PROPERTY + ": " + configured);
+            }
+            return node;
+        } else if (strategy == Strategy.PROCESS) {
+            return processIdentifier(processId(), containerId());
+        } else {
+            final byte[] node = new byte[StateHelper.NODE_ID_BYTE_LENGTH];
+            new SecureRandom().nextBytes(node);
+            node[0] |= StateHelper.MULTICAST_BIT_SET;
+            return node;
+        }
+    }
+
+    /**
+     * Creates the task resolving the identifier of the default strategy.
+     *
+     * @return the task
+     */
+    private static FutureTask newTask() {
+        return new FutureTask(new Callable() {
+            public Object call() {
+                return resolve(getDefaultStrategy());
+            }
+        });
+    }
+
+    /**
+     * Looks up the hardware address of the first network interface that is
+     * up and neither a loopback nor a virtual interface.
+     *
+     * @return the 6 byte address
+     * @throws IllegalStateException if there is no such interface
+     */
+    private static byte[] hardwareAddress() {
+        try {
+            final Enumeration interfaces = NetworkInterface.getNetworkInterfaces();
+            while (interfaces != null && interfaces.hasMoreElements()) {
+                final NetworkInterface ni = (NetworkInterface) interfaces.nextElement();
+                if (ni.isLoopback() || ni.isVirtual() || !ni.isUp()) {
+                    continue;
+                }
+                final byte[] address = ni.getHardwareAddress();
+                if (address != null && address.length == StateHelper.NODE_ID_BYTE_LENGTH && !isZero(address)) {
+                    return address;
+                }
+            }
+        } catch (SocketException e) {
+            throw new IllegalStateException("Cannot list the network interfaces: " + e.getMessage());
+        }
+        throw new IllegalStateException("No network interface with a hardware address");
+    }
+
+    /**
+     * Checks if all bytes of an array are zero.
+     *
+     * @param bytes the array
+     * @return <code>true</code> if all bytes are zero
+     */
+    private static boolean isZero(byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Derives a node identifier from a process and its container. The low 24
+     * bits hold the process identifier, so processes of one container never
+     * share an identifier. The high 24 bits hold a hash of the container
+     * identifier, with the multicast bit set.
+     *
+     * @param pid the process identifier
+     * @param containerId the container identifier, or the host name outside containers
+     * @return the 6 byte node identifier
+     */
+    static byte[] processIdentifier(long pid, String containerId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < containerId.length(); i++) {
+            hash = (hash ^ containerId.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 32;
+        final byte[] node = new byte[StateHelper.NODE_ID_BYTE_LENGTH];
+        node[0] = (byte) (hash >>> 16);
+        node[1] = (byte) (hash >>> 8);
+        node[2] = (byte) hash;
+        node[3] = (byte) (pid >>> 16);
+        node[4] = (byte) (pid >>> 8);
+        node[5] = (byte) pid;
+        node[0] |= StateHelper.MULTICAST_BIT_SET;
+        return node;
+    }
+
+    /**
+     * Returns the identifier of this process, without resolving the host
+     * name. If neither <code>ProcessHandle</code> nor <code>/proc</code> is
+     * available, as on Java 8 outside Linux, a random value stands in for it:
+     * <code>RuntimeMXBean.getName()</code> would resolve the host name there.
+     *
+     * @return the process identifier
+     */
+    private static long processId() {
+        try {
+            // Java 9 and later
+            final Class handle = Class.forName("java.lang.ProcessHandle");
+            final Object current = handle.getMethod("current", new Class[0]).invoke(null, new Object[0]);
+            return ((Long) handle.getMethod("pid", new Class[0]).invoke(current, new Object[0])).longValue();
+        } catch (Exception e) {
+            // fall through
+        }
+        try {
+            return Long.parseLong(new File("/proc/self").getCanonicalFile().getName());
+        } catch (IOException e) {
+            // fall through
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        return new SecureRandom().nextInt() & 0xFFFFFF;
+    }
+
+    /**
+     * Returns the identifier of the container of this process: the 64 digit
+     * identifier in its control group, else the <code>HOSTNAME</code>
+     * environment variable, which container runtimes set to the container
+     * identifier, else an empty string.
+     *
+     * @return the container identifier
+     */
+    private static String containerId() {
+        final File cgroup = new File(CGROUP_FILE);
+        if (cgroup.canRead()) {
+            BufferedReader reader = null;
+            try {
+                reader = new BufferedReader(new FileReader(cgroup));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    final String id = containerId(line);
+                    if (id != null) {
+                        return id;
+                    }
+                }
+            } catch (IOException e) {
+                // fall through
+            } finally {
+                if (reader != null) {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        // Nothing to do at this point.
+                    }
+                }
+            }
+        }
+        final String hostname = System.getenv("HOSTNAME");
+        return hostname != null ? hostname : "";
+    }
+
+    /**
+     * Finds a container identifier, a run of 64 hexadecimal digits, in a
+     * control group line.
+     *
+     * @param line the line
+     * @return the identifier or <code>null</code>
+     */
+    static String containerId(String line) {
+        int run = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (Character.digit(line.charAt(i), 16) >= 0) {
+                if (++run == CONTAINER_ID_LENGTH
+                        && (i + 1 == line.length() || Character.digit(line.charAt(i + 1), 16) < 0)) {
+                    return line.substring(i + 1 - CONTAINER_ID_LENGTH, i + 1);
+                }
+            } else {
+                run = 0;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A way to derive the node identifier.
+     */
+    public static final class Strategy {
+
+        /** The hardware address of a network interface, looked up once. */
+        public static final Strategy HARDWARE_ADDRESS = new Strategy("HARDWARE_ADDRESS");
+
+        /** A random identifier from a <code>SecureRandom</code>, with the multicast bit set. */
+        public static final Strategy RANDOM = new Strategy("RANDOM");
+
+        /** The identifier in the system property {@value NodeIdentifier#NODE_PROPERTY}. */
+        public static final Strategy CONFIGURED = new Strategy("CONFIGURED");
+
+        /** The process identifier and a hash of the container identifier, with the multicast bit set. */
+        public static final Strategy PROCESS = new Strategy("PROCESS");
+
+        /** All strategies. */
+        private static final Strategy[] VALUES = {HARDWARE_ADDRESS, RANDOM, CONFIGURED, PROCESS};
+
+        /** The name of the strategy. */
+        private final String name;
+
+        /**
+         * Constructor.
+         *
+         * @param name the name of the strategy
+         */
+        private Strategy(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the strategy with a name, ignoring case.
+         *
+         * @param name the name
+         * @return the strategy
+         * @throws IllegalArgumentException if no strategy has the name
+         */
+        public static Strategy valueOf(String name) {
+            for (int i = 0; i < VALUES.length; i++) {
+                if (VALUES[i].name.equalsIgnoreCase(name.trim())) {
+                    return VALUES[i];
+                }
+            }
+            throw new IllegalArgumentException("Unknown node identifier strategy: " + name);
+        }
+
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.commons.id.uuid.state;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashSet;
@@ -25,6 +26,11 @@ import java.util.Set;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
+import org.apache.commons.id.metrics.GeneratorMetrics;
+import org.apache.commons.id.metrics.MetricEvent;
+import org.apache.commons.id.metrics.Metrics;
+import org.apache.commons.id.metrics.jfr.FlightRecorderEvents;
+import org.apache.commons.id.uuid.VersionOneGenerator;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
@@ -44,6 +50,12 @@ import org.xml.sax.helpers.DefaultHandler;
  */
 public class ReadOnlyResourceStateImpl implements State {
 
+    /** The name of the version one generator in flight recordings. */
+    private static final String GENERATOR = "VersionOneGenerator";
+
+    /** The metrics of the version one generator, <code>null</code> if metrics are disabled. */
+    private static final GeneratorMetrics METRICS = Metrics.forGenerator(VersionOneGenerator.class);
+
     /** How often to write to stable storage - since this is read-only make it largest. */
     static long synchronizeInterval = Long.MAX_VALUE;
 
@@ -65,7 +77,7 @@ public class ReadOnlyResourceStateImpl implements State {
 
     /**
      * <p>Loads the System.property &quot;commons.uuid.configFileName&quot;
-     * (default is &quot;uuid.conf&quot;) using commons.discovery.</p>
+     * (default is &quot;uuid.conf&quot;) as a system resource.</p>
      * <p>
      * The uuid-[n].conf file is an xml file with the following syntax:<br>
      * <pre>
@@ -110,7 +122,18 @@ public class ReadOnlyResourceStateImpl implements State {
                         " loaded as system resource is null");
             }
             //Do the XML parsing
-            parse(in);
+            final Object event = FlightRecorderEvents.beginStateIO();
+            if (METRICS != null || event != null) {
+                final long start = System.nanoTime();
+                final CountingInputStream counting = new CountingInputStream(in);
+                parse(counting);
+                if (METRICS != null) {
+                    METRICS.record(MetricEvent.STATE_LOAD, System.nanoTime() - start, counting.count);
+                }
+                FlightRecorderEvents.commitStateIO(event, GENERATOR, true, counting.count);
+            } else {
+                parse(in);
+            }
         } finally {
             if (in != null) {
                 try {
@@ -290,4 +313,44 @@ public class ReadOnlyResourceStateImpl implements State {
         }
     }
     //--------------------------------------------------------------------------
+
+    /**
+     * <p>Counts the bytes read from a stream.</p>
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        /** The number of bytes read. */
+        long count;
+
+        /**
+         * Constructor.
+         *
+         * @param in the stream to count
+         */
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
 }
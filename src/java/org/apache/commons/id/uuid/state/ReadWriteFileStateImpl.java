@@ -18,12 +18,22 @@
 package org.apache.commons.id.uuid.state;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URL;
 import java.util.Iterator;
 import java.util.Set;
 
+import org.apache.commons.id.metrics.GeneratorMetrics;
+import org.apache.commons.id.metrics.MetricEvent;
+import org.apache.commons.id.metrics.Metrics;
+import org.apache.commons.id.metrics.jfr.FlightRecorderEvents;
+import org.apache.commons.id.uuid.VersionOneGenerator;
+
 /**
  * <p>The <code>ReadWriteFileStateImpl</code> is an implementation of the
  * <code>State</code> interface. This implementation provides better guarantees
@@ -35,6 +45,12 @@ import java.util.Set;
  */
 public class ReadWriteFileStateImpl extends ReadOnlyResourceStateImpl implements State {
 
+    /** The name of the version one generator in flight recordings. */
+    private static final String GENERATOR = "VersionOneGenerator";
+
+    /** The metrics of the version one generator, <code>null</code> if metrics are disabled. */
+    private static final GeneratorMetrics METRICS = Metrics.forGenerator(VersionOneGenerator.class);
+
     /**
      * Persists the UUID generator state to file.
      *
@@ -113,16 +129,26 @@ public class ReadWriteFileStateImpl extends ReadOnlyResourceStateImpl implements
             if (rUrl != null) {
                 File file = new File(rUrl.getFile());
                 if (file != null && file.canWrite()) {
-                    FileWriter fw = null;
+                    final Object event = FlightRecorderEvents.beginStateIO();
+                    final long start = METRICS != null ? System.nanoTime() : 0;
+                    Writer fw = null;
                     try {
-                        fw = new FileWriter(file);
+                        final CountingOutputStream counting =
+                            new CountingOutputStream(new FileOutputStream(file));
+                        fw = new OutputStreamWriter(counting, "UTF-8");
                         fw.write(xml);
                         fw.close();
+                        if (METRICS != null) {
+                            METRICS.record(MetricEvent.STATE_STORE, System.nanoTime() - start, counting.count);
+                        }
+                        FlightRecorderEvents.commitStateIO(event, GENERATOR, false, counting.count);
                     } catch (IOException ioe) {
                         //@TODO log it?
                     } finally {
                         try {
-                            fw.close();
+                            if (fw != null) {
+                                fw.close();
+                            }
                         } catch (IOException ioee) {
                             ; //Nothing to do.
                         }
@@ -133,4 +159,33 @@ public class ReadWriteFileStateImpl extends ReadOnlyResourceStateImpl implements
             }
         }
     }
+    //--------------------------------------------------------------------------
+
+    /**
+     * <p>Counts the bytes written to a stream.</p>
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        /** The number of bytes written. */
+        long count;
+
+        /**
+         * Constructor.
+         *
+         * @param out the stream to count
+         */
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
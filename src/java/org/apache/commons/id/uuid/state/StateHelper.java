@@ -18,20 +18,14 @@
 package org.apache.commons.id.uuid.state;
 
 import java.io.IOException;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.util.Collection;
-import java.util.Iterator;
 import java.util.Random;
 import java.util.StringTokenizer;
 
 import org.apache.commons.id.DecoderException;
-import org.apache.commons.discovery.tools.DiscoverClass;
 import org.apache.commons.id.uuid.Bytes;
 import org.apache.commons.id.uuid.Constants;
+import org.apache.commons.id.uuid.ProviderRegistry;
 import org.apache.commons.id.uuid.clock.Clock;
-import org.apache.commons.id.uuid.clock.OverClockedException;
-import org.apache.commons.id.DigestUtils;
 import org.apache.commons.id.Hex;
 
 /**
@@ -61,13 +55,7 @@ public final class StateHelper implements Constants {
     public static final short HOSTNAME_MAX_CHAR_LEN = 255;
 
     /** OR-Mask to set the node's multicast bit true. */
-    private static final int MULTICAST_BIT_SET = 0x80;
-
-    /** The maximum character length of a long */
-    private static final short LONG_CHAR_LEN = 19;
-
-    /** Standard one page buffer size */
-    private static final int BUF_PAGE_SZ = 1024;
+    static final int MULTICAST_BIT_SET = 0x80;
 
     /** Start of the XML document used to store state persistence in XML */
     protected static final String XML_DOC_START = "<?xml version=\"1.0\""
@@ -108,51 +96,11 @@ public final class StateHelper implements Constants {
      * <p>Creates a Random node identifier as described in IEFT UUID URN
      * specification.</p>
      *
-     * @return a random node idenfifier based on MD5 of system information.
+     * @return a random node idenfifier from a <code>SecureRandom</code>.
+     * @see NodeIdentifier.Strategy#RANDOM
      */
     public static byte[] randomNodeIdentifier() {
-        //Holds the 16 byte MD5 value
-        byte[] seed = new byte[UUID_BYTE_LENGTH];
-        //Set the initial string buffer capacity
-        //Time + Object.hashCode + HostName + Guess of all system properties
-        int bufSize = (LONG_CHAR_LEN * 2) + HOSTNAME_MAX_CHAR_LEN + (2 * BUF_PAGE_SZ);
-        StringBuffer randInfo = new StringBuffer(bufSize);
-        //Add current time
-        long time = 0;
-        try {
-            time = getClockImpl().getUUIDTime();
-        } catch (OverClockedException oce) {
-            time = System.currentTimeMillis();
-        }
-        randInfo.append(time);
-
-        //Add hostname
-        try {
-            InetAddress address = InetAddress.getLocalHost();
-            randInfo.append(address.getHostName());
-        } catch (UnknownHostException ukhe) {
-            randInfo.append("Host Unknown");
-        }
-        //Add something else "random"
-        randInfo.append(new Object().hashCode());
-
-        //Add system properties
-        Collection info = System.getProperties().values();
-        Iterator it = info.iterator();
-        while (it.hasNext()) {
-            randInfo.append(it.next());
-        }
-        //MD5 Hash code the system information to get a node id.
-        seed = DigestUtils.md5(randInfo.toString());
-
-        //Return upper 6 bytes of hash
-        byte[] raw = new byte[NODE_ID_BYTE_LENGTH];
-        System.arraycopy(seed, 0, raw, 0, NODE_ID_BYTE_LENGTH);
-
-        //Per draft set multi-cast bit true
-        raw[0] |= MULTICAST_BIT_SET;
-
-        return raw;
+        return NodeIdentifier.resolve(NodeIdentifier.Strategy.RANDOM);
     }
 
     /**
@@ -168,17 +116,15 @@ public final class StateHelper implements Constants {
     }
 
     /**
-     * <p>Returns the Clock implementation using commons discovery.</p>
+     * <p>Returns a new instance of the Clock implementation located by the
+     * {@link ProviderRegistry}.</p>
      *
-     * @return the Clock implementation using commons discovery.
+     * @return the Clock implementation, null if it cannot be instantiated.
      */
     public static Clock getClockImpl() {
         Clock c = null;
         try {
-             DiscoverClass dc = new DiscoverClass();
-             c = (Clock) dc.newInstance(
-             Clock.class,
-             Clock.DEFAULT_CLOCK_IMPL);
+             c = (Clock) ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL);
         } catch (Exception ex) {
              // ignore as default implementation will be used.
         }
@@ -186,17 +132,15 @@ public final class StateHelper implements Constants {
     }
 
     /**
-     * <p>Returns the <code>State</code> implementation in use.</p>
+     * <p>Returns a new instance of the <code>State</code> implementation
+     * located by the {@link ProviderRegistry}.</p>
      *
-     * @return the <code>State</code> implementation in use.
+     * @return the <code>State</code> implementation, null if it cannot be instantiated.
      */
     public static State getStateImpl() {
         State s = null;
         try {
-             DiscoverClass dc = new DiscoverClass();
-             s = (State) dc.newInstance(
-             State.class,
-             State.DEFAULT_STATE_IMPL);
+             s = (State) ProviderRegistry.newInstance(State.class, State.DEFAULT_STATE_IMPL);
         } catch (Exception ex) {
              // ignore as default implementation will be used.
         }
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the {@link Base36} codec.
+ *
+ * @author Commons-Id team
+ * @version $Id$
+ */
+public class Base36Test extends TestCase {
+
+    /**
+     * Test that the encoding matches <code>Long.toString(value, 36)</code>.
+     */
+    public void testEncodeMatchesLongToString() {
+        final Random random = new Random(42);
+        final char[] buffer = new char[Base36.MAX_LONG_LENGTH];
+        final long[] values = {0, 1, 35, 36, 1295, 1296, Long.MAX_VALUE};
+        for (int i = 0; i < values.length + 1000; i++) {
+            final long value = i < values.length ? values[i] : random.nextLong() >>> (1 + i % 63);
+            final String expected = Long.toString(value, 36);
+            assertEquals(expected.length(), Base36.length(value));
+            final int end = Base36.encode(value, buffer, 0);
+            assertEquals(expected, new String(buffer, 0, end));
+        }
+        assertEquals(Long.toString(Long.MAX_VALUE, 36).length(), Base36.MAX_LONG_LENGTH);
+    }
+
+    /**
+     * Test fixed width encoding pads with zeros and respects the offset.
+     */
+    public void testEncodeFixedWidth() {
+        final char[] buffer = {'x', 'x', 'x', 'x', 'x', 'x'};
+        assertEquals(5, Base36.encode(36, buffer, 1, 4));
+        assertEquals("x0010x", new String(buffer));
+        assertEquals(3, Base36.encode(0, buffer, 0, 3));
+        assertEquals("00010x", new String(buffer));
+        assertEquals(0, Base36.encode(0, buffer, 0, 0));
+    }
+
+    /**
+     * Test appending to a <code>StringBuilder</code>.
+     */
+    public void testEncodeToStringBuilder() {
+        final StringBuilder buffer = new StringBuilder("x");
+        assertSame(buffer, Base36.encode(36, buffer, 4));
+        assertSame(buffer, Base36.encode(Long.MAX_VALUE, buffer));
+        Base36.encode(0, buffer, 0);
+        assertEquals("x0010" + Long.toString(Long.MAX_VALUE, 36), buffer.toString());
+        try {
+            Base36.encode(36, buffer, 1);
+            fail("Thrown " + IllegalArgumentException.class.getName() + " expected");
+        } catch (final IllegalArgumentException e) {
+            // OK
+        }
+    }
+
+    /**
+     * Test that values that do not fit are rejected.
+     */
+    public void testEncodeRejectsIllegalValues() {
+        final char[] buffer = new char[Base36.MAX_LONG_LENGTH];
+        try {
+            Base36.encode(36, buffer, 0, 1);
+            fail("Thrown " + IllegalArgumentException.class.getName() + " expected");
+        } catch (final IllegalArgumentException e) {
+            // OK
+        }
+        try {
+            Base36.encode(-1, buffer, 0);
+            fail("Thrown " + IllegalArgumentException.class.getName() + " expected");
+        } catch (final IllegalArgumentException e) {
+            // OK
+        }
+        try {
+            Base36.encode(1, buffer, 0, 0);
+            fail("Thrown " + IllegalArgumentException.class.getName() + " expected");
+        } catch (final IllegalArgumentException e) {
+            // OK
+        }
+    }
+
+    /**
+     * Test the maximum values per width.
+     */
+    public void testMaxValue() {
+        assertEquals(0, Base36.maxValue(0));
+        assertEquals(35, Base36.maxValue(1));
+        assertEquals(46655, Base36.maxValue(3));
+        assertEquals(Long.MAX_VALUE, Base36.maxValue(Base36.MAX_LONG_LENGTH));
+        assertEquals(Long.MAX_VALUE, Base36.maxValue(20));
+    }
+
+    /**
+     * Test decoding from char arrays and strings.
+     */
+    public void testDecode() {
+        final String max = Long.toString(Long.MAX_VALUE, 36);
+        assertEquals(Long.MAX_VALUE, Base36.decode(max, 0, max.length()));
+        assertEquals(Long.MAX_VALUE, Base36.decode(max.toUpperCase(), 0, max.length()));
+        assertEquals(36, Base36.decode("xx0010xx".toCharArray(), 2, 4));
+        assertEquals(35, Base36.decode("xx0010zx", 6, 1));
+    }
+
+    /**
+     * Test decoding rejects illegal input.
+     */
+    public void testDecodeRejectsIllegalInput() {
+        final String[] illegal = {"", "-1", "1y2p0ij32e8e8", "zzzzzzzzzzzzz", "a b"};
+        for (int i = 0; i < illegal.length; i++) {
+            try {
+                Base36.decode(illegal[i], 0, illegal[i].length());
+                fail("Thrown " + NumberFormatException.class.getName() + " expected for '"
+                    + illegal[i] + "'");
+            } catch (final NumberFormatException e) {
+                // OK
+            }
+        }
+        assertEquals(-1, Base36.digit('\u00e4'));
+    }
+}
@@ -21,6 +21,8 @@ import junit.framework.TestSuite;
 
 import org.apache.commons.id.serial.AlphanumericGenerator;
 import org.apache.commons.id.serial.NumericGenerator;
+import org.apache.commons.id.serial.PrefixedLeftPaddedNumericGenerator;
+import org.apache.commons.id.serial.PrefixedNumericGenerator;
 import org.apache.commons.id.test.AssertSerialization;
 
 import java.io.Serializable;
@@ -116,6 +118,55 @@ public class CompositeIdentifierGeneratorTest extends TestCase {
                 generator.nextStringIdentifier());
     }
     
+    public void testAppendTo() {
+        StringIdentifierGenerator generator =
+            CompositeIdentifierGenerator.getInstance(new StringIdentifierGenerator[] {
+                new PrefixedNumericGenerator("n", false, 7),
+                ConstantIdentifierGenerator.getInstance("-"),
+                new PrefixedLeftPaddedNumericGenerator("p", false, 4),
+                CompositeIdentifierGenerator.getInstance(makeTestArray())});
+        StringBuilder buffer = new StringBuilder("id:");
+        assertSame(buffer, generator.appendTo(buffer));
+        assertEquals("id:n7-p0010000000000000001", buffer.toString());
+        assertEquals("n8-p0021000000000000002", generator.nextStringIdentifier());
+        assertEquals(generator.maxLength(), 20 + 1 + 4 + 16 + 20);
+    }
+
+    public void testAppendToOfPlainImplementation() {
+        StringIdentifierGenerator plain = new StringIdentifierGenerator() {
+            public String nextStringIdentifier() {
+                return "plain";
+            }
+            public Object nextIdentifier() {
+                return nextStringIdentifier();
+            }
+            public long maxLength() {
+                return 5;
+            }
+            public long minLength() {
+                return 5;
+            }
+        };
+        StringIdentifierGenerator generator =
+            CompositeIdentifierGenerator.getInstance(new StringIdentifierGenerator[] {
+                ConstantIdentifierGenerator.getInstance("x"), plain});
+        assertEquals("id:xplain", generator.appendTo(new StringBuilder("id:")).toString());
+    }
+
+    public void testUnboundedLength() {
+        StringIdentifierGenerator generator =
+            CompositeIdentifierGenerator.getInstance(new StringIdentifierGenerator[] {
+                ConstantIdentifierGenerator.getInstance("x"),
+                new AbstractStringIdentifierGenerator() {
+                    public String nextStringIdentifier() {
+                        return "unbounded";
+                    }
+                }});
+        assertEquals(StringIdentifierGenerator.INFINITE_MAX_LENGTH, generator.maxLength());
+        assertEquals(1, generator.minLength());
+        assertEquals("xunbounded", generator.nextStringIdentifier());
+    }
+
     public void testLength() {
         StringIdentifierGenerator[] generators = makeTestArray();
         StringIdentifierGenerator generator =
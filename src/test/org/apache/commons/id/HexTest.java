@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the {@link Hex} codec.
+ *
+ * @author Commons-Id team
+ * @version $Id$
+ */
+public class HexTest extends TestCase {
+
+    /**
+     * Test that all byte values are encoded and decoded again.
+     */
+    public void testRoundTrip() throws Exception {
+        final byte[] data = new byte[256];
+        final StringBuffer expected = new StringBuffer();
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+            expected.append(i < 16 ? "0" : "").append(Integer.toHexString(i));
+        }
+        final char[] chars = Hex.encodeHex(data);
+        assertEquals(expected.toString(), new String(chars));
+        assertTrue(Arrays.equals(data, Hex.decodeHex(chars)));
+        assertTrue(Arrays.equals(data, Hex.decodeHex(expected.toString().toUpperCase().toCharArray())));
+        final Hex hex = new Hex();
+        assertTrue(Arrays.equals(expected.toString().getBytes("US-ASCII"), hex.encode(data)));
+        assertTrue(Arrays.equals(data, hex.decode(hex.encode(data))));
+    }
+
+    /**
+     * Test encoding and decoding of ranges.
+     */
+    public void testRanges() throws Exception {
+        final byte[] data = {0x01, (byte) 0xab, (byte) 0xcd, (byte) 0xef};
+        final char[] chars = "xx....xx".toCharArray();
+        assertEquals(6, Hex.encodeTo(data, 1, 2, chars, 2));
+        assertEquals("xxabcdxx", new String(chars));
+        final byte[] ascii = new byte[4];
+        assertEquals(4, Hex.encodeTo(data, 2, 2, ascii, 0));
+        assertEquals("cdef", new String(ascii, "US-ASCII"));
+
+        final byte[] out = new byte[3];
+        assertEquals(3, Hex.decodeTo(chars, 2, 4, out, 1));
+        assertEquals((byte) 0xab, out[1]);
+        assertEquals((byte) 0xcd, out[2]);
+        assertEquals(1, Hex.decodeTo("--EF", 2, 2, out, 0));
+        assertEquals((byte) 0xef, out[0]);
+        assertEquals(2, Hex.decodeTo(ascii, 2, 2, out, 1));
+        assertEquals((byte) 0xef, out[1]);
+    }
+
+    /**
+     * Test the <code>ByteBuffer</code> overloads with heap and direct buffers.
+     */
+    public void testByteBuffers() throws Exception {
+        final byte[] data = {0x00, 0x7f, (byte) 0x80, (byte) 0xff};
+        for (int direct = 0; direct < 2; direct++) {
+            final ByteBuffer src = allocate(data.length, direct == 1);
+            src.put(data).flip();
+            final ByteBuffer chars = allocate(8, direct == 1);
+            Hex.encodeTo(src, chars);
+            assertFalse(src.hasRemaining());
+            assertFalse(chars.hasRemaining());
+            chars.flip();
+            final byte[] ascii = new byte[8];
+            chars.duplicate().get(ascii);
+            assertEquals("007f80ff", new String(ascii, "US-ASCII"));
+
+            final ByteBuffer out = allocate(4, direct == 1);
+            Hex.decodeTo(chars, out);
+            assertFalse(chars.hasRemaining());
+            out.flip();
+            final byte[] decoded = new byte[4];
+            out.get(decoded);
+            assertTrue(Arrays.equals(data, decoded));
+
+            src.rewind();
+            try {
+                Hex.encodeTo(src, allocate(7, direct == 1));
+                fail("Thrown " + BufferOverflowException.class.getName() + " expected");
+            } catch (final BufferOverflowException e) {
+                assertEquals(0, src.position());
+            }
+        }
+    }
+
+    /**
+     * Test that illegal input is rejected.
+     */
+    public void testIllegalInput() {
+        final String[] illegal = {"0", "0g", "g0", "\u00e40", "0\u0130", "\uff10\uff10", "12 4"};
+        for (int i = 0; i < illegal.length; i++) {
+            try {
+                Hex.decodeHex(illegal[i].toCharArray());
+                fail("Thrown " + DecoderException.class.getName() + " expected for '"
+                    + illegal[i] + "'");
+            } catch (final DecoderException e) {
+                // OK
+            }
+        }
+        try {
+            new Hex().decode(new byte[]{'a', (byte) 0xe1});
+            fail("Thrown " + DecoderException.class.getName() + " expected");
+        } catch (final DecoderException e) {
+            // OK
+        }
+        final ByteBuffer src = ByteBuffer.allocateDirect(2);
+        src.put((byte) 'a').put((byte) 'x').flip();
+        try {
+            Hex.decodeTo(src, ByteBuffer.allocate(1));
+            fail("Thrown " + DecoderException.class.getName() + " expected");
+        } catch (final DecoderException e) {
+            assertEquals(0, src.position());
+        }
+    }
+
+    /**
+     * Test the single digit methods against <code>Character</code>.
+     */
+    public void testDigits() {
+        for (int ch = 0; ch < 0x10000; ch++) {
+            final int expected = ch < 0x80 ? Character.digit((char) ch, 16) : -1;
+            assertEquals(expected, Math.max(-1, Hex.digit(ch)));
+        }
+        for (int value = 0; value < 16; value++) {
+            assertEquals(Character.forDigit(value, 16), Hex.forDigit(value));
+        }
+        assertEquals('f', Hex.forDigit(0x7F));
+    }
+
+    private static ByteBuffer allocate(final int capacity, final boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.id.serial.LongGenerator;
+import org.apache.commons.id.serial.NumericGenerator;
+import org.apache.commons.id.uuid.UUID;
+import org.apache.commons.id.uuid.VersionFourGenerator;
+
+/**
+ * Unit tests for {@link IdentifierStreams} and the streams of
+ * {@link LongGenerator}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class IdentifierStreamsTest extends TestCase {
+
+    /**
+     * Test sequential and parallel streams of a generator.
+     */
+    public void testStream() {
+        List ids = (List) IdentifierStreams.stream(new NumericGenerator(false, 0), 5).collect(Collectors.toList());
+        assertEquals("[0, 1, 2, 3, 4]", ids.toString());
+        assertEquals(3, IdentifierStreams.stream(new NumericGenerator(false, 0)).limit(3).count());
+
+        Stream parallel = (Stream) IdentifierStreams.stream(VersionFourGenerator.getInstance(), 50000).parallel();
+        Set uuids = (Set) parallel.collect(Collectors.toSet());
+        assertEquals(50000, uuids.size());
+        assertTrue(uuids.iterator().next() instanceof UUID);
+        assertEquals(50000, IdentifierStreams.stream(VersionFourGenerator.getInstance(), 50000).spliterator().estimateSize());
+    }
+
+    /**
+     * Test batches.
+     */
+    public void testNext() {
+        Object[] ids = new Object[5];
+        assertEquals(4, IdentifierStreams.next(new NumericGenerator(false, 7), ids, 1, 3));
+        assertNull(ids[0]);
+        assertEquals("9", ids[3]);
+        try {
+            IdentifierStreams.next(new NumericGenerator(false, 7), ids, 3, 3);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Test range reservation of a long generator.
+     */
+    public void testLongs() {
+        LongGenerator generator = new LongGenerator(false, 10);
+        assertEquals(10, generator.reserve(5));
+        assertEquals(new Long(15), generator.nextLongIdentifier());
+        assertEquals(16 * 100000L + 100000L * 99999 / 2, generator.longs(100000).parallel().sum());
+        assertEquals(new Long(100016), generator.nextLongIdentifier());
+
+        LongGenerator wrapping = new LongGenerator(true, Long.MAX_VALUE - 1);
+        long[] values = wrapping.longs(3).toArray();
+        assertEquals(Long.MAX_VALUE, values[1]);
+        assertEquals(Long.MIN_VALUE, values[2]);
+
+        LongGenerator bounded = new LongGenerator(false, Long.MAX_VALUE - 3);
+        try {
+            bounded.reserve(4);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(Long.MAX_VALUE - 3, bounded.reserve(3));
+        try {
+            bounded.nextLongIdentifier();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            bounded.reserve(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.id.serial.LongGenerator;
+import org.apache.commons.id.uuid.VersionFourGenerator;
+
+/**
+ * Unit tests for {@link PrefetchingGenerator}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class PrefetchingGeneratorTest extends TestCase {
+
+    /**
+     * Test that concurrent consumers receive every identifier exactly once.
+     */
+    public void testConcurrentConsumers() throws Exception {
+        final PrefetchingGenerator generator = new PrefetchingGenerator(new LongGenerator(false, 0), 64, 16, 48);
+        final Set[] seen = new Set[4];
+        final Throwable[] failure = new Throwable[1];
+        Thread[] threads = new Thread[seen.length];
+        for (int t = 0; t < threads.length; t++) {
+            final Set ids = seen[t] = new HashSet();
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < 20000; i++) {
+                            ids.add(generator.nextIdentifier());
+                        }
+                    } catch (Throwable e) {
+                        failure[0] = e;
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join();
+        }
+        generator.close();
+        if (failure[0] != null) {
+            throw new Exception(failure[0]);
+        }
+        Set all = new HashSet();
+        for (int t = 0; t < seen.length; t++) {
+            assertEquals(20000, seen[t].size());
+            all.addAll(seen[t]);
+        }
+        assertEquals(80000, all.size());
+        assertEquals(80000, generator.getHitCount() + generator.getMissCount());
+    }
+
+    /**
+     * Test that a filled ring answers from the prefetched identifiers.
+     */
+    public void testHitsAfterFill() throws Exception {
+        PrefetchingGenerator generator = new PrefetchingGenerator(VersionFourGenerator.getInstance(), 100);
+        assertEquals(128, generator.capacity());
+        assertSame(VersionFourGenerator.getInstance(), generator.getGenerator());
+        for (int i = 0; i < 500 && generator.size() < 100; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(100, generator.size());
+        for (int i = 0; i < 50; i++) {
+            assertNotNull(generator.nextIdentifier());
+        }
+        assertEquals(50, generator.getHitCount());
+        assertEquals(0, generator.getMissCount());
+        assertEquals(1.0, generator.getHitRate(), 0);
+        generator.close();
+        assertEquals(0, generator.size());
+        assertNotNull(generator.nextIdentifier());
+        assertEquals(1, generator.getMissCount());
+    }
+
+    /**
+     * Test that an exception of the decorated generator reaches the caller.
+     */
+    public void testFailingGenerator() throws Exception {
+        final int[] calls = new int[1];
+        PrefetchingGenerator generator = new PrefetchingGenerator(new IdentifierGenerator() {
+            public synchronized Object nextIdentifier() {
+                if (++calls[0] > 3) {
+                    throw new IllegalStateException("exhausted");
+                }
+                return new Integer(calls[0]);
+            }
+        }, 8);
+        Set ids = new HashSet();
+        try {
+            for (int i = 0; i < 10; i++) {
+                ids.add(generator.nextIdentifier());
+            }
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertTrue(ids.size() <= 3);
+        generator.close();
+    }
+
+    /**
+     * Test illegal arguments.
+     */
+    public void testIllegalArguments() {
+        int[][] illegal = {{0, 0, 1}, {16, 8, 8}, {16, -1, 8}, {16, 4, 17}};
+        for (int i = 0; i < illegal.length; i++) {
+            try {
+                new PrefetchingGenerator(new LongGenerator(false, 0), illegal[i][0], illegal[i][1], illegal[i][2]);
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            new PrefetchingGenerator(null, 16);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.MBeanServer;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.id.serial.NumericGenerator;
+import org.apache.commons.id.uuid.VersionFourGenerator;
+
+/**
+ * Unit tests for {@link Metrics} and {@link GeneratorMetrics}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class MetricsTest extends TestCase {
+
+    /**
+     * Test counting, listeners and the MBean.
+     */
+    public void testRegisterAndRecord() throws Exception {
+        GeneratorMetrics metrics = Metrics.register("MetricsTest");
+        assertSame(metrics, Metrics.register("MetricsTest"));
+        assertSame(metrics, Metrics.get("MetricsTest"));
+        assertNull(Metrics.get("MetricsTest.unknown"));
+        metrics.reset();
+
+        final List events = new ArrayList();
+        MetricsListener listener = new MetricsListener() {
+            public void onEvent(String generator, MetricEvent event, long value, long detail) {
+                if ("MetricsTest".equals(generator)) {
+                    events.add(event + "=" + value + "/" + detail);
+                }
+            }
+        };
+        Metrics.addListener(listener);
+        try {
+            metrics.record(MetricEvent.GENERATED);
+            metrics.record(MetricEvent.GENERATED, 2);
+            metrics.record(MetricEvent.RETRY);
+            metrics.record(MetricEvent.STATE_STORE, 1500);
+            metrics.record(MetricEvent.STATE_STORE, 500);
+            metrics.record(MetricEvent.STATE_LOAD, 800, 128);
+            metrics.record(MetricEvent.NODE_FAILOVER, 1, 2);
+        } finally {
+            Metrics.removeListener(listener);
+        }
+        metrics.record(MetricEvent.SECURE_RANDOM_FALLBACK);
+
+        assertEquals(3, metrics.getGeneratedCount());
+        assertEquals(1, metrics.getRetryCount());
+        assertEquals(0, metrics.getClockSequenceIncrementCount());
+        assertEquals(1, metrics.getSecureRandomFallbackCount());
+        assertEquals(2, metrics.getStateStoreCount());
+        assertEquals(1000, metrics.getStateStoreMeanNanos());
+        assertEquals(1500, metrics.getStateStoreMaxNanos());
+        assertEquals(1, metrics.getStateLoadCount());
+        assertEquals(800, metrics.getStateLoadMaxNanos());
+        assertEquals(1, metrics.getNodeFailoverCount());
+        assertEquals(0, metrics.getLockWaitCount());
+        assertNull(metrics.getLatency(MetricEvent.GENERATED));
+        assertEquals(7, events.size());
+        assertEquals("STATE_STORE=1500/0", events.get(3));
+        assertEquals("STATE_LOAD=800/128", events.get(5));
+        assertEquals("NODE_FAILOVER=1/2", events.get(6));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(new Long(3),
+            server.getAttribute(Metrics.objectName("MetricsTest"), "GeneratedCount"));
+        server.invoke(Metrics.objectName("MetricsTest"), "reset", null, null);
+        assertEquals(0, metrics.getGeneratedCount());
+        assertEquals(0, metrics.getStateStoreLatency().getCount());
+    }
+
+    /**
+     * Test the histogram buckets and percentiles.
+     */
+    public void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0, histogram.getMean());
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 10L);
+        }
+        histogram.record(-5);
+        assertEquals(101, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        // 500 lies in the bucket [256, 512)
+        assertEquals(512, histogram.getPercentile(50));
+        assertEquals(1000, histogram.getPercentile(100));
+        assertEquals(0, histogram.getPercentile(0));
+        try {
+            histogram.getPercentile(101);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+    }
+
+    /**
+     * Test that the built-in generators count when metrics are enabled.
+     */
+    public void testBuiltInGenerators() {
+        GeneratorMetrics metrics = Metrics.forGenerator(VersionFourGenerator.class);
+        if (!Metrics.isEnabled()) {
+            assertNull(metrics);
+            return;
+        }
+        long before = metrics.getGeneratedCount();
+        VersionFourGenerator.getInstance().nextUUID();
+        VersionFourGenerator.getInstance().nextIdentifier(true);
+        assertEquals(before + 2, metrics.getGeneratedCount());
+
+        NumericGenerator numeric = new NumericGenerator(true, 0);
+        before = Metrics.get("NumericGenerator").getGeneratedCount();
+        numeric.nextStringIdentifier();
+        numeric.appendTo(new StringBuilder());
+        assertEquals(before + 2, Metrics.get("NumericGenerator").getGeneratedCount());
+    }
+}
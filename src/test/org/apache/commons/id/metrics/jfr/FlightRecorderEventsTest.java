@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.metrics.jfr;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.id.uuid.clock.Clock;
+import org.apache.commons.id.uuid.state.Node;
+
+/**
+ * Unit tests for {@link FlightRecorderEvents}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class FlightRecorderEventsTest extends TestCase {
+
+    /**
+     * Test that nothing is begun without a recording.
+     */
+    public void testNotEnabled() {
+        assertNull(FlightRecorderEvents.beginLockWait());
+        assertNull(FlightRecorderEvents.beginOverclockSpin());
+        assertNull(FlightRecorderEvents.beginStateIO());
+        // ignored
+        FlightRecorderEvents.commitLockWait(null, "FlightRecorderEventsTest");
+        FlightRecorderEvents.commitOverclockSpin(null, "FlightRecorderEventsTest", 1);
+        FlightRecorderEvents.commitStateIO(null, "FlightRecorderEventsTest", true, 1);
+    }
+
+    /**
+     * Test that the events span the interval between begin and commit.
+     */
+    public void testEmitsIntervals() throws Exception {
+        File file = File.createTempFile("commons-id", ".jfr");
+        Recording recording = new Recording();
+        long start;
+        long end;
+        try {
+            recording.enable(GeneratorLockWaitEvent.class).withoutStackTrace();
+            recording.enable(OverclockSpinEvent.class);
+            recording.enable(StateIOEvent.class);
+            recording.start();
+            start = System.nanoTime();
+            Object lockWait = FlightRecorderEvents.beginLockWait();
+            Object spin = FlightRecorderEvents.beginOverclockSpin();
+            Object load = FlightRecorderEvents.beginStateIO();
+            Thread.sleep(5);
+            FlightRecorderEvents.commitStateIO(load, "FlightRecorderEventsTest", true, 512);
+            FlightRecorderEvents.commitOverclockSpin(spin, "FlightRecorderEventsTest", 3);
+            FlightRecorderEvents.commitLockWait(lockWait, "FlightRecorderEventsTest");
+            end = System.nanoTime();
+            recording.stop();
+            recording.dump(file.toPath());
+        } finally {
+            recording.close();
+        }
+
+        // generators of other tests may still be running
+        List events = new ArrayList();
+        try {
+            List recorded = RecordingFile.readAllEvents(file.toPath());
+            for (int i = 0; i < recorded.size(); i++) {
+                RecordedEvent event = (RecordedEvent) recorded.get(i);
+                if ("FlightRecorderEventsTest".equals(event.getString("generator"))) {
+                    events.add(event);
+                }
+            }
+        } finally {
+            file.delete();
+        }
+        assertEquals(3, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            RecordedEvent event = (RecordedEvent) events.get(i);
+            long duration = event.getDuration().toNanos();
+            assertTrue(duration >= 5000000);
+            assertTrue(duration <= end - start);
+            String name = event.getEventType().getName();
+            if (name.equals("org.apache.commons.id.OverclockSpin")) {
+                assertEquals(3, event.getLong("retries"));
+            } else if (name.equals("org.apache.commons.id.StateIO")) {
+                assertEquals(StateIOEvent.LOAD, event.getString("operation"));
+                assertEquals(512, event.getLong("bytes"));
+            } else {
+                assertEquals("org.apache.commons.id.GeneratorLockWait", name);
+            }
+        }
+    }
+
+    /**
+     * Test the instant events, emitted without metrics.
+     */
+    public void testEmitsInstants() throws Exception {
+        // not recorded, no recording is running
+        FlightRecorderEvents.nodeFailover("FlightRecorderEventsTest", 1);
+
+        File file = File.createTempFile("commons-id", ".jfr");
+        Recording recording = new Recording();
+        try {
+            recording.enable(ClockSequenceEvent.class);
+            recording.enable(NodeFailoverEvent.class);
+            recording.start();
+            FlightRecorderEvents.clockSequenceIncrement("FlightRecorderEventsTest", 0);
+            FlightRecorderEvents.clockSequenceIncrement("FlightRecorderEventsTest", 50);
+            FlightRecorderEvents.nodeFailover("FlightRecorderEventsTest", 2);
+            // a node whose last timestamp is ahead of the clock
+            long ahead = (System.currentTimeMillis() + Clock.GREGORIAN_CHANGE_OFFSET + 60000)
+                * Clock.INTERVALS_PER_MILLI;
+            new Node(new byte[6], ahead, (short) 0).getUUIDTime();
+            recording.stop();
+            recording.dump(file.toPath());
+        } finally {
+            recording.close();
+        }
+
+        List recorded;
+        try {
+            recorded = RecordingFile.readAllEvents(file.toPath());
+        } finally {
+            file.delete();
+        }
+        int events = 0;
+        boolean regression = false;
+        for (int i = 0; i < recorded.size(); i++) {
+            RecordedEvent event = (RecordedEvent) recorded.get(i);
+            String name = event.getEventType().getName();
+            if ("VersionOneGenerator".equals(event.getString("generator"))
+                    && name.equals("org.apache.commons.id.ClockSequenceIncrement")
+                    && event.getDuration("regression").toMillis() >= 59000) {
+                regression = true;
+            }
+            if (!"FlightRecorderEventsTest".equals(event.getString("generator"))) {
+                // generators of other tests may still be running
+                continue;
+            }
+            events++;
+            if (name.equals("org.apache.commons.id.ClockSequenceIncrement")) {
+                if (event.getDuration("regression").isZero()) {
+                    assertEquals(ClockSequenceEvent.CLOCK_NOT_ADVANCED, event.getString("reason"));
+                } else {
+                    assertEquals(ClockSequenceEvent.CLOCK_REGRESSION, event.getString("reason"));
+                    assertEquals(5000, event.getDuration("regression").toNanos());
+                }
+            } else {
+                assertEquals("org.apache.commons.id.NodeFailover", name);
+                assertEquals(2, event.getInt("nodeIndex"));
+            }
+        }
+        assertEquals(3, events);
+        assertTrue(regression);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.id.random;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.id.StringIdentifierGenerator;
+import org.apache.commons.id.test.AssertSerialization;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @author Commons-Id team
+ * @version $Id$
+ */
+public class SecureSessionIdGeneratorTest extends TestCase {
+
+    /** Test the format of the secure session identifier */
+    public void testStringSession() {
+        StringIdentifierGenerator f = new SecureSessionIdGenerator();
+        Set set = new HashSet();
+        for (int i = 0; i < 1000; i++) {
+            String id = f.nextStringIdentifier();
+            assertTrue(id.length() >= f.minLength());
+            assertTrue(id.length() <= f.maxLength());
+            for (int j = 0; j < id.length(); j++) {
+                char ch = id.charAt(j);
+                assertTrue(id, (ch >= '0' && ch <= '9') || (ch >= 'a' && ch <= 'z'));
+            }
+            set.add(id);
+        }
+        assertEquals(1000, set.size());
+    }
+
+    /** Test the generator is serializable. */
+    public void testSerializable() {
+        AssertSerialization.assertSerializable(new SecureSessionIdGenerator());
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.commons.id.StringIdentifierGenerator;
 import org.apache.commons.id.test.AssertSerialization;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -72,6 +73,45 @@ public class SessionIdGeneratorTest extends TestCase {
         assertEquals(generators.length*generators.length, set.size());
     }
     
+    /** Concurrent callers of one instance get unique ids. */
+    public void testConcurrentCallersGetUniqueIds() throws InterruptedException {
+        final StringIdentifierGenerator f = new SessionIdGenerator();
+        final Set set = Collections.synchronizedSet(new HashSet());
+        // the time and count after the random part must be unique on their own
+        final Set suffixes = Collections.synchronizedSet(new HashSet());
+        final int loop = 1000;
+        final Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < loop; j++) {
+                        final String id = f.nextStringIdentifier();
+                        set.add(id);
+                        suffixes.add(id.substring(6));
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        assertEquals(loop * threads.length, set.size());
+        assertEquals(loop * threads.length, suffixes.size());
+    }
+
+    /** The count survives serialization. */
+    public void testSerializationKeepsCount() {
+        final SessionIdGenerator f = new SessionIdGenerator();
+        String id = f.nextStringIdentifier();
+        // wait for next internal tic
+        while(id.substring(6, 9).equals(f.nextStringIdentifier().substring(6, 9)));
+        final SessionIdGenerator copy = (SessionIdGenerator) AssertSerialization.assertSerializable(f);
+        // should be executed within the next 2000 ms
+        assertEquals("1", copy.nextStringIdentifier().substring(9));
+        assertEquals("1", f.nextStringIdentifier().substring(9));
+    }
+
     /**
      * {@link TestSuite} for SessionIdGenerator. Ensures serialization.
      * 
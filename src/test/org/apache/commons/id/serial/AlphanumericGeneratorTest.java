@@ -21,6 +21,7 @@ import junit.framework.TestSuite;
 
 import org.apache.commons.id.SerializationTestContext;
 import org.apache.commons.id.StringIdentifierGenerator;
+import org.apache.commons.id.test.AssertConcurrency;
 import org.apache.commons.id.test.AssertSerialization;
 
 import java.io.Serializable;
@@ -216,6 +217,13 @@ public class AlphanumericGeneratorTest extends TestCase {
         }
     }
     
+    /** Test concurrent generation on many (virtual) threads */
+    public void testConcurrentGeneration() throws Exception {
+        StringIdentifierGenerator f = new AlphanumericGenerator(false, 4);
+        AssertConcurrency.assertUnique(f, 10000, 10);
+        assertEquals(Long.toString(100001, 36), f.nextStringIdentifier());
+    }
+
     /**
      * {@link TestSuite} for SessionIdGenerator. Ensures serialization.
      * 
@@ -21,6 +21,7 @@ import junit.framework.TestSuite;
 
 import org.apache.commons.id.LongIdentifierGenerator;
 import org.apache.commons.id.SerializationTestContext;
+import org.apache.commons.id.test.AssertConcurrency;
 import org.apache.commons.id.test.AssertSerialization;
 
 import java.io.Serializable;
@@ -85,6 +86,13 @@ public class LongGeneratorTest extends TestCase {
         }
     }
     
+    /** Test concurrent generation on many (virtual) threads */
+    public void testConcurrentGeneration() throws Exception {
+        LongGenerator f = new LongGenerator(false, 0);
+        AssertConcurrency.assertUnique(f, 10000, 10);
+        assertEquals(new Long(100000), f.nextLongIdentifier());
+    }
+
     /**
      * {@link TestSuite} for SessionIdGenerator. Ensures serialization.
      * 
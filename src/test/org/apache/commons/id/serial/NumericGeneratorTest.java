@@ -21,6 +21,7 @@ import junit.framework.TestSuite;
 
 import org.apache.commons.id.SerializationTestContext;
 import org.apache.commons.id.StringIdentifierGenerator;
+import org.apache.commons.id.test.AssertConcurrency;
 import org.apache.commons.id.test.AssertSerialization;
 
 import java.io.Serializable;
@@ -84,6 +85,13 @@ public class NumericGeneratorTest extends TestCase {
         }
     }
     
+    /** Test concurrent generation on many (virtual) threads */
+    public void testConcurrentGeneration() throws Exception {
+        StringIdentifierGenerator f = new NumericGenerator(false, 0);
+        AssertConcurrency.assertUnique(f, 10000, 10);
+        assertEquals("100000", f.nextStringIdentifier());
+    }
+
     /**
      * {@link TestSuite} for SessionIdGenerator. Ensures serialization.
      * 
@@ -32,6 +32,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.TimeZone;
 
 
@@ -232,6 +233,69 @@ public class TimeBasedAlphanumericIdentifierGeneratorTest extends TestCase {
         assertEquals(loop * idGenerators.length, new HashSet(idList).size());
     }
 
+    /**
+     * Test that concurrent threads sharing a domain still get unique and increasing ids.
+     * 
+     * @throws InterruptedException if interrupted
+     */
+    public void testConcurrentGeneratorsSharingDomainProduceUniqueIds() throws InterruptedException {
+        final TimeBasedAlphanumericIdentifierGenerator.SequenceDomain domain =
+            new TimeBasedAlphanumericIdentifierGenerator.SequenceDomain();
+        final int loop = 2000;
+        final Thread[] threads = new Thread[4];
+        final List[] results = new List[threads.length];
+        for (int i = 0; i < threads.length; ++i) {
+            final List ids = new ArrayList(loop);
+            final IdentifierGenerator idGenerator = new TimeBasedAlphanumericIdentifierGenerator(
+                4, 0, domain);
+            results[i] = ids;
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = loop; j-- > 0;) {
+                        ids.add(idGenerator.nextIdentifier());
+                    }
+                }
+            };
+        }
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i].start();
+        }
+        final Set all = new HashSet();
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i].join();
+            final List sorted = new ArrayList(results[i]);
+            Collections.sort(sorted);
+            assertEquals(sorted, results[i]);
+            all.addAll(results[i]);
+        }
+        assertEquals(loop * threads.length, all.size());
+    }
+
+    /**
+     * Test that generators with separate domains have independent counters.
+     */
+    public void testSeparateDomainsAreIndependent() {
+        final TimeBasedAlphanumericIdentifierGenerator first = new TimeBasedAlphanumericIdentifierGenerator(
+            0, 0, new TimeBasedAlphanumericIdentifierGenerator.SequenceDomain());
+        final TimeBasedAlphanumericIdentifierGenerator second = new TimeBasedAlphanumericIdentifierGenerator(
+            0, 0, new TimeBasedAlphanumericIdentifierGenerator.SequenceDomain());
+        assertNotSame(first.getSequenceDomain(), second.getSequenceDomain());
+        // a postfix of size 0 allows a single id per millisecond and domain
+        final TimeSliceSynchronizer synchronizer = new TimeSliceSynchronizer() {
+            void runTest() {
+                // note, that this might still fail on time shifting machines occasionally
+                assertEquals(first.nextStringIdentifier(), second.nextStringIdentifier());
+            }
+        };
+        synchronizer.runSynced();
+        try {
+            new TimeBasedAlphanumericIdentifierGenerator(0, 0, null);
+            fail("Thrown " + IllegalArgumentException.class.getName() + " expected");
+        } catch (final IllegalArgumentException e) {
+            // OK
+        }
+    }
+
     /**
      * {@link TestSuite} for TimeBasedAlphanumericIdentifierGenerator. Ensures serialization.
      * 
@@ -246,6 +310,7 @@ public class TimeBasedAlphanumericIdentifierGeneratorTest extends TestCase {
                 TimeBasedAlphanumericIdentifierGenerator idGenerator = (TimeBasedAlphanumericIdentifierGenerator)createReference();
                 assertEquals(idGenerator.maxLength(), test.maxLength());
                 assertEquals(idGenerator.minLength(), test.minLength());
+                assertSame(TimeBasedAlphanumericIdentifierGenerator.SequenceDomain.PROCESS, test.getSequenceDomain());
             }
 
             public Serializable createReference() {
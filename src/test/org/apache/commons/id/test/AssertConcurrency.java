@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.apache.commons.id.IdentifierGenerator;
+
+/**
+ * {@link Assert} class for generators used by many threads at once.
+ * <p>
+ * The tasks run on virtual threads where the JDK supports them, so that a
+ * generator blocking its carrier thread shows as a stall, and on a pool of
+ * platform threads otherwise.
+ * </p>
+ *
+ * @author Commons-Id team
+ * @version $Id$
+ */
+public class AssertConcurrency {
+
+    /**
+     * Returns an executor with one virtual thread per task, or a fixed pool
+     * of platform threads before Java 21.
+     *
+     * @return the executor
+     */
+    public static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor", new Class[0]).invoke(null, new Object[0]);
+        } catch (Exception e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        }
+    }
+
+    /**
+     * Assert that a generator hands out unique identifiers to many concurrent tasks.
+     *
+     * @param generator the generator
+     * @param tasks the number of tasks
+     * @param identifiersPerTask the number of identifiers each task takes
+     * @return the elapsed time in nanoseconds
+     * @throws Exception if a task fails
+     */
+    public static long assertUnique(
+            final IdentifierGenerator generator, int tasks, final int identifiersPerTask) throws Exception {
+        final Set identifiers = Collections.newSetFromMap(new ConcurrentHashMap());
+        final ExecutorService executor = newExecutor();
+        final long start = System.nanoTime();
+        try {
+            final Future[] futures = new Future[tasks];
+            for (int i = 0; i < tasks; i++) {
+                futures[i] = executor.submit(new Runnable() {
+                    public void run() {
+                        for (int j = 0; j < identifiersPerTask; j++) {
+                            identifiers.add(generator.nextIdentifier());
+                        }
+                    }
+                });
+            }
+            for (int i = 0; i < tasks; i++) {
+                futures[i].get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        final long elapsed = System.nanoTime() - start;
+        Assert.assertEquals("Unique identifiers", tasks * identifiersPerTask, identifiers.size());
+        return elapsed;
+    }
+}
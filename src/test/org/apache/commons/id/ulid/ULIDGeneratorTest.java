@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.ulid;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.id.test.AssertConcurrency;
+import org.apache.commons.id.uuid.MutableUUID;
+import org.apache.commons.id.uuid.UUID;
+import org.apache.commons.id.uuid.UUIDFormatException;
+
+/**
+ * Unit tests for {@link ULIDGenerator} and {@link ULIDCodec}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class ULIDGeneratorTest extends TestCase {
+
+    /**
+     * Generator with a clock set by the test.
+     */
+    private static class ManualClockGenerator extends ULIDGenerator {
+        long millis;
+
+        ManualClockGenerator(long millis) {
+            super(new Random(50));
+            this.millis = millis;
+        }
+
+        protected long currentTimeMillis() {
+            return millis;
+        }
+    }
+
+    /**
+     * Test the format and the timestamp of generated ULIDs.
+     */
+    public void testFormat() {
+        ULIDGenerator generator = new ULIDGenerator();
+        long before = System.currentTimeMillis();
+        String ulid = generator.nextStringIdentifier();
+        long after = System.currentTimeMillis();
+        assertEquals(26, ulid.length());
+        assertEquals(26, generator.minLength());
+        assertEquals(26, generator.maxLength());
+        assertTrue(ulid.charAt(0) <= '7');
+        long timestamp = ULIDCodec.timestampOf(ULIDCodec.parse(ulid));
+        assertTrue(timestamp >= before && timestamp <= after);
+        assertEquals(ulid, ULIDCodec.format(ULIDCodec.parse(ulid)));
+        assertTrue(generator.nextIdentifier() instanceof String);
+        assertEquals("x", generator.appendTo(new StringBuilder("x")).substring(0, 1));
+        assertEquals(27, generator.appendTo(new StringBuilder("x")).length());
+    }
+
+    /**
+     * Test ULIDs increase within a millisecond, over milliseconds and when the clock goes back.
+     */
+    public void testMonotonic() {
+        ManualClockGenerator generator = new ManualClockGenerator(1000);
+        String previous = generator.nextStringIdentifier();
+        for (int i = 0; i < 3000; i++) {
+            if (i % 100 == 0) {
+                generator.millis += i % 300 == 0 ? -5 : 1;
+            }
+            String next = generator.nextStringIdentifier();
+            assertTrue(previous + " < " + next, previous.compareTo(next) < 0);
+            assertTrue(ULIDCodec.parse(previous).compareTo(ULIDCodec.parse(next)) < 0);
+            previous = next;
+        }
+        UUID first = generator.nextUUID();
+        UUID second = generator.nextUUID();
+        assertEquals(first.getMostSignificantBits(), second.getMostSignificantBits());
+        assertEquals(first.getLeastSignificantBits() + 1, second.getLeastSignificantBits());
+    }
+
+    /**
+     * Test the generation on many threads.
+     */
+    public void testConcurrentGeneration() throws Exception {
+        AssertConcurrency.assertUnique(new ULIDGenerator(), 1000, 100);
+    }
+
+    /**
+     * Test the clock must be in the range of a ULID timestamp.
+     */
+    public void testClockOutOfRange() {
+        ManualClockGenerator generator = new ManualClockGenerator(ULIDCodec.MAX_TIMESTAMP);
+        assertEquals(ULIDCodec.MAX_TIMESTAMP, ULIDCodec.timestampOf(generator.nextUUID()));
+        assertTrue(generator.nextStringIdentifier().startsWith("7ZZZZZZZZZ"));
+        generator.millis++;
+        try {
+            generator.nextUUID();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        generator = new ManualClockGenerator(-1);
+        try {
+            generator.nextUUID();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            new ULIDGenerator(null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Test decoding and the lossless conversion to UUIDs.
+     */
+    public void testCodec() {
+        // example of the ULID specification
+        String ulid = "01ARYZ6S41TSV4RRFFQ69G5FAV";
+        UUID uuid = ULIDCodec.parse(ulid);
+        assertEquals(1469918176385L, ULIDCodec.timestampOf(uuid));
+        assertEquals(ulid, ULIDCodec.format(uuid));
+        assertEquals(uuid, ULIDCodec.parse(ulid.toLowerCase()));
+
+        MutableUUID sink = new MutableUUID();
+        ULIDCodec.decode("x" + ulid, 1, sink);
+        assertEquals(uuid, sink.toUUID());
+        char[] chars = new char[28];
+        assertEquals(27, ULIDCodec.encode(sink.getMostSignificantBits(), sink.getLeastSignificantBits(), chars, 1));
+        assertEquals(ulid, new String(chars, 1, 26));
+
+        Random random = new Random(50);
+        for (int i = 0; i < 1000; i++) {
+            UUID value = new UUID(random.nextLong(), random.nextLong());
+            assertEquals(value, ULIDCodec.parse(ULIDCodec.format(value)));
+        }
+
+        String[] illegal = {"81ARYZ6S41TSV4RRFFQ69G5FAV", "01ARYZ6S41TSV4RRFFQ69G5FAU", "01ARYZ6S41"};
+        for (int i = 0; i < illegal.length; i++) {
+            try {
+                ULIDCodec.parse(illegal[i]);
+                fail("Expected UUIDFormatException for " + illegal[i]);
+            } catch (UUIDFormatException e) {
+                // expected
+            }
+        }
+    }
+}
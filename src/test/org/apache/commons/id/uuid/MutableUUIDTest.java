@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link MutableUUID} and the generators writing into it.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class MutableUUIDTest extends TestCase {
+
+    private static final String TEXT = "f81d4fae-7dec-11d0-a765-00a0c91e6bf6";
+
+    /**
+     * Test formatting and writing match the immutable UUID.
+     */
+    public void testFormatAndWrite() {
+        Random random = new Random(47);
+        char[] chars = new char[40];
+        byte[] bytes = new byte[20];
+        for (int i = 0; i < 1000; i++) {
+            UUID expected = new UUID(random.nextLong(), random.nextLong());
+            MutableUUID uuid = new MutableUUID().set(expected);
+            assertEquals(expected, uuid.toUUID());
+            assertEquals(expected.toString(), uuid.toString());
+            assertEquals(38, uuid.formatTo(chars, 2));
+            assertEquals(expected.toString(), new String(chars, 2, 36));
+            assertEquals("x" + expected, uuid.formatTo(new StringBuilder("x")).toString());
+            assertEquals(18, uuid.writeTo(bytes, 2));
+            assertEquals(expected, UUID.fromBytes(bytes, 2));
+        }
+        assertEquals(TEXT, new MutableUUID().set(new UUID(TEXT)).toString());
+        assertEquals("00000000-0000-0000-0000-000000000000", new MutableUUID().toString());
+    }
+
+    /**
+     * Test writing to buffers of both byte orders.
+     */
+    public void testWriteToByteBuffer() {
+        UUID expected = new UUID(TEXT);
+        MutableUUID uuid = new MutableUUID().set(expected);
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        uuid.writeTo(buffer);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        uuid.writeTo(buffer);
+        buffer.flip();
+        assertEquals(expected, UUID.fromBytes(buffer));
+        assertEquals(expected, UUID.fromBytes(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    /**
+     * Test equality, hash code and order.
+     */
+    public void testEqualsHashCodeCompareTo() {
+        UUID uuid = new UUID(TEXT);
+        MutableUUID a = new MutableUUID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        MutableUUID b = new MutableUUID();
+        assertFalse(a.equals(b));
+        b.accept(a.getMostSignificantBits(), a.getLeastSignificantBits());
+        assertEquals(a, b);
+        assertEquals(uuid.hashCode(), a.hashCode());
+        assertEquals(0, a.compareTo(b));
+        assertEquals(0, a.compareTo(uuid));
+        assertTrue(new MutableUUID(-1, 0).compareTo(a) > 0);
+        assertTrue(new MutableUUID().compareTo(new UUID(0, 1)) < 0);
+        assertEquals(1, a.version());
+    }
+
+    /**
+     * Test the version one generator writes valid and unique UUIDs.
+     */
+    public void testVersionOneSink() {
+        VersionOneGenerator generator = VersionOneGenerator.getInstance();
+        MutableUUID uuid = new MutableUUID();
+        Set set = new HashSet();
+        UUID previous = generator.nextUUID();
+        for (int i = 0; i < 1000; i++) {
+            generator.nextUUID(uuid);
+            UUID copy = uuid.toUUID();
+            assertTrue(set.add(copy));
+            assertEquals(UUID.VERSION_ONE, copy.version());
+            assertEquals(UUID.VARIANT_IETF_DRAFT, copy.variant());
+            assertEquals(previous.node(), copy.node());
+            assertTrue(copy.timestamp() >= previous.timestamp());
+        }
+    }
+
+    /**
+     * Test the version four generator writes valid and unique UUIDs.
+     */
+    public void testVersionFourSink() {
+        VersionFourGenerator generator = VersionFourGenerator.getInstance();
+        MutableUUID uuid = new MutableUUID();
+        Set set = new HashSet();
+        for (int i = 0; i < 1000; i++) {
+            generator.nextUUID(uuid);
+            UUID copy = uuid.toUUID();
+            assertTrue(set.add(copy));
+            assertEquals(UUID.VERSION_FOUR, copy.version());
+            assertEquals(UUID.VARIANT_IETF_DRAFT, copy.variant());
+        }
+    }
+
+    /**
+     * Test the name based sink matches the name based factory.
+     */
+    public void testNameBasedSink() {
+        UUID namespace = new UUID(TEXT);
+        MutableUUID uuid = new MutableUUID();
+        UUID.nameUUIDFromString("www.apache.org", namespace, UUID.MD5_ENCODING, uuid);
+        assertEquals(UUID.nameUUIDFromString("www.apache.org", namespace), uuid.toUUID());
+        UUID.nameUUIDFromString("www.apache.org", namespace, UUID.SHA1_ENCODING, uuid);
+        assertEquals(UUID.nameUUIDFromString("www.apache.org", namespace, UUID.SHA1_ENCODING),
+            uuid.toUUID());
+        assertEquals(UUID.VERSION_FIVE, uuid.version());
+    }
+
+    /**
+     * Test the generators returning <code>java.util.UUID</code>.
+     */
+    public void testJavaUUIDs() {
+        Set set = new HashSet();
+        for (int i = 0; i < 1000; i++) {
+            java.util.UUID one = VersionOneGenerator.getInstance().nextJavaUUID();
+            assertEquals(1, one.version());
+            assertEquals(2, one.variant());
+            assertTrue(set.add(one));
+            java.util.UUID four = VersionFourGenerator.getInstance().nextJavaUUID();
+            assertEquals(4, four.version());
+            assertEquals(2, four.variant());
+            assertTrue(set.add(four));
+        }
+        MutableUUID uuid = new MutableUUID().set(new UUID(TEXT));
+        assertEquals(java.util.UUID.fromString(TEXT), uuid.toJavaUUID());
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.function.Supplier;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.id.uuid.clock.Clock;
+import org.apache.commons.id.uuid.clock.SystemClockImpl;
+import org.apache.commons.id.uuid.clock.ThreadClockImpl;
+
+/**
+ * Unit tests for {@link ProviderRegistry}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class ProviderRegistryTest extends TestCase {
+
+    private static final String KEY = Clock.class.getName();
+
+    private String saved;
+
+    protected void setUp() {
+        saved = System.getProperty(KEY);
+        System.getProperties().remove(KEY);
+    }
+
+    protected void tearDown() {
+        ProviderRegistry.unregister(Clock.class);
+        if (saved == null) {
+            System.getProperties().remove(KEY);
+        } else {
+            System.setProperty(KEY, saved);
+        }
+    }
+
+    /**
+     * Test the default, the system property and explicit registration.
+     */
+    public void testResolutionOrder() {
+        Object first = ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL);
+        assertTrue(first instanceof SystemClockImpl);
+        assertNotSame(first, ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL));
+
+        System.setProperty(KEY, ThreadClockImpl.class.getName());
+        assertTrue(ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL) instanceof ThreadClockImpl);
+
+        ProviderRegistry.register(Clock.class, SystemClockImpl.class);
+        assertTrue(ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL) instanceof SystemClockImpl);
+
+        ProviderRegistry.unregister(Clock.class);
+        assertTrue(ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL) instanceof ThreadClockImpl);
+    }
+
+    /**
+     * Test that the shared instance is kept until the registration changes.
+     */
+    public void testSingleton() {
+        Object singleton = ProviderRegistry.getSingleton(Clock.class, Clock.DEFAULT_CLOCK_IMPL);
+        assertTrue(singleton instanceof SystemClockImpl);
+        System.setProperty(KEY, ThreadClockImpl.class.getName());
+        assertSame(singleton, ProviderRegistry.getSingleton(Clock.class, Clock.DEFAULT_CLOCK_IMPL));
+        ProviderRegistry.register(Clock.class, ThreadClockImpl.class);
+        assertTrue(ProviderRegistry.getSingleton(Clock.class, Clock.DEFAULT_CLOCK_IMPL) instanceof ThreadClockImpl);
+    }
+
+    /**
+     * Test a registered factory, which needs no reflection.
+     */
+    public void testRegisterFactory() {
+        System.setProperty(KEY, ThreadClockImpl.class.getName());
+        CountingClock.instances = 0;
+        ProviderRegistry.register(Clock.class, new Supplier() {
+            public Object get() {
+                return new CountingClock();
+            }
+        });
+        Object first = ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL);
+        assertTrue(first instanceof CountingClock);
+        assertNotSame(first, ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL));
+        Object singleton = ProviderRegistry.getSingleton(Clock.class, Clock.DEFAULT_CLOCK_IMPL);
+        assertSame(singleton, ProviderRegistry.getSingleton(Clock.class, Clock.DEFAULT_CLOCK_IMPL));
+        assertEquals(3, CountingClock.instances);
+
+        ProviderRegistry.register(Clock.class, new Supplier() {
+            public Object get() {
+                return "not a clock";
+            }
+        });
+        try {
+            ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        ProviderRegistry.unregister(Clock.class);
+        assertTrue(ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL) instanceof ThreadClockImpl);
+    }
+
+    /**
+     * Test illegal implementations.
+     */
+    public void testIllegalImplementations() {
+        try {
+            ProviderRegistry.register(Clock.class, String.class);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        System.setProperty(KEY, "org.apache.commons.id.uuid.clock.MissingClockImpl");
+        try {
+            ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        System.setProperty(KEY, String.class.getName());
+        try {
+            ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Test that a provider found in a service file is instantiated once per
+     * instance and is only seen by the class loader with the service file.
+     */
+    public void testServiceFile() throws Exception {
+        File dir = File.createTempFile("commons-id", "");
+        dir.delete();
+        File services = new File(dir, "META-INF/services");
+        services.mkdirs();
+        File file = new File(services, KEY);
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(("# counts its instances\n" + CountingClock.class.getName() + "\n").getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        ClassLoader loader = new URLClassLoader(new URL[] {dir.toURI().toURL()}, getClass().getClassLoader());
+        Thread thread = Thread.currentThread();
+        ClassLoader saved = thread.getContextClassLoader();
+        try {
+            CountingClock.instances = 0;
+            thread.setContextClassLoader(loader);
+            assertTrue(ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL) instanceof CountingClock);
+            assertEquals(1, CountingClock.instances);
+            Object singleton = ProviderRegistry.getSingleton(Clock.class, Clock.DEFAULT_CLOCK_IMPL);
+            assertTrue(singleton instanceof CountingClock);
+            assertEquals(2, CountingClock.instances);
+
+            thread.setContextClassLoader(saved);
+            assertTrue(ProviderRegistry.newInstance(Clock.class, Clock.DEFAULT_CLOCK_IMPL) instanceof SystemClockImpl);
+            assertTrue(ProviderRegistry.getSingleton(Clock.class, Clock.DEFAULT_CLOCK_IMPL) instanceof SystemClockImpl);
+
+            thread.setContextClassLoader(loader);
+            assertSame(singleton, ProviderRegistry.getSingleton(Clock.class, Clock.DEFAULT_CLOCK_IMPL));
+            assertEquals(2, CountingClock.instances);
+        } finally {
+            thread.setContextClassLoader(saved);
+            file.delete();
+            services.delete();
+            services.getParentFile().delete();
+            dir.delete();
+        }
+    }
+
+    /**
+     * A clock counting its instances.
+     */
+    public static class CountingClock implements Clock {
+
+        /** The number of instances. */
+        static int instances;
+
+        public CountingClock() {
+            instances++;
+        }
+
+        public long getUUIDTime() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link TimeBasedUUIDComparator}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class TimeBasedUUIDComparatorTest extends TestCase {
+
+    /**
+     * Creates a version 1 UUID.
+     */
+    private static UUID timeBased(long timestamp, int clockSeq, long node) {
+        UUID min = UUID.minForTimestamp(timestamp);
+        return new UUID(min.getMostSignificantBits(),
+            min.getLeastSignificantBits() | (long) clockSeq << 48 | node);
+    }
+
+    /**
+     * Test the bounds carry the timestamp and version.
+     */
+    public void testBounds() {
+        long timestamp = 0x0123456789ABCDEL;
+        UUID min = UUID.minForTimestamp(timestamp);
+        UUID max = UUID.maxForTimestamp(timestamp);
+        assertEquals(UUID.VERSION_ONE, min.version());
+        assertEquals(UUID.VARIANT_IETF_DRAFT, max.variant());
+        assertEquals(timestamp, min.timestamp());
+        assertEquals(timestamp, max.timestamp());
+        assertEquals(0, min.clockSequence());
+        assertEquals(0x3FFF, max.clockSequence());
+        assertEquals(0xFFFFFFFFFFFFL, max.node());
+        assertEquals(0x0FFFFFFFFFFFFFFFL, UUID.maxForTimestamp(0x0FFFFFFFFFFFFFFFL).timestamp());
+        try {
+            UUID.minForTimestamp(1L << 60);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            UUID.maxForTimestamp(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Test sorting orders by timestamp, clock sequence and node.
+     */
+    public void testChronologicalOrder() {
+        Random random = new Random(36);
+        List uuids = new ArrayList();
+        for (int i = 0; i < 2000; i++) {
+            long timestamp = (random.nextLong() >>> 4) % 5000 + (1L << 32) - 2500;
+            uuids.add(timeBased(timestamp, random.nextInt(4), random.nextInt(3)));
+        }
+        uuids.add(UUID.timeUUID());
+        Collections.sort(uuids, new TimeBasedUUIDComparator());
+        for (int i = 1; i < uuids.size(); i++) {
+            UUID previous = (UUID) uuids.get(i - 1);
+            UUID current = (UUID) uuids.get(i);
+            assertTrue(previous.timestamp() <= current.timestamp());
+            if (previous.timestamp() == current.timestamp()) {
+                assertTrue(previous.clockSequence() <= current.clockSequence());
+                if (previous.clockSequence() == current.clockSequence()) {
+                    assertTrue(previous.node() <= current.node());
+                }
+            }
+        }
+
+        TimeBasedUUIDComparator comparator = new TimeBasedUUIDComparator();
+        UUID uuid = timeBased(100, 1, 1);
+        assertEquals(0, comparator.compare(uuid, new UUID(uuid)));
+        // same fields but a different version are not equal
+        UUID other = new UUID(uuid.getMostSignificantBits() ^ 0x5000L, uuid.getLeastSignificantBits());
+        assertTrue(comparator.compare(uuid, other) < 0);
+        assertTrue(comparator.compare(other, uuid) > 0);
+    }
+
+    /**
+     * Test range scans of sorted maps with the bounds.
+     */
+    public void testRangeScan() {
+        SortedMap tree = new TreeMap(new TimeBasedUUIDComparator());
+        SortedMap skipList = new ConcurrentSkipListMap(new TimeBasedUUIDComparator());
+        Random random = new Random(36);
+        for (long timestamp = 0; timestamp < 1000; timestamp++) {
+            for (int i = 0; i < 3; i++) {
+                UUID uuid = timeBased(timestamp << 40, random.nextInt(0x4000),
+                    random.nextLong() & 0xFFFFFFFFFFFFL);
+                tree.put(uuid, new Long(timestamp));
+                skipList.put(uuid, new Long(timestamp));
+            }
+        }
+        assertEquals(3000, tree.size());
+        SortedMap range = tree.subMap(UUID.minForTimestamp(200L << 40), UUID.minForTimestamp(300L << 40));
+        assertEquals(300, range.size());
+        assertEquals(range, skipList.subMap(UUID.minForTimestamp(200L << 40),
+            UUID.minForTimestamp(300L << 40)));
+        for (Iterator it = range.values().iterator(); it.hasNext();) {
+            long timestamp = ((Long) it.next()).longValue();
+            assertTrue(timestamp >= 200 && timestamp < 300);
+        }
+        assertEquals(3, tree.subMap(UUID.minForTimestamp(999L << 40),
+            UUID.maxForTimestamp(999L << 40)).size());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.id.Hex;
+
+/**
+ * Unit tests for {@link TimeSwappedCodec}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class TimeSwappedCodecTest extends TestCase {
+
+    private static final UUID SAMPLE = new UUID("6ccd780c-baba-1026-9564-5b8c656024db");
+
+    /** The result of MySQL's <code>UUID_TO_BIN('6ccd780c-baba-1026-9564-5b8c656024db', 1)</code>. */
+    private static final String SWAPPED = "1026baba6ccd780c95645b8c656024db";
+
+    /**
+     * Test the layout matches MySQL and decoding restores the UUID.
+     */
+    public void testEncodeDecode() {
+        byte[] bytes = new byte[18];
+        assertEquals(17, TimeSwappedCodec.encode(SAMPLE, bytes, 1));
+        assertEquals(SWAPPED, new String(Hex.encodeHex(bytes)).substring(2, 34));
+        assertEquals(SAMPLE, TimeSwappedCodec.decode(bytes, 1));
+        MutableUUID sink = new MutableUUID();
+        TimeSwappedCodec.decode(bytes, 1, sink);
+        assertEquals(SAMPLE, sink.toUUID());
+
+        Random random = new Random(49);
+        for (int i = 0; i < 1000; i++) {
+            long msb = random.nextLong();
+            assertEquals(msb, TimeSwappedCodec.unswap(TimeSwappedCodec.swap(msb)));
+        }
+    }
+
+    /**
+     * Test buffers of both byte orders hold the same bytes.
+     */
+    public void testByteBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(40);
+        buffer.position(8);
+        TimeSwappedCodec.encode(SAMPLE, buffer);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        TimeSwappedCodec.encode(SAMPLE, buffer);
+        assertEquals(40, buffer.position());
+        byte[] bytes = new byte[16];
+        TimeSwappedCodec.encode(SAMPLE, bytes, 0);
+        for (int i = 0; i < 32; i++) {
+            assertEquals(bytes[i % 16], buffer.get(8 + i));
+        }
+        buffer.position(8);
+        assertEquals(SAMPLE, TimeSwappedCodec.decode(buffer));
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        assertEquals(SAMPLE, TimeSwappedCodec.decode(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    /**
+     * Test the swapped bytes of version 1 UUIDs sort by timestamp, unlike the RFC 4122 bytes.
+     */
+    public void testSortsByTimestamp() {
+        long timestamp = 0x1E0FFFFFFFF0000L;
+        byte[] previous = new byte[16];
+        byte[] current = new byte[16];
+        TimeSwappedCodec.encode(UUID.minForTimestamp(timestamp), previous, 0);
+        boolean rfcOrdered = true;
+        for (int i = 1; i < 1000; i++) {
+            UUID uuid = UUID.maxForTimestamp(timestamp + i * 0x1000L);
+            TimeSwappedCodec.encode(uuid, current, 0);
+            assertTrue(compareUnsigned(previous, current) < 0);
+            rfcOrdered &= UUID.maxForTimestamp(timestamp + (i - 1) * 0x1000L).compareTo(uuid) < 0;
+            System.arraycopy(current, 0, previous, 0, 16);
+        }
+        assertFalse(rfcOrdered);
+    }
+
+    /**
+     * Test the bulk variants.
+     */
+    public void testBulk() {
+        UUID[] uuids = new UUID[10];
+        for (int i = 0; i < uuids.length; i++) {
+            uuids[i] = VersionOneGenerator.getInstance().nextUUID();
+        }
+        byte[] bytes = new byte[16 * 8 + 1];
+        assertEquals(bytes.length, TimeSwappedCodec.encode(uuids, 1, 8, bytes, 1));
+        UUID[] decoded = new UUID[10];
+        assertEquals(bytes.length, TimeSwappedCodec.decode(bytes, 1, decoded, 2, 8));
+        for (int i = 0; i < 8; i++) {
+            assertEquals(uuids[i + 1], decoded[i + 2]);
+        }
+        assertNull(decoded[0]);
+
+        ByteBuffer buffer = ByteBuffer.allocate(16 * 10);
+        TimeSwappedCodec.encode(uuids, 0, 10, buffer);
+        assertFalse(buffer.hasRemaining());
+        try {
+            TimeSwappedCodec.encode(uuids, 0, 1, buffer);
+            fail("Expected BufferOverflowException");
+        } catch (java.nio.BufferOverflowException e) {
+            // expected
+        }
+        try {
+            TimeSwappedCodec.encode(uuids, 5, 6, bytes, 0);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+        try {
+            TimeSwappedCodec.decode(bytes, 0, decoded, 0, 9);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Compares two byte arrays as unsigned bytes.
+     */
+    private static int compareUnsigned(byte[] a, byte[] b) {
+        for (int i = 0; i < a.length; i++) {
+            int cmp = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link UUIDCache}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class UUIDCacheTest extends TestCase {
+
+    private static final String HOT = "f81d4fae-7dec-11d0-a765-00a0c91e6bf6";
+
+    /**
+     * Test that a cached string returns the same instance.
+     */
+    public void testCanonicalInstance() {
+        UUIDCache cache = new UUIDCache(16);
+        UUID first = cache.fromString(HOT);
+        assertEquals(new UUID(HOT), first);
+        assertSame(first, cache.fromString(HOT));
+        assertSame(first, cache.fromString(new String(HOT.toCharArray())));
+        assertEquals(HOT, first.toString());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2.0 / 3, cache.getHitRate(), 1e-9);
+
+        cache.clear();
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0.0, cache.getHitRate(), 0);
+        assertNotSame(first, cache.fromString(HOT));
+    }
+
+    /**
+     * Test the capacity is rounded and respected.
+     */
+    public void testCapacity() {
+        assertEquals(16, new UUIDCache(9).capacity());
+        assertEquals(UUIDCache.WAYS, new UUIDCache(1).capacity());
+        UUIDCache cache = new UUIDCache(32);
+        String[] texts = new String[200];
+        Random random = new Random(32);
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+            cache.fromString(texts[i]);
+        }
+        int cached = 0;
+        for (int i = 0; i < texts.length; i++) {
+            long hits = cache.getHitCount();
+            cache.fromString(texts[i]);
+            if (cache.getHitCount() > hits) {
+                cached++;
+            }
+        }
+        assertTrue(cached <= 32);
+    }
+
+    /**
+     * Test illegal arguments and strings.
+     */
+    public void testIllegalArguments() {
+        try {
+            new UUIDCache(0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new UUIDCache(16, null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        UUIDCache cache = new UUIDCache(16);
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.fromString("f81d4fae-7dec-11d0-a765-00a0c91e6bfx");
+                fail("Expected UUIDFormatException");
+            } catch (UUIDFormatException e) {
+                // expected
+            }
+        }
+        assertEquals(0, cache.getHitCount());
+    }
+
+    /**
+     * Test that the frequency policy keeps a hot entry during a scan of one-off strings.
+     */
+    public void testFrequencyPolicyResistsScans() {
+        UUIDCache cache = new UUIDCache(16, UUIDCache.Policy.FREQUENCY);
+        assertSame(UUIDCache.Policy.FREQUENCY, cache.getPolicy());
+        UUID hot = null;
+        for (int i = 0; i < 10; i++) {
+            hot = cache.fromString(HOT);
+        }
+        Random random = new Random(16);
+        for (int i = 0; i < 1000; i++) {
+            cache.fromString(new UUID(random.nextLong(), random.nextLong()).toString());
+            assertSame(hot, cache.fromString(HOT));
+        }
+    }
+
+    /**
+     * Test concurrent lookups of a small set of strings.
+     */
+    public void testConcurrentLookups() throws Exception {
+        assertConcurrentLookups(new UUIDCache(256));
+    }
+
+    /**
+     * Test concurrent lookups with the frequency policy, whose accesses are buffered.
+     */
+    public void testConcurrentLookupsWithFrequencyPolicy() throws Exception {
+        assertConcurrentLookups(new UUIDCache(256, UUIDCache.Policy.FREQUENCY));
+    }
+
+    /**
+     * Looks up a small set of strings on several threads.
+     */
+    private void assertConcurrentLookups(final UUIDCache cache) throws Exception {
+        final String[] texts = new String[32];
+        Random random = new Random(64);
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+        }
+        final Throwable[] failure = new Throwable[1];
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < 10000; i++) {
+                            String text = texts[i % texts.length];
+                            assertEquals(text, cache.fromString(text).toString());
+                        }
+                    } catch (Throwable e) {
+                        failure[0] = e;
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join();
+        }
+        if (failure[0] != null) {
+            throw new Exception(failure[0]);
+        }
+        assertEquals(40000, cache.getHitCount() + cache.getMissCount());
+        assertTrue(cache.getHitRate() > 0.9);
+    }
+}
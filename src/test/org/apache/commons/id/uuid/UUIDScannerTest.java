@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link UUIDScanner}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class UUIDScannerTest extends TestCase {
+
+    /** Reference pattern for a UUID token. */
+    private static final Pattern UUID_TOKEN = Pattern.compile(
+        "(?<![0-9a-fA-F-])[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?![0-9a-fA-F-])");
+
+    /**
+     * Collects the UUIDs passed to the sink.
+     */
+    private static final class Collector implements UUIDSink {
+        final List uuids = new ArrayList();
+
+        public void accept(long msb, long lsb) {
+            uuids.add(new UUID(msb, lsb));
+        }
+    }
+
+    /**
+     * Test UUIDs at the edges and inside of text, with near misses.
+     */
+    public void testSimpleText() {
+        String text = "f81d4fae-7dec-11d0-a765-00a0c91e6bf6,id=urn:uuid:F81D4FAE-7DEC-11D0-A765-00A0C91E6BF7 "
+            + "x0f81d4fae-7dec-11d0-a765-00a0c91e6bf6 f81d4fae-7dec-11d0-a765-00a0c91e6bf6a "
+            + "f81d4fae-7dec-11d0-a765_00a0c91e6bf6 f81d4fae-7dec-11d0-a765-00a0c91e6bg6 "
+            + "-f81d4fae-7dec-11d0-a765-00a0c91e6bf6 [00000000-0000-0000-0000-000000000001]"
+            + "\u00e9f81d4fae-7dec-11d0-a765-00a0c91e6bf8";
+        Collector collector = new Collector();
+        ByteBuffer src = ByteBuffer.wrap(latin1(text));
+        assertEquals(4, new UUIDScanner(collector).scan(src));
+        assertFalse(src.hasRemaining());
+        assertEquals(new UUID("f81d4fae-7dec-11d0-a765-00a0c91e6bf6"), collector.uuids.get(0));
+        assertEquals(new UUID("f81d4fae-7dec-11d0-a765-00a0c91e6bf7"), collector.uuids.get(1));
+        assertEquals(new UUID(0, 1), collector.uuids.get(2));
+        assertEquals(new UUID("f81d4fae-7dec-11d0-a765-00a0c91e6bf8"), collector.uuids.get(3));
+    }
+
+    /**
+     * Test channels and mapped files with small buffers against a regular expression.
+     */
+    public void testAgainstPattern() throws Exception {
+        Random random = new Random(38);
+        StringBuffer text = new StringBuffer();
+        String noise = "0aF-:,; \n=xyz      ";
+        for (int i = 0; i < 3000; i++) {
+            if (random.nextInt(4) == 0) {
+                String uuid = new UUID(random.nextLong(), random.nextLong()).toString();
+                text.append(random.nextBoolean() ? uuid : uuid.toUpperCase());
+            } else {
+                text.append(noise.charAt(random.nextInt(noise.length())));
+            }
+        }
+        byte[] bytes = latin1(text.toString());
+        List expected = new ArrayList();
+        Matcher matcher = UUID_TOKEN.matcher(text);
+        while (matcher.find()) {
+            expected.add(new UUID(matcher.group().toLowerCase()));
+        }
+        assertTrue(expected.size() > 200);
+
+        Collector collector = new Collector();
+        new UUIDScanner(collector).scan(ByteBuffer.wrap(bytes));
+        assertEquals(expected, collector.uuids);
+
+        collector = new Collector();
+        UUIDScanner scanner = new UUIDScanner(collector, 256);
+        assertEquals(expected.size(), scanner.scan(Channels.newChannel(new ByteArrayInputStream(bytes))));
+        assertEquals(expected, collector.uuids);
+        // the scanner is reusable and a UUID may fill the whole input
+        collector.uuids.clear();
+        byte[] single = latin1("f81d4fae-7dec-11d0-a765-00a0c91e6bf6");
+        assertEquals(1, scanner.scan(Channels.newChannel(new ByteArrayInputStream(single))));
+        assertEquals(new UUID("f81d4fae-7dec-11d0-a765-00a0c91e6bf6"), collector.uuids.get(0));
+
+        File file = File.createTempFile("uuids", ".log");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(bytes);
+        out.close();
+        collector = new Collector();
+        assertEquals(expected.size(), new UUIDScanner(collector, 256, 300).scan(file));
+        assertEquals(expected, collector.uuids);
+    }
+
+    /**
+     * Test illegal arguments.
+     */
+    public void testIllegalArguments() {
+        try {
+            new UUIDScanner(null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new UUIDScanner(new Collector(), 16);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Encodes a string in ISO-8859-1.
+     */
+    private static byte[] latin1(String text) {
+        try {
+            return text.getBytes("ISO-8859-1");
+        } catch (java.io.UnsupportedEncodingException e) {
+            throw new IllegalStateException(e.toString());
+        }
+    }
+}
@@ -27,6 +27,11 @@ import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
 
 /**
  * Unit tests for {@link UUID}.
@@ -214,6 +219,49 @@ public class UUIDTest extends TestCase {
         }
     }
 
+    /**
+     * Test the non-throwing validation and parsing, which must agree with fromString.
+     *
+     *  @throws Exception an exception while testing
+     */
+    public void testIsValidAndTryParse() throws Exception {
+        String valid = "B4F00409-CEF8-4822-802C-DEB20704C365";
+        UUID baseline = UUID.fromString(valid);
+        assertEquals(baseline, UUID.tryParse(valid));
+        assertEquals(baseline, UUID.tryParse(new StringBuffer("urn:uuid:").append(valid.toLowerCase())));
+        assertEquals(baseline, UUID.tryParse("uuid:" + valid));
+        assertTrue(UUID.isValid(valid));
+        assertFalse(UUID.isValid(null));
+        assertNull(UUID.tryParse(null));
+
+        String[] candidates = {
+            valid, "urn:uuid:" + valid, "uuid:" + valid, "id:" + valid, "a:" + valid, ":" + valid,
+            "x" + valid, "", ":", "G4F00409-CEF8-4822-802C-DEB20704C365",
+            "FF4F00409-CEF8-4822-802C-DEB20704C365", "4F00409-CEF8-4822-802C-DEB20704C365",
+            "F4F00409-CEF8-4822-802CD-EB20704C365", "B4F00409-CEF8-4822-802C-DEB20704C36\u0665",
+            "B4F00409-CEF8-4822-802C-DEB20704C3\u00c4", "B4F00409+CEF8-4822-802C-DEB20704C365",
+            "b4f00409-cef8-4822-802c-deb20704c365:",
+        };
+        // only the first four candidates are valid
+        for (int i = 0; i < candidates.length; i++) {
+            UUID expected = i < 4 ? baseline : null;
+            try {
+                assertEquals(candidates[i], expected, UUID.fromString(candidates[i]));
+            } catch (UUIDFormatException e) {
+                assertNull(candidates[i], expected);
+            }
+            assertEquals(candidates[i], expected, UUID.tryParse(candidates[i]));
+            assertEquals(candidates[i], expected != null, UUID.isValid(candidates[i]));
+        }
+
+        Random random = new Random(39);
+        for (int i = 0; i < 1000; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            assertEquals(uuid, UUID.tryParse(uuid.toString()));
+            assertEquals(uuid, UUID.tryParse(uuid.toString().toUpperCase()));
+        }
+    }
+
     /**
      * Test the static fromString method
      *
@@ -381,6 +429,121 @@ public class UUIDTest extends TestCase {
         assertEquals(-1, baseline.compareTo(more));
     }
 
+    /**
+     * <p>Test that compareTo orders by unsigned bytes, consistent with the
+     * sortable Base32 representation.</p>
+     *
+     * @throws Exception a testing Exception.
+     */
+    public void testCompareToUnsigned() throws Exception {
+        UUID low = new UUID("7fffffff-ffff-ffff-ffff-ffffffffffff");
+        UUID high = new UUID("80000000-0000-0000-0000-000000000000");
+        assertTrue(low.compareTo(high) < 0);
+        assertTrue(new UUID(0, Long.MAX_VALUE).compareTo(new UUID(0, Long.MIN_VALUE)) < 0);
+        assertEquals(0, UUID.compare(-1L, -1L, -1L, -1L));
+
+        Random random = new Random(35);
+        for (int i = 0; i < 1000; i++) {
+            UUID a = new UUID(random.nextLong(), random.nextLong());
+            UUID b = new UUID(random.nextBoolean() ? a.getMostSignificantBits() : random.nextLong(),
+                random.nextLong());
+            int expected = a.toBase32String().compareTo(b.toBase32String());
+            assertEquals(Integer.signum(expected), Integer.signum(a.compareTo(b)));
+            assertEquals(-Integer.signum(expected), Integer.signum(b.compareTo(a)));
+        }
+    }
+
+    /**
+     * <p>Test the static decoders against the instance methods.</p>
+     *
+     * @throws Exception a testing Exception.
+     */
+    public void testStaticDecoders() throws Exception {
+        Random random = new Random(37);
+        byte[] bytes = new byte[19];
+        ByteBuffer big = ByteBuffer.allocate(19);
+        ByteBuffer little = ByteBuffer.allocateDirect(19).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 100; i++) {
+            UUID uuid = i == 0 ? UUID.timeUUID()
+                : UUID.minForTimestamp(random.nextLong() >>> 4);
+            uuid = new UUID(uuid.getMostSignificantBits(),
+                uuid.getLeastSignificantBits() | random.nextLong() & 0x3FFFFFFFFFFFFFFFL);
+            long msb = uuid.getMostSignificantBits();
+            long lsb = uuid.getLeastSignificantBits();
+            assertEquals(uuid.timestamp(), UUID.timestampOf(msb));
+            assertEquals(uuid.clockSequence(), UUID.clockSequenceOf(lsb));
+            assertEquals(uuid.node(), UUID.nodeOf(lsb));
+            assertEquals(uuid.version(), UUID.versionOf(msb));
+            assertEquals(uuid.variant(), UUID.variantOf(lsb));
+
+            uuid.writeTo(bytes, 3);
+            assertEquals(uuid.timestamp(), UUID.timestampOf(bytes, 3));
+            assertEquals(uuid.clockSequence(), UUID.clockSequenceOf(bytes, 3));
+            assertEquals(uuid.node(), UUID.nodeOf(bytes, 3));
+            ByteBuffer[] buffers = {big, little};
+            for (int j = 0; j < buffers.length; j++) {
+                buffers[j].clear();
+                buffers[j].put(bytes);
+                buffers[j].position(1);
+                assertEquals(uuid.timestamp(), UUID.timestampOf(buffers[j], 3));
+                assertEquals(uuid.clockSequence(), UUID.clockSequenceOf(buffers[j], 3));
+                assertEquals(uuid.node(), UUID.nodeOf(buffers[j], 3));
+                assertEquals(1, buffers[j].position());
+            }
+        }
+        assertEquals(UUID.VARIANT_NCS_COMPAT, UUID.variantOf(0));
+        assertEquals(UUID.VARIANT_MS, UUID.variantOf(0xC000000000000000L));
+        assertEquals(UUID.VARIANT_FUTURE, UUID.variantOf(-1L));
+        assertEquals(UUID.VERSION_FOUR, UUID.versionOf(UUID.randomUUID().getMostSignificantBits()));
+    }
+
+    /**
+     * <p>Test that hash codes of time based and random UUIDs are spread
+     * evenly over the buckets of a hash table.</p>
+     *
+     * @throws Exception a testing Exception.
+     */
+    public void testHashCodeDistribution() throws Exception {
+        final int buckets = 1 << 16;
+        Random random = new Random(35);
+        long node = random.nextLong() & 0xFFFFFFFFFFFFL;
+        int[] timeBased = new int[buckets];
+        int[] randomBased = new int[buckets];
+        for (int i = 0; i < buckets; i++) {
+            // version 1: time_low advances, the rest of the timestamp and the node are constant
+            long msb = ((0x1d2a0000L + i * 16L) << 32) | 0x7dec11d0L;
+            long lsb = 0x8000000000000000L | 0x0123L << 48 | node;
+            UUID uuid = new UUID(msb, lsb);
+            assertEquals(UUID.hashCode(msb, lsb), uuid.hashCode());
+            timeBased[bucket(uuid.hashCode(), buckets)]++;
+            // version 4
+            msb = random.nextLong() & ~0xF000L | 0x4000L;
+            lsb = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+            randomBased[bucket(new UUID(msb, lsb).hashCode(), buckets)]++;
+        }
+        // with one key per bucket on average the fullest bucket holds about 8 keys
+        assertTrue(max(timeBased) <= 12);
+        assertTrue(max(randomBased) <= 12);
+    }
+
+    /**
+     * Selects a bucket the way <code>java.util.HashMap</code> does.
+     */
+    private static int bucket(int hash, int buckets) {
+        return (hash ^ hash >>> 16) & (buckets - 1);
+    }
+
+    /**
+     * Returns the largest element.
+     */
+    private static int max(int[] values) {
+        int max = 0;
+        for (int i = 0; i < values.length; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
     /**
      * <p>Test the clockSequence() method.</p>
      * @throws Exception a testing Exception.
@@ -450,4 +613,123 @@ public class UUIDTest extends TestCase {
         long val = 164856135782942L;
         assertEquals(val, test.node());
     }
+
+    /**
+     * <p>Test the URL safe Base64 representation.</p>
+     *
+     * @throws Exception a testing Exception.
+     */
+    public void testBase64() throws Exception {
+        UUID test = new UUID("f81d4fae-7dec-11d0-a765-00a0c91e6bf6");
+        assertEquals("-B1Prn3sEdCnZQCgyR5r9g", test.toBase64String());
+        assertEquals(test, UUID.parseBase64("-B1Prn3sEdCnZQCgyR5r9g"));
+        assertEquals("AAAAAAAAAAAAAAAAAAAAAA", new UUID().toBase64String());
+        assertEquals("x:-B1Prn3sEdCnZQCgyR5r9g", test.formatBase64To(new StringBuilder("x:")).toString());
+        assertEquals(test, UUID.parseBase64("x:-B1Prn3sEdCnZQCgyR5r9g", 2));
+
+        Random random = new Random(4122);
+        char[] chars = new char[UUID.UUID_BASE64_LENGTH + 1];
+        for (int i = 0; i < 1000; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            String expected = Base64.getUrlEncoder().withoutPadding().encodeToString(uuid.getRawBytes());
+            assertEquals(UUID.UUID_BASE64_LENGTH + 1, uuid.formatBase64To(chars, 1));
+            assertEquals(expected, new String(chars, 1, UUID.UUID_BASE64_LENGTH));
+            assertEquals(uuid, UUID.parseBase64(expected));
+        }
+
+        String[] illegal = {"-B1Prn3sEdCnZQCgyR5r9", "-B1Prn3sEdCnZQCgyR5r9h", "+B1Prn3sEdCnZQCgyR5r9g",
+            "-B1Prn3sEdCnZQCgyR5r9\u00e9"};
+        for (int i = 0; i < illegal.length; i++) {
+            try {
+                UUID.parseBase64(illegal[i]);
+                fail("Expected UUIDFormatException for " + illegal[i]);
+            } catch (UUIDFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * <p>Test the Crockford Base32 representation.</p>
+     *
+     * @throws Exception a testing Exception.
+     */
+    public void testBase32() throws Exception {
+        UUID test = new UUID("f81d4fae-7dec-11d0-a765-00a0c91e6bf6");
+        assertEquals("7R3N7TWZFC278AES80M34HWTZP", test.toBase32String());
+        assertEquals(test, UUID.parseBase32("7R3N7TWZFC278AES80M34HWTZP"));
+        assertEquals(test, UUID.parseBase32("7r3n7twzfc278aes80m34hwtzp"));
+        assertEquals(test, UUID.parseBase32("7R3N7TWZFC278AES8OM34HWTZP"));
+        assertEquals("00000000000000000000000000", new UUID().toBase32String());
+        assertEquals("7ZZZZZZZZZZZZZZZZZZZZZZZZZ", new UUID(-1L, -1L).toBase32String());
+
+        Random random = new Random(4122);
+        String[] encoded = new String[1000];
+        UUID[] uuids = new UUID[encoded.length];
+        for (int i = 0; i < encoded.length; i++) {
+            uuids[i] = new UUID(random.nextLong(), random.nextLong());
+            encoded[i] = uuids[i].formatBase32To(new StringBuilder()).toString();
+            assertEquals(uuids[i], UUID.parseBase32(encoded[i]));
+        }
+        // the text sorts like the unsigned bytes
+        Arrays.sort(encoded);
+        for (int i = 1; i < encoded.length; i++) {
+            byte[] a = UUID.parseBase32(encoded[i - 1]).getRawBytes();
+            byte[] b = UUID.parseBase32(encoded[i]).getRawBytes();
+            int j = 0;
+            while (a[j] == b[j]) {
+                j++;
+            }
+            assertTrue((a[j] & 0xFF) < (b[j] & 0xFF));
+        }
+
+        String[] illegal = {"8ZZZZZZZZZZZZZZZZZZZZZZZZZ", "7R3NTWZFC278AES80M34HWTZP", "7R3N7TWZFC278AES80M34HWTZU"};
+        for (int i = 0; i < illegal.length; i++) {
+            try {
+                UUID.parseBase32(illegal[i]);
+                fail("Expected UUIDFormatException for " + illegal[i]);
+            } catch (UUIDFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * <p>Test the binary representation.</p>
+     *
+     * @throws Exception a testing Exception.
+     */
+    public void testBinary() throws Exception {
+        UUID test = new UUID("f81d4fae-7dec-11d0-a765-00a0c91e6bf6");
+        byte[] bytes = new byte[18];
+        assertEquals(17, test.writeTo(bytes, 1));
+        assertEquals(test, UUID.fromBytes(bytes, 1));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(32);
+        buffer.position(3);
+        test.writeTo(buffer);
+        assertEquals(19, buffer.position());
+        buffer.position(3);
+        assertEquals(test, UUID.fromBytes(buffer));
+        assertEquals(19, buffer.position());
+        assertEquals(test.getMostSignificantBits(), 0xf81d4fae7dec11d0L);
+        assertEquals(test.getLeastSignificantBits(), 0xa76500a0c91e6bf6L);
+    }
+
+    /**
+     * <p>Test the conversion to and from <code>java.util.UUID</code>.</p>
+     *
+     * @throws Exception a testing Exception.
+     */
+    public void testJavaUUID() throws Exception {
+        String text = "f81d4fae-7dec-11d0-a765-00a0c91e6bf6";
+        UUID test = new UUID(text);
+        java.util.UUID converted = test.toJavaUUID();
+        assertEquals(java.util.UUID.fromString(text), converted);
+        assertEquals(text, converted.toString());
+        assertEquals(1, converted.version());
+        assertEquals(test, UUID.fromJavaUUID(converted));
+        java.util.UUID random = java.util.UUID.randomUUID();
+        assertEquals(random.toString(), UUID.fromJavaUUID(random).toString());
+        assertEquals(new UUID(), UUID.fromJavaUUID(new java.util.UUID(0, 0)));
+    }
 }
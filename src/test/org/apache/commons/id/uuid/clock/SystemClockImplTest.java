@@ -21,6 +21,9 @@ import junit.framework.TestCase;
 
 import java.util.Arrays;
 
+import org.apache.commons.id.IdentifierGenerator;
+import org.apache.commons.id.test.AssertConcurrency;
+
 /**
  * Unit tests for {@link SystemClockImplTest}.
  *
@@ -45,6 +48,27 @@ public class SystemClockImplTest extends TestCase {
         }
     }
 
+    /**
+     * Make sure that time stamps generated by many (virtual) threads are
+     * unique on every OS.
+     *
+     * @throws Exception a testing exception.
+     */
+    public void testConcurrentUnique() throws Exception {
+        final Clock clock = new SystemClockImpl();
+        AssertConcurrency.assertUnique(new IdentifierGenerator() {
+            public Object nextIdentifier() {
+                while (true) {
+                    try {
+                        return new Long(clock.getUUIDTime());
+                    } catch (OverClockedException e) {
+                        Thread.yield();
+                    }
+                }
+            }
+        }, 1000, 20);
+    }
+
     /**
      * Make sure that time stamps generated by concurrent threads
      * are unique.
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid.collections;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.id.uuid.UUID;
+import org.apache.commons.id.uuid.UUIDSink;
+
+/**
+ * Unit tests for {@link UUIDColumn}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class UUIDColumnTest extends TestCase {
+
+    /** Unsigned order of the halves. */
+    private static final Comparator UNSIGNED = new Comparator() {
+        public int compare(Object o1, Object o2) {
+            long[] a = (long[]) o1;
+            long[] b = (long[]) o2;
+            int cmp = Long.compareUnsigned(a[0], b[0]);
+            return cmp != 0 ? cmp : Long.compareUnsigned(a[1], b[1]);
+        }
+    };
+
+    /**
+     * Test append, growth and access by index.
+     */
+    public void testAppendAndGet() {
+        UUIDColumn column = UUIDColumn.allocate(0);
+        UUID uuid = new UUID("f81d4fae-7dec-11d0-a765-00a0c91e6bf6");
+        for (int i = 0; i < 100; i++) {
+            column.append(i, -i);
+        }
+        column.append(uuid);
+        assertEquals(101, column.size());
+        assertTrue(column.capacity() >= 101);
+        assertTrue(column.isSorted());
+        assertEquals(7, column.getMostSignificantBits(7));
+        assertEquals(-7, column.getLeastSignificantBits(7));
+        assertEquals(uuid, column.get(100));
+        try {
+            column.get(101);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+        column.append(0, 0);
+        assertFalse(column.isSorted());
+    }
+
+    /**
+     * Test bulk appends from buffers and arrays.
+     */
+    public void testBulkAppend() {
+        UUIDColumn source = UUIDColumn.allocate(4);
+        source.append(1, 2);
+        source.append(3, 4);
+        UUIDColumn column = UUIDColumn.allocate(1);
+        column.append(source.asByteBuffer());
+        column.append(new long[] {9, 5, 2}, new long[] {0, 6, 8}, 1, 2);
+        assertEquals(4, column.size());
+        assertEquals(3, column.getMostSignificantBits(1));
+        assertEquals(8, column.getLeastSignificantBits(3));
+        assertFalse(column.isSorted());
+        try {
+            column.append(ByteBuffer.allocate(15));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Test sorting random and clustered values against <code>Arrays.sort</code>,
+     * then binary search and iteration.
+     */
+    public void testSortAndSearch() {
+        Random random = new Random(34);
+        int count = 20000;
+        long[][] expected = new long[count][];
+        UUIDColumn column = UUIDColumn.allocate(16);
+        for (int i = 0; i < count; i++) {
+            // mix of random values and values that share most of their bytes
+            long msb = i % 3 == 0 ? random.nextLong() : 0x0102030405060000L | random.nextInt(64);
+            long lsb = i % 5 == 0 ? random.nextLong() : random.nextInt(1000) * 0x100000001L;
+            expected[i] = new long[] {msb, lsb};
+            column.append(msb, lsb);
+        }
+        column.sort();
+        assertTrue(column.isSorted());
+        Arrays.sort(expected, UNSIGNED);
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected[i][0], column.getMostSignificantBits(i));
+            assertEquals(expected[i][1], column.getLeastSignificantBits(i));
+        }
+        for (int i = 0; i < count; i += 7) {
+            assertTrue(column.contains(expected[i][0], expected[i][1]));
+            assertTrue(column.indexOf(expected[i][0], expected[i][1]) >= 0);
+        }
+        assertFalse(column.contains(new UUID(-1L, -2L)));
+        assertEquals(-(count + 1), column.indexOf(-1L, -1L));
+
+        final int[] visited = new int[1];
+        final long[][] sorted = expected;
+        column.forEach(new UUIDSink() {
+            public void accept(long msb, long lsb) {
+                assertEquals(sorted[visited[0]][0], msb);
+                assertEquals(sorted[visited[0]][1], lsb);
+                visited[0]++;
+            }
+        });
+        assertEquals(count, visited[0]);
+
+        UUIDColumn.Cursor cursor = column.cursor();
+        int n = 0;
+        while (cursor.next()) {
+            assertEquals(n, cursor.index());
+            assertEquals(expected[n][1], cursor.getLeastSignificantBits());
+            n++;
+        }
+        assertEquals(count, n);
+    }
+
+    /**
+     * Test that an unsorted column rejects searches.
+     */
+    public void testSearchRequiresSort() {
+        UUIDColumn column = UUIDColumn.allocate(2);
+        column.append(2, 0);
+        column.append(1, 0);
+        try {
+            column.contains(1, 0);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        column.sort();
+        assertTrue(column.contains(1, 0));
+        assertEquals(1, column.indexOf(2, 0));
+    }
+
+    /**
+     * Test a column mapped onto a file.
+     */
+    public void testMappedFile() throws Exception {
+        File file = File.createTempFile("uuids", ".bin");
+        file.deleteOnExit();
+        UUIDColumn column = UUIDColumn.map(file, 8);
+        assertEquals(0, column.size());
+        column.append(-1L, 5);
+        column.append(1L, 5);
+        column.sort();
+        assertEquals(1L, column.getMostSignificantBits(0));
+        column.close();
+        assertEquals(32, file.length());
+
+        column = UUIDColumn.map(file, 8);
+        assertEquals(2, column.size());
+        assertEquals(-1L, column.getMostSignificantBits(1));
+        for (int i = 0; i < 6; i++) {
+            column.append(2, i);
+        }
+        try {
+            column.append(3, 0);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(5, column.getLeastSignificantBits(7));
+        column.close();
+        try {
+            UUIDColumn.map(file, 4);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid.collections;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.id.uuid.UUID;
+import org.apache.commons.id.uuid.UUIDSink;
+
+/**
+ * Unit tests for {@link UUIDHashSet}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class UUIDHashSetTest extends TestCase {
+
+    /**
+     * Test basic operations including the nil UUID.
+     */
+    public void testAddContainsRemove() {
+        UUIDHashSet set = new UUIDHashSet();
+        assertTrue(set.isEmpty());
+        UUID uuid = new UUID("f81d4fae-7dec-11d0-a765-00a0c91e6bf6");
+        assertTrue(set.add(uuid));
+        assertFalse(set.add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        assertTrue(set.contains(uuid));
+        assertFalse(set.contains(new UUID()));
+        assertTrue(set.add(new UUID()));
+        assertTrue(set.contains(0, 0));
+        assertEquals(2, set.size());
+        assertTrue(set.remove(0, 0));
+        assertFalse(set.remove(0, 0));
+        assertFalse(set.contains(new UUID()));
+        assertTrue(set.remove(uuid));
+        assertTrue(set.isEmpty());
+    }
+
+    /**
+     * Test against a <code>HashSet</code> with random operations on clustered keys.
+     */
+    public void testAgainstHashSet() {
+        Random random = new Random(33);
+        UUIDHashSet set = new UUIDHashSet(0);
+        Set expected = new HashSet();
+        for (int i = 0; i < 50000; i++) {
+            // few distinct keys with similar halves cause collisions and removals
+            long msb = random.nextInt(2000) & ~3;
+            long lsb = random.nextInt(4);
+            Object key = new UUID(msb, lsb);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.remove(key), set.remove(msb, lsb));
+                    break;
+                default:
+                    assertEquals(expected.add(key), set.add(msb, lsb));
+                    break;
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        final Set visited = new HashSet();
+        set.forEach(new UUIDSink() {
+            public void accept(long msb, long lsb) {
+                assertTrue(visited.add(new UUID(msb, lsb)));
+            }
+        });
+        assertEquals(expected, visited);
+
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0, 0));
+    }
+
+    /**
+     * Test illegal sizes.
+     */
+    public void testIllegalSize() {
+        try {
+            new UUIDHashSet(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new UUIDHashSet(Integer.MAX_VALUE);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid.collections;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.id.uuid.UUID;
+
+/**
+ * Unit tests for {@link UUIDLongMap}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class UUIDLongMapTest extends TestCase {
+
+    /**
+     * Test basic operations and the missing value.
+     */
+    public void testPutGetRemove() {
+        UUIDLongMap map = new UUIDLongMap(4, -1);
+        assertEquals(-1, map.getMissingValue());
+        UUID uuid = new UUID("f81d4fae-7dec-11d0-a765-00a0c91e6bf6");
+        assertEquals(-1, map.get(uuid));
+        assertEquals(-1, map.put(uuid, 7));
+        assertEquals(7, map.put(uuid, 8));
+        assertEquals(8, map.get(uuid));
+        assertEquals(-1, map.put(new UUID(), 3));
+        assertEquals(5, map.addTo(0, 0, 2));
+        assertEquals(0, map.addTo(1, 1, 1));
+        assertEquals(3, map.size());
+        assertTrue(map.containsKey(1, 1));
+        assertEquals(5, map.remove(new UUID()));
+        assertFalse(map.containsKey(0, 0));
+        assertEquals(-1, map.remove(0, 0));
+        assertEquals(2, map.size());
+    }
+
+    /**
+     * Test against a <code>HashMap</code>, growing from a small table.
+     */
+    public void testAgainstHashMap() {
+        Random random = new Random(33);
+        UUIDLongMap map = new UUIDLongMap();
+        Map expected = new HashMap();
+        for (int i = 0; i < 50000; i++) {
+            long msb = random.nextInt(5000);
+            long lsb = random.nextInt(2);
+            UUID key = new UUID(msb, lsb);
+            if (random.nextInt(4) == 0) {
+                Long previous = (Long) expected.remove(key);
+                assertEquals(previous == null ? 0 : previous.longValue(), map.remove(msb, lsb));
+            } else {
+                Long previous = (Long) expected.put(key, new Long(i));
+                assertEquals(previous == null ? 0 : previous.longValue(), map.put(msb, lsb, i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        final Map visited = new HashMap();
+        map.forEach(new UUIDLongMap.Visitor() {
+            public void visit(long msb, long lsb, long value) {
+                assertNull(visited.put(new UUID(msb, lsb), new Long(value)));
+            }
+        });
+        assertEquals(expected, visited);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid.collections;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.id.uuid.UUID;
+
+/**
+ * Unit tests for {@link UUIDObjectMap}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class UUIDObjectMapTest extends TestCase {
+
+    /**
+     * Test basic operations including <code>null</code> values.
+     */
+    public void testPutGetRemove() {
+        UUIDObjectMap map = new UUIDObjectMap();
+        UUID uuid = new UUID("f81d4fae-7dec-11d0-a765-00a0c91e6bf6");
+        assertNull(map.put(uuid, "a"));
+        assertEquals("a", map.put(uuid, "b"));
+        assertEquals("b", map.get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        assertNull(map.put(new UUID(), null));
+        assertTrue(map.containsKey(new UUID()));
+        assertNull(map.get(new UUID()));
+        assertEquals(2, map.size());
+        assertEquals("b", map.remove(uuid));
+        assertNull(map.get(uuid));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0, 0));
+    }
+
+    /**
+     * Test against a <code>HashMap</code>, growing from a small table.
+     */
+    public void testAgainstHashMap() {
+        Random random = new Random(34);
+        UUIDObjectMap map = new UUIDObjectMap(1);
+        Map expected = new HashMap();
+        for (int i = 0; i < 20000; i++) {
+            long msb = random.nextInt(3) - 1;
+            long lsb = random.nextInt(3000) - 1500;
+            UUID key = new UUID(msb, lsb);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = Integer.toString(i);
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        final Map visited = new HashMap();
+        map.forEach(new UUIDObjectMap.Visitor() {
+            public void visit(long msb, long lsb, Object value) {
+                assertNull(visited.put(new UUID(msb, lsb), value));
+            }
+        });
+        assertEquals(expected, visited);
+    }
+}
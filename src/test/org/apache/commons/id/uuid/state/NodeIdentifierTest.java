@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.id.uuid.state;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link NodeIdentifier}.
+ *
+ * @version $Id$
+ * @author Commons-id team
+ */
+public class NodeIdentifierTest extends TestCase {
+
+    private static final String CONTAINER_ID =
+        "4f1d8e3c2b5a69780f1e2d3c4b5a69788796a5b4c3d2e1f00f1e2d3c4b5a6978";
+
+    /**
+     * Test the cached default identifier.
+     */
+    public void testGet() {
+        NodeIdentifier.warmUp();
+        byte[] node = NodeIdentifier.get();
+        assertEquals(StateHelper.NODE_ID_BYTE_LENGTH, node.length);
+        node[0] = (byte) ~node[0];
+        assertFalse(Arrays.equals(node, NodeIdentifier.get()));
+        assertTrue(Arrays.equals(NodeIdentifier.get(), NodeIdentifier.get()));
+    }
+
+    /**
+     * Test that a failed resolution is not cached.
+     */
+    public void testGetRetriesAfterFailure() throws Exception {
+        Field field = NodeIdentifier.class.getDeclaredField("DEFAULT");
+        field.setAccessible(true);
+        AtomicReference resolved = (AtomicReference) field.get(null);
+        Object saved = resolved.getAndSet(null);
+        String savedStrategy = System.getProperty(NodeIdentifier.STRATEGY_PROPERTY);
+        String savedNode = System.getProperty(NodeIdentifier.NODE_PROPERTY);
+        try {
+            System.setProperty(NodeIdentifier.STRATEGY_PROPERTY, "configured");
+            System.setProperty(NodeIdentifier.NODE_PROPERTY, "not-a-node");
+            try {
+                NodeIdentifier.get();
+                fail("Expected IllegalStateException");
+            } catch (IllegalStateException e) {
+                assertNotNull(e.getCause());
+            }
+            System.setProperty(NodeIdentifier.NODE_PROPERTY, "01-23-45-67-89-AB");
+            byte[] node = NodeIdentifier.get();
+            assertEquals(0x01, node[0]);
+            assertEquals((byte) 0xAB, node[5]);
+        } finally {
+            restore(NodeIdentifier.STRATEGY_PROPERTY, savedStrategy);
+            restore(NodeIdentifier.NODE_PROPERTY, savedNode);
+            resolved.set(saved);
+        }
+    }
+
+    /**
+     * Test random identifiers have the multicast bit set.
+     */
+    public void testRandom() {
+        byte[] node = NodeIdentifier.resolve(NodeIdentifier.Strategy.RANDOM);
+        assertEquals(StateHelper.NODE_ID_BYTE_LENGTH, node.length);
+        assertEquals(-1, node[0] >> 7);
+        assertFalse(Arrays.equals(node, NodeIdentifier.resolve(NodeIdentifier.Strategy.RANDOM)));
+    }
+
+    /**
+     * Test the configured identifier and the default strategy.
+     */
+    public void testConfigured() {
+        String saved = System.getProperty(NodeIdentifier.NODE_PROPERTY);
+        try {
+            System.getProperties().remove(NodeIdentifier.NODE_PROPERTY);
+            assertSame(NodeIdentifier.Strategy.RANDOM, NodeIdentifier.getDefaultStrategy());
+            try {
+                NodeIdentifier.resolve(NodeIdentifier.Strategy.CONFIGURED);
+                fail("Expected IllegalStateException");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            System.setProperty(NodeIdentifier.NODE_PROPERTY, "02-00-4C-4F-4F-50");
+            assertSame(NodeIdentifier.Strategy.CONFIGURED, NodeIdentifier.getDefaultStrategy());
+            byte[] expected = {0x02, 0x00, 0x4C, 0x4F, 0x4F, 0x50};
+            assertTrue(Arrays.equals(expected, NodeIdentifier.resolve(NodeIdentifier.Strategy.CONFIGURED)));
+        } finally {
+            if (saved == null) {
+                System.getProperties().remove(NodeIdentifier.NODE_PROPERTY);
+            } else {
+                System.setProperty(NodeIdentifier.NODE_PROPERTY, saved);
+            }
+        }
+    }
+
+    /**
+     * Test the identifier derived from the process and container.
+     */
+    public void testProcess() {
+        byte[] first = NodeIdentifier.processIdentifier(4711, CONTAINER_ID);
+        assertTrue(Arrays.equals(first, NodeIdentifier.processIdentifier(4711, CONTAINER_ID)));
+        byte[] other = NodeIdentifier.processIdentifier(4712, CONTAINER_ID);
+        assertTrue(Arrays.equals(Arrays.copyOf(first, 3), Arrays.copyOf(other, 3)));
+        assertFalse(Arrays.equals(first, other));
+        assertFalse(Arrays.equals(first, NodeIdentifier.processIdentifier(4711, "other")));
+        assertEquals(-1, first[0] >> 7);
+        assertEquals(0x12, first[4]);
+        assertEquals(0x67, first[5]);
+
+        byte[] node = NodeIdentifier.resolve(NodeIdentifier.Strategy.PROCESS);
+        assertTrue(Arrays.equals(node, NodeIdentifier.resolve(NodeIdentifier.Strategy.PROCESS)));
+    }
+
+    /**
+     * Test finding the container identifier in control group lines.
+     */
+    public void testContainerId() {
+        assertEquals(CONTAINER_ID, NodeIdentifier.containerId("12:memory:/docker/" + CONTAINER_ID));
+        assertEquals(CONTAINER_ID, NodeIdentifier.containerId(
+            "0::/kubepods/burstable/pod1234/cri-containerd-" + CONTAINER_ID + ".scope"));
+        assertNull(NodeIdentifier.containerId("0::/user.slice/user-1000.slice"));
+        assertNull(NodeIdentifier.containerId("0::/docker/" + CONTAINER_ID + "0"));
+    }
+
+    /**
+     * Test the hardware address is looked up once, if there is one.
+     */
+    public void testHardwareAddress() {
+        try {
+            byte[] address = NodeIdentifier.resolve(NodeIdentifier.Strategy.HARDWARE_ADDRESS);
+            assertEquals(StateHelper.NODE_ID_BYTE_LENGTH, address.length);
+            assertTrue(Arrays.equals(address, NodeIdentifier.resolve(NodeIdentifier.Strategy.HARDWARE_ADDRESS)));
+        } catch (IllegalStateException e) {
+            // no network interface with a hardware address
+        }
+    }
+
+    /**
+     * Test strategy names.
+     */
+    public void testStrategyValueOf() {
+        assertSame(NodeIdentifier.Strategy.PROCESS, NodeIdentifier.Strategy.valueOf("process"));
+        assertEquals("HARDWARE_ADDRESS", NodeIdentifier.Strategy.valueOf(" Hardware_Address").toString());
+        try {
+            NodeIdentifier.Strategy.valueOf("dns");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static void restore(String key, String value) {
+        if (value == null) {
+            System.getProperties().remove(key);
+        } else {
+            System.setProperty(key, value);
+        }
+    }
+}